@@ -0,0 +1,84 @@
+package com.bookstore.config;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The resource server's {@link JwtDecoder}, in place of the one Spring Boot derives from the {@code jwt} properties.
+ * Tokens are verified the same way, RS256 against {@link JwkSetCache} with the issuer, timestamp and audience
+ * checks, and each verified token is then kept under the SHA-256 of its encoded form. A client reusing its token
+ * costs a hash and a lookup until the token's {@code exp}; tokens without one, and tokens that fail, are not kept.
+ * <p>
+ * Hits and misses are reported as {@code cache.gets{cache=jwt}}, verification time as {@code jwt.verification}.
+ */
+@Component
+public class CachingJwtDecoder implements JwtDecoder {
+    private final JwtDecoder verifier;
+    private final Cache<HashCode, Jwt> verified;
+    private final Timer verification;
+
+    public CachingJwtDecoder(JwkSetCache jwkSet,
+                             MeterRegistry meterRegistry,
+                             @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuer,
+                             @Value("${spring.security.oauth2.resourceserver.jwt.audiences}") List<String> audiences,
+                             @Value("${jwt.cache.max-size}") long maxSize) {
+        var processor = new DefaultJWTProcessor<SecurityContext>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSet));
+        processor.setJWSTypeVerifier((header, context) -> {
+        });
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        var decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefaultWithIssuer(issuer),
+                new JwtClaimValidator<List<String>>(JwtClaimNames.AUD,
+                        aud -> aud != null && !Collections.disjoint(aud, audiences))));
+        this.verifier = decoder;
+        this.verified = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.verification = Timer.builder("jwt.verification")
+                .description("Signature and claim verification of tokens not found in the cache")
+                .register(meterRegistry);
+        GuavaCacheMetrics.monitor(meterRegistry, verified, "jwt");
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        var key = Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+        var jwt = verified.getIfPresent(key);
+        if (jwt != null && Instant.now().isBefore(jwt.getExpiresAt())) {
+            return jwt;
+        }
+        jwt = verification.record(() -> verifier.decode(token));
+        if (jwt.getExpiresAt() != null) {
+            verified.put(key, jwt);
+        }
+        return jwt;
+    }
+}
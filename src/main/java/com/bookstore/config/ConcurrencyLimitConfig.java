@@ -0,0 +1,43 @@
+package com.bookstore.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+/**
+ * Active with {@code concurrency-limits.enabled=true}. The {@link ConcurrencyLimitFilter} runs ahead of Spring
+ * Security, so a request that is turned away costs no token verification.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "concurrency-limits.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            Environment environment,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+            MeterRegistry meterRegistry) {
+        var filter = new ConcurrencyLimitFilter(limit(environment, "reads"), limit(environment, "writes"),
+                limit(environment, "uploads"), exceptionResolver, meterRegistry);
+        var registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    private static AdaptiveConcurrencyLimit limit(Environment environment, String group) {
+        var prefix = "concurrency-limits." + group + ".";
+        return new AdaptiveConcurrencyLimit(
+                environment.getRequiredProperty(prefix + "initial-limit", Integer.class),
+                environment.getRequiredProperty(prefix + "min-limit", Integer.class),
+                environment.getRequiredProperty(prefix + "max-limit", Integer.class),
+                environment.getRequiredProperty(prefix + "latency-threshold", Long.class),
+                environment.getRequiredProperty("concurrency-limits.backoff-ratio", Double.class));
+    }
+}
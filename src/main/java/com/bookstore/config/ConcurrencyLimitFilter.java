@@ -0,0 +1,99 @@
+package com.bookstore.config;
+
+import com.bookstore.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps a separate {@link AdaptiveConcurrencyLimit} for catalog reads, writes and CSV uploads, so a slow upload or
+ * write burst does not take the read capacity with it. A request over its group's limit is answered right away with
+ * 503 and {@code Retry-After} through the {@code GlobalExceptionHandler}, instead of queueing for a database
+ * connection. A 503 from the handler, e.g. a connection timeout, counts as overload for the limit, and so does an
+ * exception escaping the chain, whose status is not set yet. The reactive endpoints hold no request thread or pooled
+ * JDBC connection and are not limited.
+ * <p>
+ * Per group, the limit and the requests in flight are reported as {@code http.server.concurrency.limit} and
+ * {@code http.server.concurrency.in-flight}, turned away requests as {@code http.server.concurrency.rejected}.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final Map<String, AdaptiveConcurrencyLimit> limits;
+    private final Map<String, Counter> rejections;
+    private final HandlerExceptionResolver exceptionResolver;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimit reads, AdaptiveConcurrencyLimit writes,
+                                  AdaptiveConcurrencyLimit uploads, HandlerExceptionResolver exceptionResolver,
+                                  MeterRegistry meterRegistry) {
+        this.limits = Map.of("reads", reads, "writes", writes, "uploads", uploads);
+        this.rejections = Map.of(
+                "reads", rejectionCounter("reads", meterRegistry),
+                "writes", rejectionCounter("writes", meterRegistry),
+                "uploads", rejectionCounter("uploads", meterRegistry));
+        this.exceptionResolver = exceptionResolver;
+        limits.forEach((group, limit) -> {
+            Gauge.builder("http.server.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .tag("group", group)
+                    .register(meterRegistry);
+            Gauge.builder("http.server.concurrency.in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .tag("group", group)
+                    .register(meterRegistry);
+        });
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return group(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var group = group(request);
+        var limit = limits.get(group);
+        if (!limit.tryAcquire()) {
+            rejections.get(group).increment();
+            exceptionResolver.resolveException(request, response, null,
+                    new ServiceOverloadedException("Too many concurrent " + group + ", retry later"));
+            return;
+        }
+        long admitted = System.nanoTime();
+        boolean overloaded = true;
+        try {
+            chain.doFilter(request, response);
+            overloaded = response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value();
+        } finally {
+            limit.release(admitted, overloaded);
+        }
+    }
+
+    private static String group(HttpServletRequest request) {
+        var path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/csv/upload/")) {
+            return "uploads";
+        }
+        if (!path.startsWith("/v1/") || path.startsWith("/v1/reactive/")) {
+            return null;
+        }
+        return SAFE_METHODS.contains(request.getMethod()) ? "reads" : "writes";
+    }
+
+    private static Counter rejectionCounter(String group, MeterRegistry meterRegistry) {
+        return Counter.builder("http.server.concurrency.rejected")
+                .description("Requests turned away over the group's concurrency limit")
+                .tag("group", group)
+                .register(meterRegistry);
+    }
+}
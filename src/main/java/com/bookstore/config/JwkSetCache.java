@@ -0,0 +1,79 @@
+package com.bookstore.config;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.text.ParseException;
+import java.util.List;
+
+/**
+ * The issuer's JSON Web Key set, held in memory. It is fetched right after startup and then every
+ * {@code jwt.jwk-set.refresh-interval} ms in the background, so verifying a token does not wait for it. A key id
+ * missing from the set, as after the issuer rotates its keys, triggers one more fetch, at most every
+ * {@code jwt.jwk-set.min-refresh-interval} ms.
+ */
+@Slf4j
+@Component
+public class JwkSetCache implements JWKSource<SecurityContext> {
+    private final RestTemplate restTemplate;
+    private final String jwkSetUri;
+    private final long minRefreshIntervalMillis;
+
+    private volatile JWKSet jwkSet = new JWKSet();
+    private long fetchedAt;
+
+    public JwkSetCache(RestTemplate restTemplate,
+                       @Value("${jwt.jwk-set.uri}") String jwkSetUri,
+                       @Value("${jwt.jwk-set.min-refresh-interval}") long minRefreshIntervalMillis) {
+        this.restTemplate = restTemplate;
+        this.jwkSetUri = jwkSetUri;
+        this.minRefreshIntervalMillis = minRefreshIntervalMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.jwk-set.refresh-interval}")
+    public void refresh() {
+        try {
+            fetch();
+        } catch (KeySourceException ex) {
+            log.warn("Failed to refresh JWK set, keeping {} keys: {}", jwkSet.getKeys().size(), ex.getMessage());
+        }
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+        var keys = jwkSelector.select(jwkSet);
+        if (keys.isEmpty()) {
+            fetchUnlessRecent();
+            keys = jwkSelector.select(jwkSet);
+        }
+        return keys;
+    }
+
+    private synchronized void fetchUnlessRecent() throws KeySourceException {
+        if (System.currentTimeMillis() - fetchedAt >= minRefreshIntervalMillis) {
+            fetch();
+        }
+    }
+
+    private synchronized void fetch() throws KeySourceException {
+        fetchedAt = System.currentTimeMillis();
+        try {
+            var body = restTemplate.getForObject(jwkSetUri, String.class);
+            if (body == null) {
+                throw new KeySourceException("Empty JWK set response from " + jwkSetUri);
+            }
+            jwkSet = JWKSet.parse(body);
+        } catch (RuntimeException | ParseException ex) {
+            throw new KeySourceException("Failed to fetch JWK set from " + jwkSetUri + ": " + ex.getMessage(), ex);
+        }
+    }
+}
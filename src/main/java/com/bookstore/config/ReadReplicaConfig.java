@@ -0,0 +1,99 @@
+package com.bookstore.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Active with {@code read-replicas.enabled=true}. The {@code dataSource} bean is wrapped in a
+ * {@link ReplicaRoutingDataSource} with a pool per {@code read-replicas.urls} entry, set up like the primary pool
+ * but with a short {@code read-replicas.connection-timeout}: a replica that is down or saturated sends its reads to
+ * the primary instead of holding them for the primary's full connection timeout.
+ * A client is pinned to the primary for the lag threshold plus one lag check interval after its own write: any
+ * replica read after that was within the threshold when last checked.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "read-replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    public ReadReplicaConfig(DataSource dataSource) throws SQLException {
+        this.routingDataSource = dataSource.unwrap(ReplicaRoutingDataSource.class);
+    }
+
+    @Bean
+    public static BeanPostProcessor readReplicaRouting(
+            @Value("${read-replicas.urls}") String[] urls,
+            @Value("${read-replicas.max-lag}") long maxLag,
+            @Value("${read-replicas.connection-timeout}") long connectionTimeout) {
+        return new ReplicaRouting(urls, maxLag, connectionTimeout);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(@Value("${read-replicas.max-lag}") long maxLag,
+                                                     @Value("${read-replicas.lag-check-interval}") long checkInterval) {
+        return new ReadYourWritesFilter(maxLag + checkInterval);
+    }
+
+    @Bean
+    public MeterBinder replicaMetrics() {
+        return routingDataSource::bindMetrics;
+    }
+
+    @Scheduled(fixedDelayString = "${read-replicas.lag-check-interval}")
+    public void checkReplicaLag() {
+        routingDataSource.checkReplicaLag();
+    }
+
+    /**
+     * Runs after {@link VirtualThreadsConfig}'s connection admission, so that keeps guarding the primary pool.
+     */
+    private record ReplicaRouting(String[] urls, long maxLag, long connectionTimeout)
+            implements BeanPostProcessor, Ordered {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource primary && beanName.equals("dataSource")) {
+                return new ReplicaRoutingDataSource(primary, replicaPools(primary), maxLag);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+
+        private List<DataSource> replicaPools(DataSource primary) {
+            HikariDataSource primaryPool;
+            try {
+                primaryPool = primary.unwrap(HikariDataSource.class);
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Read replicas need a Hikari primary pool", ex);
+            }
+            List<DataSource> replicas = new ArrayList<>();
+            for (int replica = 0; replica < urls.length; replica++) {
+                var config = new HikariConfig();
+                primaryPool.copyStateTo(config);
+                config.setJdbcUrl(urls[replica].trim());
+                config.setPoolName("replica-" + replica);
+                config.setReadOnly(true);
+                config.setConnectionTimeout(connectionTimeout);
+                config.setInitializationFailTimeout(-1);
+                replicas.add(new HikariDataSource(config));
+            }
+            return replicas;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.bookstore.config;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pins a request to the primary when it changes data, and every request of the same principal for
+ * {@code windowMillis} after that, so a client never reads its own writes back from a replica that has not replayed
+ * them yet. Anonymous requests cannot change anything and are never pinned.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesFilter(long windowMillis) {
+        this.recentWriters = CacheBuilder.newBuilder()
+                .expireAfterWrite(windowMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var principal = request.getUserPrincipal();
+        boolean write = principal != null && !SAFE_METHODS.contains(request.getMethod());
+        ReplicaRoutingDataSource.setPinnedToPrimary(
+                write || principal != null && recentWriters.getIfPresent(principal.getName()) != null);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.setPinnedToPrimary(false);
+            if (write) {
+                recentWriters.put(principal.getName(), Boolean.TRUE);
+            }
+        }
+    }
+}
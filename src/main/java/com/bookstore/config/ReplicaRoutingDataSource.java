@@ -0,0 +1,157 @@
+package com.bookstore.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sends the connections of read-only transactions to the replicas, round-robin, and everything else to the primary.
+ * The physical connection is only fetched on the first statement, after {@code @Transactional(readOnly = true)} has
+ * marked it read-only. A replica is used while the replay lag measured by the last {@link #checkReplicaLag()} is at
+ * most {@code maxLagMillis}; with no replica in range, or while the current thread is
+ * {@linkplain #setPinnedToPrimary pinned}, reads go to the primary too.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000
+                   END""";
+    private static final long UNAVAILABLE = Long.MAX_VALUE;
+    private static final ThreadLocal<Boolean> pinnedToPrimary = new ThreadLocal<>();
+
+    private final List<DataSource> replicas;
+    private final AtomicLongArray lagMillis;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long maxLagMillis) {
+        super(primary);
+        this.replicas = List.copyOf(replicas);
+        this.lagMillis = new AtomicLongArray(replicas.size());
+        for (int replica = 0; replica < replicas.size(); replica++) {
+            lagMillis.set(replica, UNAVAILABLE);
+        }
+        this.maxLagMillis = maxLagMillis;
+        setReadOnlyDataSource(new DelegatingDataSource(primary) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return readConnection();
+            }
+        });
+    }
+
+    /**
+     * Keeps the read-only transactions of the current thread on the primary, until called again with {@code false}.
+     */
+    public static void setPinnedToPrimary(boolean pinned) {
+        if (pinned) {
+            pinnedToPrimary.set(Boolean.TRUE);
+        } else {
+            pinnedToPrimary.remove();
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return pinnedToPrimary.get() != null;
+    }
+
+    /**
+     * Measures the replay lag of every replica. An idle standby that has replayed all it received is not lagging;
+     * one that cannot be reached is out of range until the next check.
+     */
+    public void checkReplicaLag() {
+        for (int replica = 0; replica < replicas.size(); replica++) {
+            long lag;
+            try {
+                Double measured = new JdbcTemplate(replicas.get(replica)).queryForObject(LAG_QUERY, Double.class);
+                lag = measured == null ? UNAVAILABLE : Math.round(measured);
+            } catch (DataAccessException ex) {
+                log.warn("Failed to check lag of replica {}: {}", replica, ex.getMessage());
+                lag = UNAVAILABLE;
+            }
+            recordLag(replica, lag);
+        }
+    }
+
+    /**
+     * Reports each replica pool under its own pool name, the way Spring Boot reports the primary's, and the replica's
+     * last measured lag as {@code db.replica.lag}, NaN while unknown.
+     */
+    public void bindMetrics(MeterRegistry registry) {
+        for (int replica = 0; replica < replicas.size(); replica++) {
+            int index = replica;
+            var pool = hikariPool(replicas.get(replica));
+            if (pool != null && pool.getMetricsTrackerFactory() == null && pool.getMetricRegistry() == null) {
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+            Gauge.builder("db.replica.lag", lagMillis, lags -> lags.get(index) == UNAVAILABLE ? Double.NaN : lags.get(index))
+                    .description("Replay lag measured by the last check")
+                    .baseUnit("milliseconds")
+                    .tag("replica", String.valueOf(replica))
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(ReplicaRoutingDataSource::closePool);
+        closePool(obtainTargetDataSource());
+    }
+
+    void recordLag(int replica, long lag) {
+        long previous = lagMillis.getAndSet(replica, lag);
+        if ((previous <= maxLagMillis) != (lag <= maxLagMillis)) {
+            log.info("Replica {} {} for reads, lag {}", replica, lag <= maxLagMillis ? "enabled" : "disabled",
+                    lag == UNAVAILABLE ? "unknown" : lag + "ms");
+        }
+    }
+
+    private Connection readConnection() throws SQLException {
+        if (!isPinnedToPrimary()) {
+            int first = next.getAndIncrement();
+            for (int i = 0; i < replicas.size(); i++) {
+                int replica = Math.floorMod(first + i, replicas.size());
+                if (lagMillis.get(replica) <= maxLagMillis) {
+                    try {
+                        return replicas.get(replica).getConnection();
+                    } catch (SQLException ex) {
+                        log.warn("Replica {} unavailable, reading elsewhere: {}", replica, ex.getMessage());
+                        recordLag(replica, UNAVAILABLE);
+                    }
+                }
+            }
+        }
+        return obtainTargetDataSource().getConnection();
+    }
+
+    private static void closePool(DataSource dataSource) {
+        var pool = hikariPool(dataSource);
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    private static HikariDataSource hikariPool(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException ex) {
+            log.warn("Failed to unwrap pool: {}", ex.getMessage());
+            return null;
+        }
+    }
+}
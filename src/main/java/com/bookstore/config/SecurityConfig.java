@@ -2,19 +2,54 @@ package com.bookstore.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
+    private static final RequestMatcher ACTUATOR_HEALTH = new AntPathRequestMatcher("/actuator/health/**");
+    private static final RequestMatcher ACTUATOR = new AntPathRequestMatcher("/actuator/**");
+
+    /**
+     * GETs without credentials. The main chain permits every GET, so these skip its authorization, bearer token,
+     * security context, anonymous authentication, CORS, session and request cache filters and only get the response
+     * headers written; handler CORS is still applied by Spring MVC. A GET carrying an {@code Authorization} header
+     * stays on the main chain, which rejects a bad token. So do actuator endpoints other than health, which need
+     * authentication.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain anonymousReadFilterChain(HttpSecurity http) throws Exception {
+        http.securityMatcher(request -> HttpMethod.GET.matches(request.getMethod())
+                        && request.getHeader(HttpHeaders.AUTHORIZATION) == null
+                        && (ACTUATOR_HEALTH.matches(request) || !ACTUATOR.matches(request)))
+                .cors(AbstractHttpConfigurer::disable)
+                .securityContext(AbstractHttpConfigurer::disable)
+                .anonymous(AbstractHttpConfigurer::disable)
+                .sessionManagement(AbstractHttpConfigurer::disable)
+                .requestCache(AbstractHttpConfigurer::disable)
+                .servletApi(AbstractHttpConfigurer::disable)
+                .exceptionHandling(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .csrf(AbstractHttpConfigurer::disable);
+        return http.build();
+    }
+
     @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.authorizeHttpRequests(httpCustomizer -> httpCustomizer
+                        .requestMatchers(ACTUATOR_HEALTH).permitAll()
+                        .requestMatchers(ACTUATOR).authenticated()
                         .requestMatchers(HttpMethod.GET).permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                         .anyRequest().authenticated()
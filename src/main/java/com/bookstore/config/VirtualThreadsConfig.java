@@ -0,0 +1,43 @@
+package com.bookstore.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Active with {@code spring.threads.virtual.enabled=true} on Java 21+, when Spring Boot runs Tomcat requests,
+ * {@code @Async} listeners and scheduled jobs on virtual threads. Tomcat's worker pool then no longer caps how many
+ * requests reach the connection pool, so the pool is fronted by a {@link ConnectionAdmissionDataSource}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionAdmission(
+            @Value("${connection-admission.waiting-per-connection}") int waitingPerConnection,
+            @Value("${connection-admission.wait-timeout}") long waitTimeout) {
+        return new ConnectionAdmission(waitingPerConnection, waitTimeout);
+    }
+
+    private record ConnectionAdmission(int waitingPerConnection, long waitTimeout) implements BeanPostProcessor, Ordered {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource hikari) {
+                int permits = hikari.getMaximumPoolSize() * (1 + waitingPerConnection);
+                return new ConnectionAdmissionDataSource(hikari, permits, waitTimeout);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -48,18 +49,19 @@ public class AuthorController {
 
     @Operation(security = @SecurityRequirement(name = "bearerAuth"))
     @PutMapping("/{id}")
-    public AuthorDto updateAuthor(@PathVariable(name = "id") Long id,
-                                  @Valid @RequestBody AuthorUpdateRequestDto updateRequest) {
+    public ResponseEntity<AuthorDto> updateAuthor(@PathVariable(name = "id") Long id,
+                                                  @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @Valid @RequestBody AuthorUpdateRequestDto updateRequest) {
         if (!id.equals(updateRequest.getId())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Id in path should be equal to id in request body!");
         }
 
-        return authorService.update(id, updateRequest);
+        return ETags.ok(authorService.update(id, updateRequest, ETags.expectedVersion(ifMatch)));
     }
 
     @GetMapping("/{id}")
-    public AuthorDto findAuthor(@PathVariable(name = "id") Long id) {
-        return authorService.findById(id);
+    public ResponseEntity<AuthorDto> findAuthor(@PathVariable(name = "id") Long id) {
+        return ETags.ok(authorService.findById(id));
     }
 
 
@@ -1,10 +1,18 @@
 package com.bookstore.controller;
 
 import com.bookstore.controller.filters.BookFilter;
+import com.bookstore.controller.filters.PopularBooksFilter;
+import com.bookstore.controller.filters.TopBooksFilter;
+import com.bookstore.dto.Versioned;
 import com.bookstore.dto.book.BookDto;
 import com.bookstore.dto.book.BookRequestDto;
+import com.bookstore.dto.book.PopularBookDto;
+import com.bookstore.dto.book.ScoredBookDto;
 import com.bookstore.dto.rating.BookRatingDto;
+import com.bookstore.dto.rating.RatingScoreRequestDto;
 import com.bookstore.service.BookService;
+import com.bookstore.service.impl.BookPopularityService;
+import com.bookstore.service.impl.BookSimilarityService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
@@ -12,6 +20,8 @@ import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -20,6 +30,7 @@ import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -27,22 +38,71 @@ import java.net.URI;
 @RequestMapping("/v1/books")
 public class BookController {
     private final BookService bookService;
+    private final BookSimilarityService similarityService;
+    private final BookPopularityService popularityService;
 
     @GetMapping
     public Page<BookDto> findBooksPaged(@ParameterObject BookFilter bookFilter, @ParameterObject Pageable pageable) {
         return bookService.findAll(bookFilter, pageable);
     }
 
+    @GetMapping("/top")
+    public List<BookDto> findTopRatedBooks(@ParameterObject TopBooksFilter filter,
+                                           @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return bookService.findTopRated(filter, limit);
+    }
+
+    /**
+     * Most rated books among readers of a country and/or age range; omitted parameters leave that dimension open.
+     */
+    @GetMapping("/popular")
+    public List<PopularBookDto> findPopularBooks(@ParameterObject PopularBooksFilter filter,
+                                                @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        if (filter.getMinAge() != null && filter.getMaxAge() != null && filter.getMinAge() > filter.getMaxAge()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minAge should not be greater than maxAge!");
+        }
+
+        return popularityService.findPopular(filter, limit);
+    }
+
     @GetMapping("/{isbn}")
-    public BookDto findBookByIsbn(@PathVariable(name = "isbn") String isbn) {
-        return bookService.findByIsbn(isbn);
+    public ResponseEntity<BookDto> findBookByIsbn(@PathVariable(name = "isbn") String isbn) {
+        return withETag(bookService.findByIsbn(isbn));
+    }
+
+    @GetMapping("/{isbn}/similar")
+    public List<ScoredBookDto> findSimilarBooks(@PathVariable(name = "isbn") String isbn,
+                                               @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return similarityService.findSimilar(isbn, limit);
     }
 
+    /**
+     * Offset paging by default. With {@code afterUserId} the ratings are read with keyset paging instead
+     * (ordered by user id, no total count): pass the last {@code userId} of a slice to get the next one.
+     */
     @GetMapping("/{isbn}/ratings")
-    public Page<BookRatingDto> getBookRatings(@PathVariable(name = "isbn") String isbn, Pageable pageable) {
+    public Slice<BookRatingDto> getBookRatings(@PathVariable(name = "isbn") String isbn,
+                                               @RequestParam(name = "afterUserId", required = false) Long afterUserId,
+                                               @ParameterObject Pageable pageable) {
+        if (afterUserId != null) {
+            return bookService.findRatingsByBookIsbnAfter(isbn, afterUserId, pageable.getPageSize());
+        }
         return bookService.findRatingsByBookIsbn(isbn, pageable);
     }
 
+    /**
+     * Accepted ratings are buffered and written within {@code ratings.write-behind.flush-interval} ms; until then
+     * they are not visible in the book's ratings or aggregates.
+     */
+    @Operation(security = @SecurityRequirement(name = "bearerAuth"))
+    @PutMapping("/{isbn}/ratings/{userId}")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void rateBook(@PathVariable(name = "isbn") String isbn,
+                         @PathVariable(name = "userId") Long userId,
+                         @Valid @RequestBody RatingScoreRequestDto ratingRequest) {
+        bookService.rate(isbn, userId, ratingRequest.getScore());
+    }
+
     @Operation(security = @SecurityRequirement(name = "bearerAuth"))
     @PostMapping
     public ResponseEntity<BookDto> createBook(@Valid @RequestBody BookRequestDto bookRequest) {
@@ -57,12 +117,14 @@ public class BookController {
 
     @Operation(security = @SecurityRequirement(name = "bearerAuth"))
     @PutMapping("/{isbn}")
-    public BookDto updateBook(@PathVariable(name = "isbn") String isbn, @Valid @RequestBody BookRequestDto bookRequest) {
+    public ResponseEntity<BookDto> updateBook(@PathVariable(name = "isbn") String isbn,
+                                              @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @Valid @RequestBody BookRequestDto bookRequest) {
         if (!isbn.equals(bookRequest.getIsbn())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ISBN in path should be equal to ISBN in request body!");
         }
 
-        return bookService.update(isbn, bookRequest);
+        return withETag(bookService.update(isbn, bookRequest, ETags.expectedVersion(ifMatch)));
     }
 
     @Operation(security = @SecurityRequirement(name = "bearerAuth"))
@@ -71,4 +133,13 @@ public class BookController {
     public void deleteBook(@PathVariable(name = "isbn") String isbn) {
         bookService.delete(isbn);
     }
+
+    /**
+     * The rating aggregates change with every rating flush without bumping the book's version, so they are part of
+     * the tag.
+     */
+    private static ResponseEntity<BookDto> withETag(Versioned<BookDto> book) {
+        var content = book.content();
+        return ETags.ok(book, content.getRating(), content.getRatingsCount(), content.getWeightedRating());
+    }
 }
@@ -0,0 +1,71 @@
+package com.bookstore.controller;
+
+import com.bookstore.dto.author.AuthorRequestDto;
+import com.bookstore.dto.book.BookRequestDto;
+import com.bookstore.dto.bulk.BulkResultDto;
+import com.bookstore.dto.publisher.PublisherRequestDto;
+import com.bookstore.dto.rating.RatingRequestDto;
+import com.bookstore.service.impl.BulkWriteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Batch writes for catalog synchronization. Every item gets its own result; a batch is only rejected as a
+ * whole when it exceeds {@code bulk.max-items}.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@RequestMapping("/v1")
+public class BulkWriteController {
+    private final BulkWriteService bulkWriteService;
+
+    @Value("${bulk.max-items}")
+    private int maxItems;
+
+    @Operation(security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping("/books/bulk")
+    public BulkResultDto createBooks(@RequestBody List<BookRequestDto> bookRequests) {
+        validateSize(bookRequests);
+        return bulkWriteService.createBooks(bookRequests);
+    }
+
+    @Operation(security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping("/authors/bulk")
+    public BulkResultDto createAuthors(@RequestBody List<AuthorRequestDto> authorRequests) {
+        validateSize(authorRequests);
+        return bulkWriteService.createAuthors(authorRequests);
+    }
+
+    @Operation(security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping("/publishers/bulk")
+    public BulkResultDto createPublishers(@RequestBody List<PublisherRequestDto> publisherRequests) {
+        validateSize(publisherRequests);
+        return bulkWriteService.createPublishers(publisherRequests);
+    }
+
+    @Operation(security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping("/books/ratings/bulk")
+    public BulkResultDto saveRatings(@RequestBody List<RatingRequestDto> ratingRequests) {
+        validateSize(ratingRequests);
+        return bulkWriteService.saveRatings(ratingRequests);
+    }
+
+    private void validateSize(List<?> items) {
+        if (items.size() > maxItems) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    String.format("At most %d items are accepted per request, got %d!", maxItems, items.size()));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.bookstore.controller;
+
+import com.bookstore.dto.Versioned;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+
+/**
+ * Row versions as strong entity tags: version {@code 3} is sent as {@code ETag: "3"} and expected back
+ * in {@code If-Match}.
+ */
+@UtilityClass
+class ETags {
+    private static final long NO_VERSION = -1;
+
+    static <T> ResponseEntity<T> ok(Versioned<T> versioned) {
+        return ResponseEntity.ok()
+                .eTag("\"" + versioned.version() + "\"")
+                .body(versioned.content());
+    }
+
+    /**
+     * For representations that also carry values kept up to date without touching the row version, like a book's
+     * rating aggregates: the tag is the version followed by a hash of those values, {@code "3-5f2a91c"}, so a cached
+     * copy is revalidated when either changes. {@link #expectedVersion} only reads the version part back.
+     */
+    static <T> ResponseEntity<T> ok(Versioned<T> versioned, Object... derivedValues) {
+        return ResponseEntity.ok()
+                .eTag("\"" + versioned.version() + "-" + Integer.toHexString(Arrays.hashCode(derivedValues)) + "\"")
+                .body(versioned.content());
+    }
+
+    /**
+     * The version an {@code If-Match} header requires, {@code null} when the header is absent or {@code *}.
+     * Weak and unknown tags never match a version, as {@code If-Match} compares strongly.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        var tag = ifMatch.trim();
+        if (tag.contains(",")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "If-Match should hold a single entity tag!");
+        }
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return NO_VERSION;
+        }
+        var value = tag.substring(1, tag.length() - 1);
+        int derived = value.indexOf('-');
+        try {
+            return Long.parseLong(derived > 0 ? value.substring(0, derived) : value);
+        } catch (NumberFormatException ex) {
+            return NO_VERSION;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -49,18 +50,19 @@ public class PublisherController {
 
     @Operation(security = @SecurityRequirement(name = "bearerAuth"))
     @PutMapping("/{id}")
-    public PublisherDto updatePublisher(@PathVariable(name = "id") Long id,
-                                        @Valid @RequestBody PublisherUpdateRequestDto updateRequest) {
+    public ResponseEntity<PublisherDto> updatePublisher(@PathVariable(name = "id") Long id,
+                                                        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                        @Valid @RequestBody PublisherUpdateRequestDto updateRequest) {
         if (!id.equals(updateRequest.getId())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Id in path should be equal to id in request body!");
         }
 
-        return publisherService.update(id, updateRequest);
+        return ETags.ok(publisherService.update(id, updateRequest, ETags.expectedVersion(ifMatch)));
     }
 
     @GetMapping("/{id}")
-    public PublisherDto findPublisher(@PathVariable(name = "id") Long id) {
-        return publisherService.findById(id);
+    public ResponseEntity<PublisherDto> findPublisher(@PathVariable(name = "id") Long id) {
+        return ETags.ok(publisherService.findById(id));
     }
 
     @Operation(security = @SecurityRequirement(name = "bearerAuth"))
@@ -0,0 +1,71 @@
+package com.bookstore.controller;
+
+import com.bookstore.controller.filters.BookFilter;
+import com.bookstore.dto.author.AuthorDto;
+import com.bookstore.dto.book.BookDto;
+import com.bookstore.dto.publisher.PublisherDto;
+import com.bookstore.dto.rating.BookRatingDto;
+import com.bookstore.service.impl.ReactiveCatalogService;
+import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variants of the catalog GET endpoints, with the same parameters and response bodies as their
+ * {@code /v1/books}, {@code /v1/authors} and {@code /v1/publishers} counterparts. The request is handed back to
+ * the container while the query runs, so in-flight requests do not each hold a servlet thread.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/v1/reactive")
+public class ReactiveCatalogController {
+    private final ReactiveCatalogService catalogService;
+
+    @GetMapping("/books")
+    public Mono<Page<BookDto>> findBooksPaged(@ParameterObject BookFilter bookFilter, @ParameterObject Pageable pageable) {
+        return catalogService.findBooks(bookFilter, pageable).onErrorMap(IllegalArgumentException.class, this::badRequest);
+    }
+
+    @GetMapping("/books/{isbn}")
+    public Mono<BookDto> findBookByIsbn(@PathVariable(name = "isbn") String isbn) {
+        return catalogService.findBook(isbn);
+    }
+
+    @GetMapping("/books/{isbn}/ratings")
+    public Mono<Page<BookRatingDto>> getBookRatings(@PathVariable(name = "isbn") String isbn,
+                                                    @ParameterObject Pageable pageable) {
+        return catalogService.findBookRatings(isbn, pageable);
+    }
+
+    @GetMapping("/authors")
+    public Mono<Page<AuthorDto>> findAllAuthors(@ParameterObject Pageable pageable) {
+        return catalogService.findAuthors(pageable).onErrorMap(IllegalArgumentException.class, this::badRequest);
+    }
+
+    @GetMapping("/authors/{id}")
+    public Mono<AuthorDto> findAuthor(@PathVariable(name = "id") Long id) {
+        return catalogService.findAuthor(id);
+    }
+
+    @GetMapping("/publishers")
+    public Mono<Page<PublisherDto>> findAllPublishers(@ParameterObject Pageable pageable) {
+        return catalogService.findPublishers(pageable).onErrorMap(IllegalArgumentException.class, this::badRequest);
+    }
+
+    @GetMapping("/publishers/{id}")
+    public Mono<PublisherDto> findPublisher(@PathVariable(name = "id") Long id) {
+        return catalogService.findPublisher(id);
+    }
+
+    private ResponseStatusException badRequest(IllegalArgumentException ex) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+}
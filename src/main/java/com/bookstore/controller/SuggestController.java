@@ -0,0 +1,26 @@
+package com.bookstore.controller;
+
+import com.bookstore.dto.suggest.SuggestionDto;
+import com.bookstore.service.impl.SuggestService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@Validated
+@RequestMapping("/v1/suggest")
+public class SuggestController {
+    private final SuggestService suggestService;
+
+    @GetMapping
+    public List<SuggestionDto> suggest(@RequestParam(name = "q") String query,
+                                       @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return suggestService.suggest(query, limit);
+    }
+}
@@ -1,10 +1,13 @@
 package com.bookstore.controller;
 
 import com.bookstore.controller.filters.UserFilter;
+import com.bookstore.dto.book.ScoredBookDto;
+import com.bookstore.dto.rating.UserRatingDto;
 import com.bookstore.dto.user.UpdateUserRequestDto;
 import com.bookstore.dto.user.UserDto;
 import com.bookstore.dto.user.UserRequestDto;
 import com.bookstore.service.UserService;
+import com.bookstore.service.impl.UserRecommendationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
@@ -13,6 +16,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -21,6 +26,7 @@ import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -30,6 +36,7 @@ import java.net.URI;
 public class UserController {
 
     private final UserService userService;
+    private final UserRecommendationService recommendationService;
 
     @GetMapping
     public Page<UserDto> findAllUsers(@ParameterObject UserFilter userFilter, @ParameterObject Pageable pageable) {
@@ -50,18 +57,39 @@ public class UserController {
 
     @Operation(security = @SecurityRequirement(name = "bearerAuth"))
     @PutMapping("/{id}")
-    public UserDto updateUser(@PathVariable(name = "id") Long id,
-                              @Valid @RequestBody UpdateUserRequestDto updateRequest) {
+    public ResponseEntity<UserDto> updateUser(@PathVariable(name = "id") Long id,
+                                              @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @Valid @RequestBody UpdateUserRequestDto updateRequest) {
         if (!id.equals(updateRequest.getId())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Id in path should be equal to id in request body!");
         }
 
-        return userService.update(id, updateRequest);
+        return ETags.ok(userService.update(id, updateRequest, ETags.expectedVersion(ifMatch)));
     }
 
     @GetMapping("/{id}")
-    public UserDto findUser(@PathVariable(name = "id") Long id) {
-        return userService.findById(id);
+    public ResponseEntity<UserDto> findUser(@PathVariable(name = "id") Long id) {
+        return ETags.ok(userService.findById(id));
+    }
+
+    @GetMapping("/{id}/recommendations")
+    public List<ScoredBookDto> findUserRecommendations(@PathVariable(name = "id") Long id,
+                                                       @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return recommendationService.recommend(id, limit);
+    }
+
+    /**
+     * Offset paging by default. With {@code afterIsbn} the ratings are read with keyset paging instead
+     * (ordered by book isbn, no total count): pass the last {@code book.isbn} of a slice to get the next one.
+     */
+    @GetMapping("/{id}/ratings")
+    public Slice<UserRatingDto> findUserRatings(@PathVariable(name = "id") Long id,
+                                                @RequestParam(name = "afterIsbn", required = false) String afterIsbn,
+                                                @ParameterObject Pageable pageable) {
+        if (afterIsbn != null) {
+            return userService.findRatingsByUserIdAfter(id, afterIsbn, pageable.getPageSize());
+        }
+        return userService.findRatingsByUserId(id, pageable);
     }
 
     @Operation(security = @SecurityRequirement(name = "bearerAuth"))
@@ -0,0 +1,16 @@
+package com.bookstore.controller.filters;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PopularBooksFilter {
+    private String country;
+    private Integer minAge;
+    private Integer maxAge;
+}
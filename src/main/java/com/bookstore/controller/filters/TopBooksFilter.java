@@ -0,0 +1,17 @@
+package com.bookstore.controller.filters;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TopBooksFilter {
+    private Long authorId;
+    private Long publisherId;
+    private Integer year;
+    private Integer minVotes;
+}
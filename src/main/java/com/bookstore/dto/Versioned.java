@@ -0,0 +1,8 @@
+package com.bookstore.dto;
+
+/**
+ * A representation together with the version of the row it was read from or written to. Controllers send the
+ * version as the {@code ETag} and expect it back in {@code If-Match}.
+ */
+public record Versioned<T>(T content, long version) {
+}
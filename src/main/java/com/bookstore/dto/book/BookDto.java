@@ -2,6 +2,7 @@ package com.bookstore.dto.book;
 
 import com.bookstore.dto.author.AuthorDto;
 import com.bookstore.dto.publisher.PublisherDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,4 +19,34 @@ public class BookDto {
     private PublisherDto publisher;
     private Integer year;
     private Double rating;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long ratingsCount;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double weightedRating;
+
+    public BookDto(String isbn, String title, Integer year,
+                   Long authorId, String authorName,
+                   Long publisherId, String publisherName,
+                   Long ratingsSum, Integer ratingsCount, Double weightedRating) {
+        this.isbn = isbn;
+        this.title = title;
+        this.year = year;
+        this.author = new AuthorDto(authorId, authorName);
+        this.publisher = new PublisherDto(publisherId, publisherName);
+        this.rating = averageRating(ratingsSum, ratingsCount);
+        this.ratingsCount = ratingsCount.longValue();
+        this.weightedRating = weightedRating;
+    }
+
+    /**
+     * Average score from a book's stored rating aggregates, rounded to two decimals; 0 for an unrated book.
+     */
+    public static double averageRating(Long ratingsSum, Integer ratingsCount) {
+        if (ratingsSum == null || ratingsCount == null || ratingsCount == 0) {
+            return 0.0;
+        }
+        return Math.round(ratingsSum * 100.0 / ratingsCount) / 100.0;
+    }
 }
@@ -0,0 +1,17 @@
+package com.bookstore.dto.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PopularBookDto {
+    private String isbn;
+    private String title;
+    private Double rating;
+    private Long ratingsCount;
+}
@@ -0,0 +1,13 @@
+package com.bookstore.dto.bulk;
+
+public enum BulkItemStatus {
+    CREATED,
+    UPDATED,
+    INVALID,
+    NOT_FOUND,
+    CONFLICT;
+
+    public boolean isSuccess() {
+        return this == CREATED || this == UPDATED;
+    }
+}
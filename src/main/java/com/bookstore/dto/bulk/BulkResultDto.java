@@ -0,0 +1,23 @@
+package com.bookstore.dto.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkResultDto {
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResultDto> items;
+
+    public static BulkResultDto of(List<BulkItemResultDto> items) {
+        int succeeded = (int) items.stream().filter(item -> item.getStatus().isSuccess()).count();
+        return new BulkResultDto(succeeded, items.size() - succeeded, items);
+    }
+}
@@ -0,0 +1,28 @@
+package com.bookstore.dto.rating;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RatingRequestDto {
+
+    @NotBlank
+    private String isbn;
+
+    @NotNull
+    private Long userId;
+
+    @NotNull
+    @Min(1)
+    @Max(10)
+    private Integer score;
+}
@@ -0,0 +1,21 @@
+package com.bookstore.dto.rating;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RatingScoreRequestDto {
+
+    @NotNull
+    @Min(1)
+    @Max(10)
+    private Integer score;
+}
@@ -13,4 +13,8 @@ import lombok.NoArgsConstructor;
 public class UserRatingDto {
     private BookShortDto book;
     private Integer score;
+
+    public UserRatingDto(String isbn, String title, Integer score) {
+        this(new BookShortDto(isbn, title), score);
+    }
 }
@@ -0,0 +1,16 @@
+package com.bookstore.dto.suggest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SuggestionDto {
+    private SuggestionType type;
+    private String id;
+    private String label;
+}
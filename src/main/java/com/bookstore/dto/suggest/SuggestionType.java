@@ -0,0 +1,7 @@
+package com.bookstore.dto.suggest;
+
+public enum SuggestionType {
+    BOOK,
+    AUTHOR,
+    PUBLISHER
+}
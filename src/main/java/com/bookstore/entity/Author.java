@@ -2,10 +2,6 @@ package com.bookstore.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.BatchSize;
-
-import java.util.HashSet;
-import java.util.Set;
 
 @Entity
 @AllArgsConstructor
@@ -26,15 +22,9 @@ public class Author {
     @Column(nullable = false, unique = true)
     private String name;
 
-    @Builder.Default
-    @BatchSize(size = 50)
-    @OneToMany(mappedBy = "author", fetch = FetchType.LAZY)
-    private Set<Book> books = new HashSet<>();
-
-    public void addBook(Book book) {
-        this.books.add(book);
-        book.setAuthor(this);
-    }
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 
     public static Author ofName(String name) {
         return Author.builder().name(name).build();
@@ -32,6 +32,8 @@ public class Book {
     @Column(name = "title")
     private String title;
 
+    // owned by the book only: authors and publishers keep no collection of books, so assigning one never loads
+    // the other books of that author or publisher
     @ManyToOne
     @JoinColumn(name = "publisher_id")
     private Publisher publisher;
@@ -43,6 +45,19 @@ public class Book {
     @Column(name = "year")
     private Integer year;
 
+    @Column(name = "ratings_count", insertable = false, updatable = false)
+    private Integer ratingsCount;
+
+    @Column(name = "ratings_sum", insertable = false, updatable = false)
+    private Long ratingsSum;
+
+    @Column(name = "weighted_rating", insertable = false, updatable = false)
+    private Double weightedRating;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Builder.Default
     @ToString.Exclude
     @BatchSize(size = 50)
@@ -51,16 +66,6 @@ public class Book {
             orphanRemoval = true)
     private Set<Rating> ratings = new HashSet<>();
 
-    public void setAuthor(Author author) {
-        this.author = author;
-        author.getBooks().add(this);
-    }
-
-    public void setPublisher(Publisher publisher) {
-        this.publisher = publisher;
-        publisher.getBooks().add(this);
-    }
-
     public void addRating(User user, int rating) {
         Rating newRating = new Rating(user, this, rating);
         ratings.add(newRating);
@@ -2,10 +2,6 @@ package com.bookstore.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.BatchSize;
-
-import java.util.HashSet;
-import java.util.Set;
 
 @Entity
 @AllArgsConstructor
@@ -25,13 +21,7 @@ public class Publisher {
 
     private String name;
 
-    @Builder.Default
-    @BatchSize(size = 50)
-    @OneToMany(mappedBy = "publisher")
-    private Set<Book> books = new HashSet<>();
-
-    public void addBook(Book book) {
-        this.books.add(book);
-        book.setPublisher(this);
-    }
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
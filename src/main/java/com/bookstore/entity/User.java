@@ -31,6 +31,10 @@ public class User {
 
     private Integer age;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Builder.Default
     @ToString.Exclude
     @OneToMany(
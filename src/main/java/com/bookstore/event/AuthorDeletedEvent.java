@@ -0,0 +1,4 @@
+package com.bookstore.event;
+
+public record AuthorDeletedEvent(Long authorId) {
+}
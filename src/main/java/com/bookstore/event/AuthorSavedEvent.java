@@ -0,0 +1,6 @@
+package com.bookstore.event;
+
+import com.bookstore.dto.author.AuthorDto;
+
+public record AuthorSavedEvent(AuthorDto author) {
+}
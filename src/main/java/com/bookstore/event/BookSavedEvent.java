@@ -0,0 +1,6 @@
+package com.bookstore.event;
+
+import com.bookstore.dto.book.BookDto;
+
+public record BookSavedEvent(BookDto book) {
+}
@@ -0,0 +1,7 @@
+package com.bookstore.event;
+
+/**
+ * Published by the CSV importer once a bulk load of books, authors and publishers is committed.
+ */
+public record CatalogImportedEvent() {
+}
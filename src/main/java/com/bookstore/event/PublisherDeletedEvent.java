@@ -0,0 +1,4 @@
+package com.bookstore.event;
+
+public record PublisherDeletedEvent(Long publisherId) {
+}
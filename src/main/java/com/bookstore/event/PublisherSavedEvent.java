@@ -0,0 +1,6 @@
+package com.bookstore.event;
+
+import com.bookstore.dto.publisher.PublisherDto;
+
+public record PublisherSavedEvent(PublisherDto publisher) {
+}
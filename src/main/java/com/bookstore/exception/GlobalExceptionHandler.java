@@ -1,7 +1,12 @@
 package com.bookstore.exception;
 
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.server.ResponseStatusException;
@@ -22,6 +27,33 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT.value()).body(errorResponse);
     }
 
+    /**
+     * A concurrent writer inserted the same key between the existence check and the insert.
+     */
+    @ExceptionHandler(DuplicateKeyException.class)
+    public ResponseEntity<ErrorResponse> handleDuplicateKeyException(DuplicateKeyException ex) {
+        ErrorResponse errorResponse = buildErrorResponse(HttpStatus.CONFLICT.value(), "Resource was created concurrently, retry the request");
+        return ResponseEntity.status(HttpStatus.CONFLICT.value()).body(errorResponse);
+    }
+
+    /**
+     * The {@code If-Match} version of a conditional update is no longer the current one.
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(PreconditionFailedException ex) {
+        ErrorResponse errorResponse = buildErrorResponse(HttpStatus.PRECONDITION_FAILED.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED.value()).body(errorResponse);
+    }
+
+    /**
+     * A JPA write found the version of an entity changed since it was loaded.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        ErrorResponse errorResponse = buildErrorResponse(HttpStatus.CONFLICT.value(), "Resource was modified concurrently, retry the request");
+        return ResponseEntity.status(HttpStatus.CONFLICT.value()).body(errorResponse);
+    }
+
     @ExceptionHandler({
             CsvFileException.class,
             FileFormatException.class
@@ -37,6 +69,25 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND.value()).body(errorResponse);
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleServiceOverloadedException(ServiceOverloadedException ex) {
+        ErrorResponse errorResponse = buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    /**
+     * No pooled connection could be obtained in time, e.g. while a slow-query burst holds all of them.
+     */
+    @ExceptionHandler({CannotGetJdbcConnectionException.class, CannotCreateTransactionException.class})
+    public ResponseEntity<ErrorResponse> handleConnectionUnavailableException(RuntimeException ex) {
+        ErrorResponse errorResponse = buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Database is busy, retry later");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
     private ErrorResponse buildErrorResponse(int statusCode, String error) {
         return ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
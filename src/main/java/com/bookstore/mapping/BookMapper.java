@@ -8,11 +8,12 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
-@Mapper
+@Mapper(imports = BookDto.class)
 public interface BookMapper {
     BookMapper INSTANCE = Mappers.getMapper(BookMapper.class);
 
-    @Mapping(target = "rating", ignore = true)
+    @Mapping(target = "rating",
+            expression = "java(BookDto.averageRating(book.getRatingsSum(), book.getRatingsCount()))")
     BookDto mapToDto(Book book);
 
     BookShortDto mapToShortDto(Book book);
@@ -0,0 +1,181 @@
+package com.bookstore.recommend;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Alternating least squares for implicit feedback (Hu, Koren, Volinsky): every rated book is a positive
+ * preference with confidence {@code 1 + alpha * score}, every unrated book a zero preference with confidence 1.
+ * Fitting preferences over the whole catalog, not only the rated cells, is what makes the factors usable for
+ * top-N ranking.
+ * <p>
+ * Each half-iteration fixes one side and solves an independent {@code rank x rank} system per user (or item):
+ * {@code (YᵀY + Σ (c - 1) y yᵀ + λ I) x = Σ c y} over the books the user rated, with {@code YᵀY} computed once
+ * per half-iteration. Rows are split across a fork-join pool; every leaf task reuses its own normal-equation
+ * buffers and writes only its own rows of the factor array, so no synchronization is needed beyond the join
+ * between half-iterations.
+ */
+public class AlsTrainer {
+    private static final int LEAF_ROWS = 256;
+
+    private final int rank;
+    private final int iterations;
+    private final float lambda;
+    private final float alpha;
+    private final int parallelism;
+    private final long seed;
+
+    public AlsTrainer(int rank, int iterations, float lambda, float alpha, int parallelism, long seed) {
+        this.rank = rank;
+        this.iterations = iterations;
+        this.lambda = lambda;
+        this.alpha = alpha;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.seed = seed;
+    }
+
+    public MatrixFactorizationModel train(RatingMatrix matrix) {
+        var userFactors = new float[matrix.userCount() * rank];
+        var itemFactors = new float[matrix.itemCount() * rank];
+        var random = new Random(seed);
+        for (int i = 0; i < itemFactors.length; i++) {
+            itemFactors[i] = (float) (random.nextGaussian() * 0.1);
+        }
+
+        var pool = new ForkJoinPool(parallelism);
+        try {
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                pool.invoke(new SolveTask(matrix.userOffsets, matrix.userItems, matrix.userValues,
+                        itemFactors, gram(itemFactors), userFactors, 0, matrix.userCount()));
+                pool.invoke(new SolveTask(matrix.itemOffsets, matrix.itemUsers, matrix.itemValues,
+                        userFactors, gram(userFactors), itemFactors, 0, matrix.itemCount()));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return new MatrixFactorizationModel(matrix, rank, userFactors, itemFactors);
+    }
+
+    /**
+     * Lower triangle of {@code FᵀF} for a row-major factor array.
+     */
+    private double[] gram(float[] factors) {
+        var gram = new double[rank * rank];
+        for (int base = 0; base < factors.length; base += rank) {
+            for (int a = 0; a < rank; a++) {
+                double factor = factors[base + a];
+                int gramRow = a * rank;
+                for (int b = 0; b <= a; b++) {
+                    gram[gramRow + b] += factor * factors[base + b];
+                }
+            }
+        }
+        return gram;
+    }
+
+    /**
+     * Solves rows {@code [from, to)} of {@code target} given the {@code fixed} factors and their gram matrix,
+     * where {@code offsets/columns/values} is the CSR view whose rows are the rows being solved.
+     */
+    private final class SolveTask extends RecursiveAction {
+        private final int[] offsets;
+        private final int[] columns;
+        private final float[] values;
+        private final float[] fixed;
+        private final double[] fixedGram;
+        private final float[] target;
+        private final int from;
+        private final int to;
+
+        SolveTask(int[] offsets, int[] columns, float[] values,
+                  float[] fixed, double[] fixedGram, float[] target, int from, int to) {
+            this.offsets = offsets;
+            this.columns = columns;
+            this.values = values;
+            this.fixed = fixed;
+            this.fixedGram = fixedGram;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_ROWS) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SolveTask(offsets, columns, values, fixed, fixedGram, target, from, middle),
+                        new SolveTask(offsets, columns, values, fixed, fixedGram, target, middle, to));
+                return;
+            }
+            var gram = new double[rank * rank];
+            var rhs = new double[rank];
+            for (int row = from; row < to; row++) {
+                solveRow(row, gram, rhs);
+            }
+        }
+
+        private void solveRow(int row, double[] gram, double[] rhs) {
+            System.arraycopy(fixedGram, 0, gram, 0, gram.length);
+            Arrays.fill(rhs, 0);
+            for (int p = offsets[row]; p < offsets[row + 1]; p++) {
+                int base = columns[p] * rank;
+                double confidence = 1 + alpha * values[p];
+                for (int a = 0; a < rank; a++) {
+                    double factor = fixed[base + a];
+                    rhs[a] += confidence * factor;
+                    double weighted = (confidence - 1) * factor;
+                    int gramRow = a * rank;
+                    for (int b = 0; b <= a; b++) {
+                        gram[gramRow + b] += weighted * fixed[base + b];
+                    }
+                }
+            }
+            for (int a = 0; a < rank; a++) {
+                gram[a * rank + a] += lambda;
+            }
+            choleskySolve(gram, rhs);
+            int targetBase = row * rank;
+            for (int a = 0; a < rank; a++) {
+                target[targetBase + a] = (float) rhs[a];
+            }
+        }
+
+        /**
+         * Solves {@code A x = b} in place for a symmetric positive definite {@code A} given by its lower
+         * triangle; {@code b} is overwritten with {@code x}.
+         */
+        private void choleskySolve(double[] a, double[] b) {
+            for (int j = 0; j < rank; j++) {
+                double diagonal = a[j * rank + j];
+                for (int k = 0; k < j; k++) {
+                    diagonal -= a[j * rank + k] * a[j * rank + k];
+                }
+                diagonal = Math.sqrt(diagonal);
+                a[j * rank + j] = diagonal;
+                for (int i = j + 1; i < rank; i++) {
+                    double value = a[i * rank + j];
+                    for (int k = 0; k < j; k++) {
+                        value -= a[i * rank + k] * a[j * rank + k];
+                    }
+                    a[i * rank + j] = value / diagonal;
+                }
+            }
+            for (int i = 0; i < rank; i++) {
+                double value = b[i];
+                for (int k = 0; k < i; k++) {
+                    value -= a[i * rank + k] * b[k];
+                }
+                b[i] = value / a[i * rank + i];
+            }
+            for (int i = rank - 1; i >= 0; i--) {
+                double value = b[i];
+                for (int k = i + 1; k < rank; k++) {
+                    value -= a[k * rank + i] * b[k];
+                }
+                b[i] = value / a[i * rank + i];
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.bookstore.recommend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable cube of rating counts and score sums per (country, age, book).
+ * <p>
+ * Cells are one year of age wide, so any age range is answered exactly by summing whole cells; users without
+ * a usable age fall into a separate cell that only counts when no age bound is given. Each cell stores its books
+ * as a slice of three parallel arrays (compressed sparse rows keyed by {@code country * AGE_SLOTS + age}), so a
+ * query touches only the cells of its cohort.
+ */
+public final class CohortCube {
+    public static final int MAX_AGE = 120;
+
+    private static final int UNKNOWN_AGE = MAX_AGE + 1;
+    private static final int AGE_SLOTS = MAX_AGE + 2;
+    private static final CohortCube EMPTY = builder().build();
+
+    private final Map<String, Integer> countryIndexes;
+    private final String[] itemIds;
+    private final int[] cellOffsets;
+    private final int[] cellItems;
+    private final int[] cellCounts;
+    private final long[] cellSums;
+
+    private CohortCube(Map<String, Integer> countryIndexes, String[] itemIds,
+                       int[] cellOffsets, int[] cellItems, int[] cellCounts, long[] cellSums) {
+        this.countryIndexes = countryIndexes;
+        this.itemIds = itemIds;
+        this.cellOffsets = cellOffsets;
+        this.cellItems = cellItems;
+        this.cellCounts = cellCounts;
+        this.cellSums = cellSums;
+    }
+
+    public static CohortCube empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int countryCount() {
+        return countryIndexes.size();
+    }
+
+    public int itemCount() {
+        return itemIds.length;
+    }
+
+    /**
+     * Number of non-empty (country, age, book) entries.
+     */
+    public int size() {
+        return cellItems.length;
+    }
+
+    /**
+     * Returns the {@code limit} most rated books of the cohort, most ratings first and higher average first among
+     * equals. {@code null} country or age bounds leave that dimension open.
+     */
+    public List<Entry> top(String country, Integer minAge, Integer maxAge, int limit) {
+        int fromCountry = 0;
+        int toCountry = countryIndexes.size();
+        if (country != null) {
+            Integer index = countryIndexes.get(normalizeCountry(country));
+            if (index == null) {
+                return List.of();
+            }
+            fromCountry = index;
+            toCountry = index + 1;
+        }
+        boolean anyAge = minAge == null && maxAge == null;
+        int fromAge = anyAge ? 0 : Math.max(minAge == null ? 0 : minAge, 0);
+        int toAge = anyAge ? UNKNOWN_AGE : Math.min(maxAge == null ? MAX_AGE : maxAge, MAX_AGE);
+        if (limit <= 0 || fromAge > toAge) {
+            return List.of();
+        }
+
+        var counts = new int[itemIds.length];
+        var sums = new long[itemIds.length];
+        var touched = new int[itemIds.length];
+        int touchedCount = 0;
+        for (int c = fromCountry; c < toCountry; c++) {
+            int cellBase = c * AGE_SLOTS;
+            for (int p = cellOffsets[cellBase + fromAge]; p < cellOffsets[cellBase + toAge + 1]; p++) {
+                int item = cellItems[p];
+                if (counts[item] == 0) {
+                    touched[touchedCount++] = item;
+                }
+                counts[item] += cellCounts[p];
+                sums[item] += cellSums[p];
+            }
+        }
+
+        // the average (at most 10) is folded in below 1 so it only breaks ties between equal counts
+        var heap = new TopK(limit);
+        for (int t = 0; t < touchedCount; t++) {
+            int item = touched[t];
+            float score = counts[item] + (float) sums[item] / counts[item] / 11f;
+            if (heap.accepts(score)) {
+                heap.offer(item, score);
+            }
+        }
+        var topItems = new int[heap.size];
+        heap.drainDescending(topItems, new float[heap.size]);
+        var result = new ArrayList<Entry>(topItems.length);
+        for (int item : topItems) {
+            result.add(new Entry(itemIds[item], counts[item], (double) sums[item] / counts[item]));
+        }
+        return result;
+    }
+
+    static String normalizeCountry(String country) {
+        return country == null ? "" : country.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public record Entry(String itemId, int count, double average) {
+    }
+
+    public static final class Builder {
+        private final Map<String, Integer> countryIndexes = new HashMap<>();
+        private final Map<String, Integer> itemIndexes = new HashMap<>();
+        private String[] itemIds = new String[1024];
+        private int[] cells = new int[1024];
+        private int[] items = new int[1024];
+        private int[] counts = new int[1024];
+        private long[] sums = new long[1024];
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds the aggregated ratings of one (country, age, book) combination. A {@code null} country or an age
+         * outside {@code [0, MAX_AGE]} is recorded as unknown. Every combination is expected at most once.
+         */
+        public Builder add(String country, Integer age, String itemId, int count, long sum) {
+            if (size == cells.length) {
+                int capacity = size * 2;
+                cells = Arrays.copyOf(cells, capacity);
+                items = Arrays.copyOf(items, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+                sums = Arrays.copyOf(sums, capacity);
+            }
+            int countryIndex = countryIndexes.computeIfAbsent(normalizeCountry(country), key -> countryIndexes.size());
+            int ageSlot = age == null || age < 0 || age > MAX_AGE ? UNKNOWN_AGE : age;
+            cells[size] = countryIndex * AGE_SLOTS + ageSlot;
+            items[size] = itemIndexes.computeIfAbsent(itemId, this::newItem);
+            counts[size] = count;
+            sums[size] = sum;
+            size++;
+            return this;
+        }
+
+        public CohortCube build() {
+            int cellCount = countryIndexes.size() * AGE_SLOTS;
+            var offsets = new int[cellCount + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[cells[i] + 1]++;
+            }
+            for (int cell = 0; cell < cellCount; cell++) {
+                offsets[cell + 1] += offsets[cell];
+            }
+            var cellItems = new int[size];
+            var cellCounts = new int[size];
+            var cellSums = new long[size];
+            var cursors = Arrays.copyOf(offsets, cellCount);
+            for (int i = 0; i < size; i++) {
+                int position = cursors[cells[i]]++;
+                cellItems[position] = items[i];
+                cellCounts[position] = counts[i];
+                cellSums[position] = sums[i];
+            }
+            return new CohortCube(countryIndexes, Arrays.copyOf(itemIds, itemIndexes.size()),
+                    offsets, cellItems, cellCounts, cellSums);
+        }
+
+        private int newItem(String itemId) {
+            int index = itemIndexes.size();
+            if (index == itemIds.length) {
+                itemIds = Arrays.copyOf(itemIds, index * 2);
+            }
+            itemIds[index] = itemId;
+            return index;
+        }
+    }
+}
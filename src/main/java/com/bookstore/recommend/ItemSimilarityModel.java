@@ -0,0 +1,61 @@
+package com.bookstore.recommend;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable item-item similarity model: for every item the top-K most similar items, best first, stored as one
+ * flat neighbor list ({@code offsets} delimits the neighbors of each item).
+ */
+public final class ItemSimilarityModel {
+    private static final ItemSimilarityModel EMPTY = new ItemSimilarityModel(new String[0], Map.of(),
+            new int[1], new int[0], new float[0]);
+
+    private final String[] itemIds;
+    private final Map<String, Integer> itemIndexes;
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final float[] scores;
+
+    ItemSimilarityModel(String[] itemIds, Map<String, Integer> itemIndexes,
+                        int[] offsets, int[] neighbors, float[] scores) {
+        this.itemIds = itemIds;
+        this.itemIndexes = itemIndexes;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.scores = scores;
+    }
+
+    public static ItemSimilarityModel empty() {
+        return EMPTY;
+    }
+
+    public int itemCount() {
+        return itemIds.length;
+    }
+
+    public int neighborCount() {
+        return neighbors.length;
+    }
+
+    public boolean contains(String itemId) {
+        return itemIndexes.containsKey(itemId);
+    }
+
+    public List<Neighbor> neighbors(String itemId, int limit) {
+        var item = itemIndexes.get(itemId);
+        if (item == null) {
+            return List.of();
+        }
+        int end = Math.min(offsets[item + 1], offsets[item] + limit);
+        var result = new ArrayList<Neighbor>(Math.max(end - offsets[item], 0));
+        for (int p = offsets[item]; p < end; p++) {
+            result.add(new Neighbor(itemIds[neighbors[p]], scores[p]));
+        }
+        return result;
+    }
+
+    public record Neighbor(String itemId, float score) {
+    }
+}
@@ -0,0 +1,196 @@
+package com.bookstore.recommend;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Builds an {@link ItemSimilarityModel} with adjusted cosine similarity: every rating is centered on its user's
+ * mean, then {@code sim(i, j) = Σ c(u,i)·c(u,j) / (‖c(·,i)‖ · ‖c(·,j)‖)} over the users who rated both items.
+ * <p>
+ * Each item's row of the similarity matrix is computed independently (item → its raters → their items) into a
+ * dense accumulator owned by one worker at a time, so items are split across a fork-join pool without any shared
+ * mutable state. Only positive similarities backed by at least {@code minCoRaters} common users are kept, and only
+ * the top {@code neighbors} of them per item.
+ */
+public class ItemSimilarityModelBuilder {
+    private static final int LEAF_ITEMS = 64;
+
+    private final int neighbors;
+    private final int minCoRaters;
+    private final int maxItemsPerUser;
+    private final int parallelism;
+
+    public ItemSimilarityModelBuilder(int neighbors, int minCoRaters, int maxItemsPerUser, int parallelism) {
+        this.neighbors = neighbors;
+        this.minCoRaters = minCoRaters;
+        this.maxItemsPerUser = maxItemsPerUser;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    public ItemSimilarityModel build(RatingMatrix source) {
+        var matrix = source.truncateUsers(maxItemsPerUser);
+        int itemCount = matrix.itemCount();
+
+        var means = userMeans(matrix);
+        var userCentered = new float[matrix.size()];
+        for (int user = 0; user < matrix.userCount(); user++) {
+            for (int p = matrix.userOffsets[user]; p < matrix.userOffsets[user + 1]; p++) {
+                userCentered[p] = matrix.userValues[p] - means[user];
+            }
+        }
+        var itemCentered = new float[matrix.size()];
+        var norms = new float[itemCount];
+        for (int item = 0; item < itemCount; item++) {
+            double sumSquares = 0;
+            for (int p = matrix.itemOffsets[item]; p < matrix.itemOffsets[item + 1]; p++) {
+                itemCentered[p] = matrix.itemValues[p] - means[matrix.itemUsers[p]];
+                sumSquares += (double) itemCentered[p] * itemCentered[p];
+            }
+            norms[item] = (float) Math.sqrt(sumSquares);
+        }
+
+        var neighborItems = new int[itemCount][];
+        var neighborScores = new float[itemCount][];
+        var scratches = new ConcurrentLinkedQueue<Scratch>();
+        var pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new SimilarityTask(matrix, userCentered, itemCentered, norms,
+                    neighborItems, neighborScores, scratches, 0, itemCount));
+        } finally {
+            pool.shutdown();
+        }
+
+        var offsets = new int[itemCount + 1];
+        for (int item = 0; item < itemCount; item++) {
+            offsets[item + 1] = offsets[item] + neighborItems[item].length;
+        }
+        var flatItems = new int[offsets[itemCount]];
+        var flatScores = new float[offsets[itemCount]];
+        for (int item = 0; item < itemCount; item++) {
+            System.arraycopy(neighborItems[item], 0, flatItems, offsets[item], neighborItems[item].length);
+            System.arraycopy(neighborScores[item], 0, flatScores, offsets[item], neighborScores[item].length);
+        }
+        return new ItemSimilarityModel(matrix.itemIds, matrix.itemIndexes, offsets, flatItems, flatScores);
+    }
+
+    private static float[] userMeans(RatingMatrix matrix) {
+        var means = new float[matrix.userCount()];
+        for (int user = 0; user < matrix.userCount(); user++) {
+            double sum = 0;
+            for (int p = matrix.userOffsets[user]; p < matrix.userOffsets[user + 1]; p++) {
+                sum += matrix.userValues[p];
+            }
+            means[user] = (float) (sum / Math.max(matrix.userRatingCount(user), 1));
+        }
+        return means;
+    }
+
+    private final class SimilarityTask extends RecursiveAction {
+        private final RatingMatrix matrix;
+        private final float[] userCentered;
+        private final float[] itemCentered;
+        private final float[] norms;
+        private final int[][] neighborItems;
+        private final float[][] neighborScores;
+        private final ConcurrentLinkedQueue<Scratch> scratches;
+        private final int from;
+        private final int to;
+
+        SimilarityTask(RatingMatrix matrix, float[] userCentered, float[] itemCentered, float[] norms,
+                       int[][] neighborItems, float[][] neighborScores, ConcurrentLinkedQueue<Scratch> scratches,
+                       int from, int to) {
+            this.matrix = matrix;
+            this.userCentered = userCentered;
+            this.itemCentered = itemCentered;
+            this.norms = norms;
+            this.neighborItems = neighborItems;
+            this.neighborScores = neighborScores;
+            this.scratches = scratches;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_ITEMS) {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                        new SimilarityTask(matrix, userCentered, itemCentered, norms,
+                                neighborItems, neighborScores, scratches, from, middle),
+                        new SimilarityTask(matrix, userCentered, itemCentered, norms,
+                                neighborItems, neighborScores, scratches, middle, to));
+                return;
+            }
+            var scratch = scratches.poll();
+            if (scratch == null) {
+                scratch = new Scratch(matrix.itemCount(), neighbors);
+            }
+            try {
+                for (int item = from; item < to; item++) {
+                    computeNeighbors(item, scratch);
+                }
+            } finally {
+                scratches.offer(scratch);
+            }
+        }
+
+        private void computeNeighbors(int item, Scratch scratch) {
+            var dots = scratch.dots;
+            var coRaters = scratch.coRaters;
+            var touched = scratch.touched;
+            int touchedCount = 0;
+
+            for (int p = matrix.itemOffsets[item]; p < matrix.itemOffsets[item + 1]; p++) {
+                float value = itemCentered[p];
+                int user = matrix.itemUsers[p];
+                for (int q = matrix.userOffsets[user]; q < matrix.userOffsets[user + 1]; q++) {
+                    int other = matrix.userItems[q];
+                    if (other == item) {
+                        continue;
+                    }
+                    if (coRaters[other] == 0) {
+                        touched[touchedCount++] = other;
+                    }
+                    coRaters[other]++;
+                    dots[other] += value * userCentered[q];
+                }
+            }
+
+            var heap = scratch.heap;
+            heap.clear();
+            float norm = norms[item];
+            for (int t = 0; t < touchedCount; t++) {
+                int other = touched[t];
+                if (coRaters[other] >= minCoRaters && norm > 0 && norms[other] > 0) {
+                    float similarity = dots[other] / (norm * norms[other]);
+                    if (similarity > 0) {
+                        heap.offer(other, similarity);
+                    }
+                }
+                dots[other] = 0;
+                coRaters[other] = 0;
+            }
+            neighborItems[item] = new int[heap.size];
+            neighborScores[item] = new float[heap.size];
+            heap.drainDescending(neighborItems[item], neighborScores[item]);
+        }
+    }
+
+    /**
+     * Dense accumulators reused by one leaf task at a time and reset sparsely after every item.
+     */
+    private static final class Scratch {
+        final float[] dots;
+        final int[] coRaters;
+        final int[] touched;
+        final TopK heap;
+
+        Scratch(int itemCount, int k) {
+            dots = new float[itemCount];
+            coRaters = new int[itemCount];
+            touched = new int[itemCount];
+            heap = new TopK(k);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.bookstore.recommend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable latent factor model: the predicted preference of a user for an item is
+ * {@code userFactors(u) · itemFactors(i)}.
+ * <p>
+ * Factors are stored row after row in two contiguous float arrays ({@code rank} floats per user or item), so
+ * scoring a user against the whole catalog is one sequential pass over {@code itemFactors}.
+ */
+public final class MatrixFactorizationModel {
+    private static final MatrixFactorizationModel EMPTY = new MatrixFactorizationModel(
+            RatingMatrix.builder().build(), 0, new float[0], new float[0]);
+
+    private final RatingMatrix ratings;
+    private final int rank;
+    private final float[] userFactors;
+    private final float[] itemFactors;
+
+    MatrixFactorizationModel(RatingMatrix ratings, int rank, float[] userFactors, float[] itemFactors) {
+        this.ratings = ratings;
+        this.rank = rank;
+        this.userFactors = userFactors;
+        this.itemFactors = itemFactors;
+    }
+
+    public static MatrixFactorizationModel empty() {
+        return EMPTY;
+    }
+
+    public int rank() {
+        return rank;
+    }
+
+    public int userCount() {
+        return ratings.userCount();
+    }
+
+    public int itemCount() {
+        return ratings.itemCount();
+    }
+
+    public boolean contains(long userId) {
+        return ratings.userIndex(userId) >= 0;
+    }
+
+    /**
+     * Size of the factor arrays in bytes.
+     */
+    public long factorBytes() {
+        return (long) (userFactors.length + itemFactors.length) * Float.BYTES;
+    }
+
+    public float predict(long userId, String itemId) {
+        int user = ratings.userIndex(userId);
+        int item = ratings.itemIndex(itemId);
+        if (user < 0 || item < 0) {
+            return 0f;
+        }
+        return dot(user * rank, item * rank);
+    }
+
+    /**
+     * Scores every item for the user and returns the {@code limit} best ones the user has not rated yet,
+     * best first. Unknown users get an empty list.
+     */
+    public List<Recommendation> recommend(long userId, int limit) {
+        int user = ratings.userIndex(userId);
+        if (user < 0 || limit <= 0) {
+            return List.of();
+        }
+        var rated = Arrays.copyOfRange(ratings.userItems, ratings.userOffsets[user], ratings.userOffsets[user + 1]);
+        Arrays.sort(rated);
+
+        var userVector = Arrays.copyOfRange(userFactors, user * rank, (user + 1) * rank);
+        var heap = new TopK(limit);
+        var factors = itemFactors;
+        int items = ratings.itemCount();
+        for (int item = 0, base = 0; item < items; item++, base += rank) {
+            float score = 0;
+            for (int f = 0; f < rank; f++) {
+                score += userVector[f] * factors[base + f];
+            }
+            if (heap.accepts(score) && Arrays.binarySearch(rated, item) < 0) {
+                heap.offer(item, score);
+            }
+        }
+
+        var topItems = new int[heap.size];
+        var topScores = new float[heap.size];
+        heap.drainDescending(topItems, topScores);
+        var result = new ArrayList<Recommendation>(topItems.length);
+        for (int i = 0; i < topItems.length; i++) {
+            result.add(new Recommendation(ratings.itemId(topItems[i]), topScores[i]));
+        }
+        return result;
+    }
+
+    private float dot(int userBase, int itemBase) {
+        float sum = 0;
+        for (int f = 0; f < rank; f++) {
+            sum += userFactors[userBase + f] * itemFactors[itemBase + f];
+        }
+        return sum;
+    }
+
+    public record Recommendation(String itemId, float score) {
+    }
+}
@@ -0,0 +1,210 @@
+package com.bookstore.recommend;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable sparse user x item rating matrix stored twice in compressed sparse row form: once user-major
+ * (the items each user rated) and once item-major (the users who rated each item).
+ * <p>
+ * Users and items are addressed by dense indexes assigned in insertion order; {@link #userId(int)} and
+ * {@link #itemId(int)} map them back to database keys. Row arrays are package-private so the model builders
+ * can walk them without copying.
+ */
+public final class RatingMatrix {
+    final long[] userIds;
+    final String[] itemIds;
+    final Map<Long, Integer> userIndexes;
+    final Map<String, Integer> itemIndexes;
+
+    final int[] userOffsets;
+    final int[] userItems;
+    final float[] userValues;
+
+    final int[] itemOffsets;
+    final int[] itemUsers;
+    final float[] itemValues;
+
+    private RatingMatrix(long[] userIds, String[] itemIds,
+                         Map<Long, Integer> userIndexes, Map<String, Integer> itemIndexes,
+                         int[] userOffsets, int[] userItems, float[] userValues) {
+        this.userIds = userIds;
+        this.itemIds = itemIds;
+        this.userIndexes = userIndexes;
+        this.itemIndexes = itemIndexes;
+        this.userOffsets = userOffsets;
+        this.userItems = userItems;
+        this.userValues = userValues;
+
+        int entries = userItems.length;
+        itemOffsets = new int[itemIds.length + 1];
+        for (int item : userItems) {
+            itemOffsets[item + 1]++;
+        }
+        for (int i = 0; i < itemIds.length; i++) {
+            itemOffsets[i + 1] += itemOffsets[i];
+        }
+        itemUsers = new int[entries];
+        itemValues = new float[entries];
+        var cursors = Arrays.copyOf(itemOffsets, itemIds.length);
+        for (int user = 0; user < userIds.length; user++) {
+            for (int p = userOffsets[user]; p < userOffsets[user + 1]; p++) {
+                int position = cursors[userItems[p]]++;
+                itemUsers[position] = user;
+                itemValues[position] = userValues[p];
+            }
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int userCount() {
+        return userIds.length;
+    }
+
+    public int itemCount() {
+        return itemIds.length;
+    }
+
+    public int size() {
+        return userItems.length;
+    }
+
+    public long userId(int user) {
+        return userIds[user];
+    }
+
+    public String itemId(int item) {
+        return itemIds[item];
+    }
+
+    /**
+     * Returns the index of the user or {@code -1} if the user has no ratings in this matrix.
+     */
+    public int userIndex(long userId) {
+        return userIndexes.getOrDefault(userId, -1);
+    }
+
+    /**
+     * Returns the index of the item or {@code -1} if the item has no ratings in this matrix.
+     */
+    public int itemIndex(String itemId) {
+        return itemIndexes.getOrDefault(itemId, -1);
+    }
+
+    public int userRatingCount(int user) {
+        return userOffsets[user + 1] - userOffsets[user];
+    }
+
+    public int itemRatingCount(int item) {
+        return itemOffsets[item + 1] - itemOffsets[item];
+    }
+
+    /**
+     * Returns a matrix in which no user keeps more than {@code maxItemsPerUser} ratings. Heavy users are
+     * down-sampled with an even stride over their row, so the cost of pairwise item co-occurrence stays
+     * bounded by {@code maxItemsPerUser²} per user.
+     */
+    public RatingMatrix truncateUsers(int maxItemsPerUser) {
+        boolean truncated = false;
+        for (int user = 0; user < userIds.length && !truncated; user++) {
+            truncated = userRatingCount(user) > maxItemsPerUser;
+        }
+        if (!truncated) {
+            return this;
+        }
+
+        var offsets = new int[userIds.length + 1];
+        for (int user = 0; user < userIds.length; user++) {
+            offsets[user + 1] = offsets[user] + Math.min(userRatingCount(user), maxItemsPerUser);
+        }
+        var items = new int[offsets[userIds.length]];
+        var values = new float[items.length];
+        for (int user = 0; user < userIds.length; user++) {
+            int start = userOffsets[user];
+            int count = userRatingCount(user);
+            int kept = offsets[user + 1] - offsets[user];
+            for (int k = 0; k < kept; k++) {
+                int source = start + (int) ((long) k * count / kept);
+                items[offsets[user] + k] = userItems[source];
+                values[offsets[user] + k] = userValues[source];
+            }
+        }
+        return new RatingMatrix(userIds, itemIds, userIndexes, itemIndexes, offsets, items, values);
+    }
+
+    public static final class Builder {
+        private final Map<Long, Integer> userIndexes = new HashMap<>();
+        private final Map<String, Integer> itemIndexes = new HashMap<>();
+        private long[] userIds = new long[1024];
+        private String[] itemIds = new String[1024];
+        private int[] users = new int[1024];
+        private int[] items = new int[1024];
+        private float[] values = new float[1024];
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds one rating. Every (user, item) pair is expected at most once.
+         */
+        public Builder add(long userId, String itemId, float value) {
+            if (size == users.length) {
+                int capacity = size * 2;
+                users = Arrays.copyOf(users, capacity);
+                items = Arrays.copyOf(items, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            users[size] = userIndexes.computeIfAbsent(userId, this::newUser);
+            items[size] = itemIndexes.computeIfAbsent(itemId, this::newItem);
+            values[size] = value;
+            size++;
+            return this;
+        }
+
+        public RatingMatrix build() {
+            int userCount = userIndexes.size();
+            int itemCount = itemIndexes.size();
+
+            var offsets = new int[userCount + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[users[i] + 1]++;
+            }
+            for (int user = 0; user < userCount; user++) {
+                offsets[user + 1] += offsets[user];
+            }
+            var rowItems = new int[size];
+            var rowValues = new float[size];
+            var cursors = Arrays.copyOf(offsets, userCount);
+            for (int i = 0; i < size; i++) {
+                int position = cursors[users[i]]++;
+                rowItems[position] = items[i];
+                rowValues[position] = values[i];
+            }
+            return new RatingMatrix(Arrays.copyOf(userIds, userCount), Arrays.copyOf(itemIds, itemCount),
+                    userIndexes, itemIndexes, offsets, rowItems, rowValues);
+        }
+
+        private int newUser(long userId) {
+            int index = userIndexes.size();
+            if (index == userIds.length) {
+                userIds = Arrays.copyOf(userIds, index * 2);
+            }
+            userIds[index] = userId;
+            return index;
+        }
+
+        private int newItem(String itemId) {
+            int index = itemIndexes.size();
+            if (index == itemIds.length) {
+                itemIds = Arrays.copyOf(itemIds, index * 2);
+            }
+            itemIds[index] = itemId;
+            return index;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.bookstore.recommend;
+
+/**
+ * Bounded min-heap keeping the {@code k} highest scores.
+ */
+final class TopK {
+    final int[] items;
+    final float[] scores;
+    int size;
+
+    TopK(int k) {
+        items = new int[k];
+        scores = new float[k];
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Whether {@link #offer(int, float)} would keep an item with this score.
+     */
+    boolean accepts(float score) {
+        return size < items.length ? items.length > 0 : score > scores[0];
+    }
+
+    void offer(int item, float score) {
+        if (items.length == 0) {
+            return;
+        }
+        if (size < items.length) {
+            int position = size++;
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (scores[parent] <= score) {
+                    break;
+                }
+                items[position] = items[parent];
+                scores[position] = scores[parent];
+                position = parent;
+            }
+            items[position] = item;
+            scores[position] = score;
+        } else if (score > scores[0]) {
+            siftDown(item, score, size);
+        }
+    }
+
+    /**
+     * Empties the heap into the given arrays, highest score first.
+     */
+    void drainDescending(int[] targetItems, float[] targetScores) {
+        while (size > 0) {
+            int last = --size;
+            targetItems[last] = items[0];
+            targetScores[last] = scores[0];
+            if (last > 0) {
+                siftDown(items[last], scores[last], last);
+            }
+        }
+    }
+
+    private void siftDown(int item, float score, int heapSize) {
+        int position = 0;
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && scores[child + 1] < scores[child]) {
+                child++;
+            }
+            if (scores[child] >= score) {
+                break;
+            }
+            items[position] = items[child];
+            scores[position] = scores[child];
+            position = child;
+        }
+        items[position] = item;
+        scores[position] = score;
+    }
+}
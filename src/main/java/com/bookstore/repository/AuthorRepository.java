@@ -1,5 +1,6 @@
 package com.bookstore.repository;
 
+import com.bookstore.dto.author.AuthorDto;
 import com.bookstore.entity.Author;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -17,4 +18,10 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
     Set<Author> findByNameIn(Set<String> names);
 
     boolean existsByName(String name);
+
+    boolean existsByNameAndIdNot(String name, Long id);
+
+    @Query(value = "SELECT new com.bookstore.dto.author.AuthorDto(a.id, a.name) FROM Author a",
+            countQuery = "SELECT COUNT(a) FROM Author a")
+    Page<AuthorDto> findAllAsDto(Pageable pageable);
 }
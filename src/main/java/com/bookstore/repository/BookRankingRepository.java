@@ -0,0 +1,251 @@
+package com.bookstore.repository;
+
+import com.bookstore.controller.filters.TopBooksFilter;
+import com.bookstore.dto.author.AuthorDto;
+import com.bookstore.dto.book.BookDto;
+import com.bookstore.dto.publisher.PublisherDto;
+import com.bookstore.dto.rating.RatingRequestDto;
+import com.bookstore.entity.Rating;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maintains and reads the rating aggregates stored on {@code books}
+ * ({@code ratings_count}, {@code ratings_sum}, {@code weighted_rating}, {@code implicit_count}).
+ * Implicit (score 0) interactions only feed {@code implicit_count}, never the explicit aggregates.
+ * <p>
+ * The weighted rating is the Bayesian average {@code (sum + m * C) / (count + m)} where {@code m} is the
+ * configured number of prior votes and {@code C} the global mean score. Unrated books keep a weighted rating
+ * of 0 so they sort after every rated book. Every leaderboard scope (all books, author, publisher, year) has an
+ * index ordered by weighted rating, so a top-N request reads N index entries instead of aggregating {@code ratings}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookRankingRepository {
+    private static final String TOP_RATED_SQL = """
+            SELECT b.isbn, b.title, b.year, a.id AS author_id, a.name AS author_name,
+                   p.id AS publisher_id, p.name AS publisher_name,
+                   ROUND(b.ratings_sum::numeric / b.ratings_count, 2) AS average_rating,
+                   b.ratings_count, b.weighted_rating
+            FROM books b
+                     JOIN authors a ON a.id = b.author_id
+                     JOIN publishers p ON p.id = b.publisher_id
+            WHERE b.ratings_count >= :minVotes
+            """;
+    private static final String TOP_RATED_ORDER = """
+            ORDER BY b.weighted_rating DESC, b.ratings_count DESC, b.isbn
+            LIMIT :limit
+            """;
+    private static final String WEIGHTED_RATING = """
+            CASE WHEN %1$s = 0 THEN 0 ELSE (%2$s + :priorVotes * :priorMean) / (%1$s + :priorVotes) END
+            """;
+    private static final String REFRESH_BOOKS_SQL = """
+            UPDATE books b
+            SET ratings_count   = agg.ratings_count,
+                ratings_sum     = agg.ratings_sum,
+                weighted_rating = %s
+            FROM (SELECT bk.isbn, COUNT(r.score) AS ratings_count, COALESCE(SUM(r.score), 0) AS ratings_sum
+                  FROM books bk
+                           LEFT JOIN ratings r ON r.book_isbn = bk.isbn
+                  WHERE bk.isbn IN (:isbns)
+                  GROUP BY bk.isbn) agg
+            WHERE b.isbn = agg.isbn
+            """.formatted(WEIGHTED_RATING.formatted("agg.ratings_count", "agg.ratings_sum"));
+    // previous scores are read from the statement snapshot, i.e. before the upsert; a concurrent write of the same
+    // (user, book) can make a delta drift, which the scheduled reconciliation repairs
+    private static final String UPSERT_RATINGS_SQL = """
+            WITH input AS (SELECT *
+                           FROM unnest(:userIds::bigint[], :isbns::varchar[], :scores::int[]) AS i(user_id, book_isbn, score)),
+                 previous AS (SELECT r.user_id, r.book_isbn, r.score
+                              FROM ratings r
+                                       JOIN input i ON i.user_id = r.user_id AND i.book_isbn = r.book_isbn),
+                 upserted AS (INSERT INTO ratings (user_id, book_isbn, score)
+                              SELECT user_id, book_isbn, score FROM input
+                              ON CONFLICT (user_id, book_isbn) DO UPDATE SET score = EXCLUDED.score
+                              RETURNING user_id, book_isbn, score),
+                 changes AS (SELECT u.user_id, u.book_isbn, u.score, p.score AS previous_score
+                             FROM upserted u
+                                      LEFT JOIN previous p ON p.user_id = u.user_id AND p.book_isbn = u.book_isbn),
+                 deltas AS (SELECT book_isbn,
+                                   COUNT(*) FILTER (WHERE previous_score IS NULL) AS count_delta,
+                                   SUM(score - COALESCE(previous_score, 0))       AS sum_delta
+                            FROM changes
+                            GROUP BY book_isbn),
+                 updated_books AS (UPDATE books b
+                                   SET ratings_count   = b.ratings_count + d.count_delta,
+                                       ratings_sum     = b.ratings_sum + d.sum_delta,
+                                       weighted_rating = %s
+                                   FROM deltas d
+                                   WHERE b.isbn = d.book_isbn)
+            SELECT c.user_id, c.book_isbn
+            FROM changes c
+            WHERE c.previous_score IS NOT NULL
+            """.formatted(WEIGHTED_RATING.formatted("(b.ratings_count + d.count_delta)", "(b.ratings_sum + d.sum_delta)"));
+    // a user rates a book at most once and lists it at most once in implicit_interactions
+    private static final String SUBTRACT_USER_RATINGS_SQL = """
+            UPDATE books b
+            SET ratings_count   = b.ratings_count - 1,
+                ratings_sum     = b.ratings_sum - r.score,
+                weighted_rating = %s
+            FROM ratings r
+            WHERE r.user_id = :userId
+              AND b.isbn = r.book_isbn
+            """.formatted(WEIGHTED_RATING.formatted("(b.ratings_count - 1)", "(b.ratings_sum - r.score)"));
+    private static final String SUBTRACT_USER_IMPLICIT_SQL = """
+            UPDATE books b
+            SET implicit_count = b.implicit_count - 1
+            FROM implicit_interactions i
+                     CROSS JOIN LATERAL unnest(i.book_ids) AS book_id
+            WHERE i.user_id = :userId
+              AND b.id = book_id
+            """;
+    private static final String RECONCILE_SQL = """
+            UPDATE books b
+            SET ratings_count = COALESCE(agg.ratings_count, 0),
+                ratings_sum   = COALESCE(agg.ratings_sum, 0)
+            FROM books bk
+                     LEFT JOIN (SELECT r.book_isbn, COUNT(*) AS ratings_count, SUM(r.score) AS ratings_sum
+                                FROM ratings r
+                                GROUP BY r.book_isbn) agg ON agg.book_isbn = bk.isbn
+            WHERE b.id = bk.id
+              AND (b.ratings_count, b.ratings_sum) IS DISTINCT FROM (COALESCE(agg.ratings_count, 0), COALESCE(agg.ratings_sum, 0))
+            """;
+    private static final String RECONCILE_IMPLICIT_SQL = """
+            UPDATE books b
+            SET implicit_count = COALESCE(agg.implicit_count, 0)
+            FROM books bk
+                     LEFT JOIN (SELECT book_id, COUNT(*) AS implicit_count
+                                FROM implicit_interactions i, unnest(i.book_ids) AS book_id
+                                GROUP BY book_id) agg ON agg.book_id = bk.id
+            WHERE b.id = bk.id
+              AND b.implicit_count IS DISTINCT FROM COALESCE(agg.implicit_count, 0)
+            """;
+    private static final String UPDATE_WEIGHTED_SQL = """
+            UPDATE books
+            SET weighted_rating = %1$s
+            WHERE weighted_rating IS DISTINCT FROM %1$s
+            """.formatted(WEIGHTED_RATING.formatted("ratings_count", "ratings_sum"));
+    private static final String GLOBAL_MEAN_SQL =
+            "SELECT COALESCE(SUM(ratings_sum)::float8 / NULLIF(SUM(ratings_count), 0), 0) FROM books";
+
+    private static final RowMapper<BookDto> ROW_MAPPER = (rs, rowNum) -> BookDto.builder()
+            .isbn(rs.getString("isbn"))
+            .title(rs.getString("title"))
+            .year(rs.getInt("year"))
+            .author(new AuthorDto(rs.getLong("author_id"), rs.getString("author_name")))
+            .publisher(new PublisherDto(rs.getLong("publisher_id"), rs.getString("publisher_name")))
+            .rating(rs.getDouble("average_rating"))
+            .ratingsCount(rs.getLong("ratings_count"))
+            .weightedRating(rs.getDouble("weighted_rating"))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<BookDto> findTopRated(TopBooksFilter filter, int minVotes, int limit) {
+        var sql = new StringBuilder(TOP_RATED_SQL);
+        var params = new MapSqlParameterSource()
+                .addValue("minVotes", minVotes)
+                .addValue("limit", limit);
+
+        if (filter.getAuthorId() != null) {
+            sql.append(" AND b.author_id = :authorId");
+            params.addValue("authorId", filter.getAuthorId());
+        }
+        if (filter.getPublisherId() != null) {
+            sql.append(" AND b.publisher_id = :publisherId");
+            params.addValue("publisherId", filter.getPublisherId());
+        }
+        if (filter.getYear() != null) {
+            sql.append(" AND b.year = :year");
+            params.addValue("year", filter.getYear());
+        }
+        sql.append('\n').append(TOP_RATED_ORDER);
+
+        return jdbcTemplate.query(sql.toString(), params, ROW_MAPPER);
+    }
+
+    /**
+     * Recomputes the aggregates of the given books from their ratings (index range scan per book).
+     */
+    public int refreshBooks(Collection<String> isbns, int priorVotes, double priorMean) {
+        if (isbns.isEmpty()) {
+            return 0;
+        }
+        var params = new MapSqlParameterSource()
+                .addValue("isbns", isbns)
+                .addValue("priorVotes", priorVotes)
+                .addValue("priorMean", priorMean);
+        return jdbcTemplate.update(REFRESH_BOOKS_SQL, params);
+    }
+
+    /**
+     * Inserts or overwrites the given ratings and moves the aggregates of their books by the difference to the
+     * previous scores, in one statement. The cost grows with the ratings written, not with the ratings the books
+     * already have. Ratings must be unique per (user, book). Returns the keys that were already rated.
+     */
+    public Set<Rating.BookRatingPrimaryKey> upsertRatings(Collection<RatingRequestDto> ratings, int priorVotes, double priorMean) {
+        if (ratings.isEmpty()) {
+            return Set.of();
+        }
+        var params = new MapSqlParameterSource()
+                .addValue("userIds", new SqlArrayValue("bigint", ratings.stream().map(RatingRequestDto::getUserId).toArray()))
+                .addValue("isbns", new SqlArrayValue("varchar", ratings.stream().map(RatingRequestDto::getIsbn).toArray()))
+                .addValue("scores", new SqlArrayValue("integer", ratings.stream().map(RatingRequestDto::getScore).toArray()))
+                .addValue("priorVotes", priorVotes)
+                .addValue("priorMean", priorMean);
+        Set<Rating.BookRatingPrimaryKey> updated = new HashSet<>();
+        jdbcTemplate.query(UPSERT_RATINGS_SQL, params, rs -> {
+            updated.add(new Rating.BookRatingPrimaryKey(rs.getLong("user_id"), rs.getString("book_isbn")));
+        });
+        return updated;
+    }
+
+    /**
+     * Takes the ratings and implicit interactions of the user out of the aggregates of the books involved, ahead of a
+     * user delete whose {@code ON DELETE CASCADE} removes them. One update per kind, touching only those books.
+     * Returns the number of book rows updated.
+     */
+    public int subtractUserRatings(long userId, int priorVotes, double priorMean) {
+        var params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("priorVotes", priorVotes)
+                .addValue("priorMean", priorMean);
+        return jdbcTemplate.update(SUBTRACT_USER_RATINGS_SQL, params)
+                + jdbcTemplate.update(SUBTRACT_USER_IMPLICIT_SQL, params);
+    }
+
+    /**
+     * Repairs count/sum drift for every book with a single set-based update. Only drifted rows are written.
+     */
+    public int reconcileAggregates() {
+        return jdbcTemplate.getJdbcTemplate().update(RECONCILE_SQL);
+    }
+
+    /**
+     * Recounts implicit interactions per book from {@code implicit_interactions}. Only changed rows are written.
+     */
+    public int reconcileImplicitCounts() {
+        return jdbcTemplate.getJdbcTemplate().update(RECONCILE_IMPLICIT_SQL);
+    }
+
+    public int updateWeightedRatings(int priorVotes, double priorMean) {
+        var params = new MapSqlParameterSource()
+                .addValue("priorVotes", priorVotes)
+                .addValue("priorMean", priorMean);
+        return jdbcTemplate.update(UPDATE_WEIGHTED_SQL, params);
+    }
+
+    public double findGlobalMeanRating() {
+        var mean = jdbcTemplate.getJdbcTemplate().queryForObject(GLOBAL_MEAN_SQL, Double.class);
+        return mean == null ? 0.0 : mean;
+    }
+}
@@ -1,5 +1,6 @@
 package com.bookstore.repository;
 
+import com.bookstore.dto.book.BookShortDto;
 import com.bookstore.entity.Author_;
 import com.bookstore.entity.Book;
 import com.bookstore.entity.Book_;
@@ -10,17 +11,17 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
-    @Query("SELECT ROUND(AVG(r.score), 2) FROM Rating r WHERE r.book = ?1")
-    Optional<Double> calculateAverageRating(Book book);
-
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>, BookRepositoryCustom {
     Page<Book> findAll(Specification<Book> spec, Pageable pageable);
 
     @Query("SELECT b from Book b join fetch b.author join fetch b.publisher where b.isbn = ?1")
@@ -28,16 +29,31 @@ public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificat
 
     boolean existsByIsbn(String title);
 
+    boolean existsByAuthorId(Long authorId);
+
+    boolean existsByPublisherId(Long publisherId);
+
+    /**
+     * Deletes the book with a single statement; its ratings go through {@code ON DELETE CASCADE} instead of being
+     * loaded and deleted one by one.
+     */
+    @Modifying
+    @Query("DELETE FROM Book b WHERE b.isbn = ?1")
+    int deleteByIsbnInBulk(String isbn);
+
+    @Query("SELECT new com.bookstore.dto.book.BookShortDto(b.isbn, b.title) FROM Book b WHERE b.isbn IN ?1")
+    List<BookShortDto> findShortByIsbnIn(Collection<String> isbns);
+
     @UtilityClass
     class Specs {
         public static Specification<Book> byAuthorId(Long authorId) {
             return (root, query, cb) ->
-                    cb.equal(root.join(Book_.AUTHOR).get(Author_.ID), authorId);
+                    cb.equal(root.get(Book_.AUTHOR).get(Author_.ID), authorId);
         }
 
         public static Specification<Book> byPublisherId(Long publisherId) {
             return (root, query, cb) ->
-                    cb.equal(root.join(Book_.PUBLISHER).get(Publisher_.ID), publisherId);
+                    cb.equal(root.get(Book_.PUBLISHER).get(Publisher_.ID), publisherId);
         }
 
         public static Specification<Book> byTitleLike(String bookTitle) {
@@ -0,0 +1,16 @@
+package com.bookstore.repository;
+
+import com.bookstore.dto.book.BookDto;
+import com.bookstore.entity.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface BookRepositoryCustom {
+    /**
+     * Reads a page of books straight into {@link BookDto}s (author, publisher and average rating included)
+     * with a single select, without loading {@link Book} entities into the persistence context. The average comes
+     * from the stored {@code ratings_sum} and {@code ratings_count}, so no ratings are read.
+     */
+    Page<BookDto> findAllAsDto(Specification<Book> spec, Pageable pageable);
+}
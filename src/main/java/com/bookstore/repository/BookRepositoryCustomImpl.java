@@ -0,0 +1,34 @@
+package com.bookstore.repository;
+
+import com.bookstore.dto.book.BookDto;
+import com.bookstore.entity.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+class BookRepositoryCustomImpl implements BookRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<BookDto> findAllAsDto(Specification<Book> spec, Pageable pageable) {
+        return ProjectionPages.find(entityManager, Book.class, BookDto.class, spec, pageable, (root, cb) -> {
+            var author = root.join(Book_.author);
+            var publisher = root.join(Book_.publisher);
+            return cb.construct(BookDto.class,
+                    root.get(Book_.isbn),
+                    root.get(Book_.title),
+                    root.get(Book_.year),
+                    author.get(Author_.id),
+                    author.get(Author_.name),
+                    publisher.get(Publisher_.id),
+                    publisher.get(Publisher_.name),
+                    root.get(Book_.ratingsSum),
+                    root.get(Book_.ratingsCount),
+                    root.get(Book_.weightedRating)
+            );
+        });
+    }
+}
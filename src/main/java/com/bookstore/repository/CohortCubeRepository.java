@@ -0,0 +1,39 @@
+package com.bookstore.repository;
+
+import com.bookstore.recommend.CohortCube;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Loads a {@link CohortCube} from {@code ratings}: the aggregation per (country, age, book) runs in Postgres,
+ * so only one row per non-empty combination is streamed to the application.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CohortCubeRepository {
+    private static final String COHORT_RATINGS_SQL = """
+            SELECT lower(trim(a.country)), u.age, r.book_isbn, COUNT(*), SUM(r.score)
+            FROM ratings r
+                     JOIN users u ON u.id = r.user_id
+                     LEFT JOIN address a ON a.user_id = r.user_id
+            GROUP BY 1, 2, 3
+            """;
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public CohortCube loadCohortCube() {
+        var builder = CohortCube.builder();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(COHORT_RATINGS_SQL);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            builder.add(rs.getString(1), rs.getObject(2, Integer.class), rs.getString(3), rs.getInt(4), rs.getLong(5));
+        });
+        return builder.build();
+    }
+}
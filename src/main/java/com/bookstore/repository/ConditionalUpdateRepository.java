@@ -0,0 +1,148 @@
+package com.bookstore.repository;
+
+import com.bookstore.dto.Versioned;
+import com.bookstore.dto.author.AuthorDto;
+import com.bookstore.dto.book.BookDto;
+import com.bookstore.dto.book.BookRequestDto;
+import com.bookstore.dto.publisher.PublisherDto;
+import com.bookstore.dto.user.UserDto;
+import com.bookstore.dto.user.UserRequestDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.Optional;
+
+/**
+ * Single-statement conditional updates behind the PUT endpoints. Every update increments the row version and only
+ * applies while the stored version equals the expected one ({@code null} accepts any version), so a
+ * read-modify-write cannot overwrite a change it has not seen, without reading or locking the row first.
+ * The updated representation is returned by the same statement. An empty result means no row matched; callers
+ * look up the reason only then.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ConditionalUpdateRepository {
+    // the name check makes a rename to a taken name match no row instead of failing on the unique constraint
+    private static final String UPDATE_NAMED_SQL = """
+            UPDATE %1$s t
+            SET name    = :name,
+                version = t.version + 1
+            WHERE t.id = :id
+              AND t.version = COALESCE(:version, t.version)
+              AND NOT EXISTS (SELECT 1 FROM %1$s o WHERE o.name = :name AND o.id <> t.id)
+            RETURNING t.id, t.name, t.version
+            """;
+    private static final String UPDATE_BOOK_SQL = """
+            UPDATE books b
+            SET title        = :title,
+                year         = :year,
+                author_id    = a.id,
+                publisher_id = p.id,
+                version      = b.version + 1
+            FROM authors a,
+                 publishers p
+            WHERE b.isbn = :isbn
+              AND a.id = :authorId
+              AND p.id = :publisherId
+              AND b.version = COALESCE(:version, b.version)
+            RETURNING b.isbn, b.title, b.year, a.id AS author_id, a.name AS author_name,
+                      p.id AS publisher_id, p.name AS publisher_name,
+                      ROUND(b.ratings_sum::numeric / NULLIF(b.ratings_count, 0), 2) AS average_rating,
+                      b.ratings_count, b.weighted_rating, b.version
+            """;
+    // address fields left null in the request keep their stored value; a missing address row is created
+    private static final String UPDATE_USER_SQL = """
+            WITH updated AS (UPDATE users u
+                             SET age     = :age,
+                                 version = u.version + 1
+                             WHERE u.id = :id
+                               AND u.version = COALESCE(:version, u.version)
+                             RETURNING u.id, u.age, u.version),
+                 upserted_address AS (INSERT INTO address AS a (user_id, city, region, country)
+                                      SELECT id, :city, :region, :country FROM updated
+                                      ON CONFLICT (user_id) DO UPDATE
+                                          SET city    = COALESCE(EXCLUDED.city, a.city),
+                                              region  = COALESCE(EXCLUDED.region, a.region),
+                                              country = COALESCE(EXCLUDED.country, a.country)
+                                      RETURNING a.user_id, a.city, a.region, a.country)
+            SELECT u.id, a.city, a.region, a.country, u.age, u.version
+            FROM updated u
+                     JOIN upserted_address a ON a.user_id = u.id
+            """;
+
+    private static final RowMapper<Versioned<AuthorDto>> AUTHOR_ROW_MAPPER = (rs, rowNum) ->
+            new Versioned<>(new AuthorDto(rs.getLong("id"), rs.getString("name")), rs.getLong("version"));
+    private static final RowMapper<Versioned<PublisherDto>> PUBLISHER_ROW_MAPPER = (rs, rowNum) ->
+            new Versioned<>(new PublisherDto(rs.getLong("id"), rs.getString("name")), rs.getLong("version"));
+    private static final RowMapper<Versioned<BookDto>> BOOK_ROW_MAPPER = (rs, rowNum) -> new Versioned<>(
+            BookDto.builder()
+                    .isbn(rs.getString("isbn"))
+                    .title(rs.getString("title"))
+                    .year(rs.getObject("year", Integer.class))
+                    .author(new AuthorDto(rs.getLong("author_id"), rs.getString("author_name")))
+                    .publisher(new PublisherDto(rs.getLong("publisher_id"), rs.getString("publisher_name")))
+                    .rating(rs.getDouble("average_rating"))
+                    .ratingsCount(rs.getLong("ratings_count"))
+                    .weightedRating(rs.getDouble("weighted_rating"))
+                    .build(),
+            rs.getLong("version"));
+    private static final RowMapper<Versioned<UserDto>> USER_ROW_MAPPER = (rs, rowNum) -> new Versioned<>(
+            UserDto.builder()
+                    .id(rs.getLong("id"))
+                    .city(rs.getString("city"))
+                    .region(rs.getString("region"))
+                    .country(rs.getString("country"))
+                    .age(rs.getObject("age", Integer.class))
+                    .build(),
+            rs.getLong("version"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Optional<Versioned<AuthorDto>> updateAuthor(long id, String name, Long expectedVersion) {
+        return update(UPDATE_NAMED_SQL.formatted("authors"), namedParams(id, name, expectedVersion), AUTHOR_ROW_MAPPER);
+    }
+
+    public Optional<Versioned<PublisherDto>> updatePublisher(long id, String name, Long expectedVersion) {
+        return update(UPDATE_NAMED_SQL.formatted("publishers"), namedParams(id, name, expectedVersion), PUBLISHER_ROW_MAPPER);
+    }
+
+    /**
+     * Matches no row as well when the referenced author or publisher does not exist.
+     */
+    public Optional<Versioned<BookDto>> updateBook(String isbn, BookRequestDto request, Long expectedVersion) {
+        var params = new MapSqlParameterSource()
+                .addValue("isbn", isbn)
+                .addValue("title", request.getTitle())
+                .addValue("year", request.getYear(), Types.INTEGER)
+                .addValue("authorId", request.getAuthor().getId(), Types.BIGINT)
+                .addValue("publisherId", request.getPublisher().getId(), Types.BIGINT)
+                .addValue("version", expectedVersion, Types.BIGINT);
+        return update(UPDATE_BOOK_SQL, params, BOOK_ROW_MAPPER);
+    }
+
+    public Optional<Versioned<UserDto>> updateUser(long id, UserRequestDto request, Long expectedVersion) {
+        var params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("age", request.getAge(), Types.INTEGER)
+                .addValue("city", request.getCity(), Types.VARCHAR)
+                .addValue("region", request.getRegion(), Types.VARCHAR)
+                .addValue("country", request.getCountry(), Types.VARCHAR)
+                .addValue("version", expectedVersion, Types.BIGINT);
+        return update(UPDATE_USER_SQL, params, USER_ROW_MAPPER);
+    }
+
+    private MapSqlParameterSource namedParams(long id, String name, Long expectedVersion) {
+        return new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("name", name)
+                .addValue("version", expectedVersion, Types.BIGINT);
+    }
+
+    private <T> Optional<T> update(String sql, MapSqlParameterSource params, RowMapper<T> rowMapper) {
+        return jdbcTemplate.query(sql, params, rowMapper).stream().findFirst();
+    }
+}
@@ -0,0 +1,67 @@
+package com.bookstore.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.function.BiFunction;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+/**
+ * Pages of DTOs selected straight from an entity's table by a {@link Specification}: the caller only supplies the
+ * projection, with whatever joins it needs, and the sort, paging and count query are handled here. The count runs
+ * only when {@link PageableExecutionUtils} cannot tell the total from the page itself.
+ */
+final class ProjectionPages {
+    private ProjectionPages() {
+    }
+
+    /**
+     * {@code projection} is applied before the spec, so joins it creates can be reused by the spec's predicates.
+     */
+    static <T, D> Page<D> find(EntityManager entityManager, Class<T> entityClass, Class<D> dtoClass,
+                               Specification<T> spec, Pageable pageable,
+                               BiFunction<Root<T>, CriteriaBuilder, Selection<D>> projection) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(dtoClass);
+        var root = query.from(entityClass);
+        query.select(projection.apply(root, cb));
+        applySpec(spec, root, query, cb);
+        query.orderBy(toOrders(pageable.getSort(), root, cb));
+
+        var typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable,
+                () -> count(entityManager, entityClass, spec));
+    }
+
+    private static <T> long count(EntityManager entityManager, Class<T> entityClass, Specification<T> spec) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(Long.class);
+        var root = query.from(entityClass);
+        query.select(cb.count(root));
+        applySpec(spec, root, query, cb);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static <T> void applySpec(Specification<T> spec, Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (spec == null) {
+            return;
+        }
+        var predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
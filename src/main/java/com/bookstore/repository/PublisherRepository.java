@@ -1,7 +1,11 @@
 package com.bookstore.repository;
 
+import com.bookstore.dto.publisher.PublisherDto;
 import com.bookstore.entity.Publisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -14,4 +18,10 @@ public interface PublisherRepository extends JpaRepository<Publisher, Long> {
     Set<Publisher> findByNameIn(Set<String> names);
 
     boolean existsByName(String name);
+
+    boolean existsByNameAndIdNot(String name, Long id);
+
+    @Query(value = "SELECT new com.bookstore.dto.publisher.PublisherDto(p.id, p.name) FROM Publisher p",
+            countQuery = "SELECT COUNT(p) FROM Publisher p")
+    Page<PublisherDto> findAllAsDto(Pageable pageable);
 }
@@ -0,0 +1,66 @@
+package com.bookstore.repository;
+
+import com.bookstore.recommend.RatingMatrix;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Streams {@code ratings} (and optionally {@code implicit_interactions}) into an in-memory {@link RatingMatrix}
+ * for the recommenders.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RatingMatrixRepository {
+    private static final String EXPLICIT_RATINGS_SQL = "SELECT user_id, book_isbn, score FROM ratings WHERE score > 0";
+    private static final String IMPLICIT_INTERACTIONS_SQL = """
+            SELECT i.user_id, b.isbn
+            FROM implicit_interactions i
+                     CROSS JOIN LATERAL unnest(i.book_ids) AS book_id
+                     JOIN books b ON b.id = book_id
+            WHERE NOT EXISTS (SELECT 1 FROM ratings r WHERE r.user_id = i.user_id AND r.book_isbn = b.isbn)
+            """;
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reads every explicit (non-zero) rating with a server-side cursor, so only one fetch batch of rows is
+     * materialized at a time.
+     */
+    @Transactional(readOnly = true)
+    public RatingMatrix loadExplicitRatings() {
+        var builder = RatingMatrix.builder();
+        addExplicitRatings(builder);
+        return builder.build();
+    }
+
+    /**
+     * Reads every explicit rating plus every implicit interaction, the latter with {@code implicitValue} as score.
+     * A book the user has also rated explicitly is only read once, with its explicit score.
+     */
+    @Transactional(readOnly = true)
+    public RatingMatrix loadInteractions(float implicitValue) {
+        var builder = RatingMatrix.builder();
+        addExplicitRatings(builder);
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(IMPLICIT_INTERACTIONS_SQL);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            builder.add(rs.getLong(1), rs.getString(2), implicitValue);
+        });
+        return builder.build();
+    }
+
+    private void addExplicitRatings(RatingMatrix.Builder builder) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(EXPLICIT_RATINGS_SQL);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            builder.add(rs.getLong(1), rs.getString(2), rs.getInt(3));
+        });
+    }
+}
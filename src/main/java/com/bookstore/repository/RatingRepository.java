@@ -1,6 +1,9 @@
 package com.bookstore.repository;
 
+import com.bookstore.dto.rating.BookRatingDto;
+import com.bookstore.dto.rating.UserRatingDto;
 import com.bookstore.entity.Rating;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -13,10 +16,28 @@ import java.util.List;
 public interface RatingRepository extends JpaRepository<Rating, Long> {
     Page<Rating> findAllByBookIsbn(String isbn, Pageable pageable);
 
+    @Query(value = "SELECT new com.bookstore.dto.rating.BookRatingDto(r.id.userId, r.score) FROM Rating r " +
+            "WHERE r.id.bookIsbn = ?1 ORDER BY r.id.userId",
+            countQuery = "SELECT COUNT(*) FROM Rating r WHERE r.id.bookIsbn = ?1")
+    Page<BookRatingDto> findBookRatings(String isbn, Pageable pageable);
+
+    @Query("SELECT new com.bookstore.dto.rating.BookRatingDto(r.id.userId, r.score) FROM Rating r " +
+            "WHERE r.id.bookIsbn = ?1 AND r.id.userId > ?2 ORDER BY r.id.userId")
+    List<BookRatingDto> findBookRatingsAfter(String isbn, Long afterUserId, Limit limit);
+
     List<Rating> findAllByBookIsbnIn(List<String> isbns);
 
     @Query(value = "SELECT r.id.bookIsbn, ROUND(AVG(r.score), 2) FROM Rating r WHERE r.id.bookIsbn IN ?1 GROUP BY r.id.bookIsbn")
     List<Object[]> findAverageRatingByBookIsbnsIn(List<String> bookIsbns);
 
     Page<Rating> findAllByUserId(Long userId, Pageable pageable);
+
+    @Query(value = "SELECT new com.bookstore.dto.rating.UserRatingDto(b.isbn, b.title, r.score) FROM Rating r " +
+            "JOIN r.book b WHERE r.id.userId = ?1 ORDER BY r.id.bookIsbn",
+            countQuery = "SELECT COUNT(*) FROM Rating r WHERE r.id.userId = ?1")
+    Page<UserRatingDto> findUserRatings(Long userId, Pageable pageable);
+
+    @Query("SELECT new com.bookstore.dto.rating.UserRatingDto(b.isbn, b.title, r.score) FROM Rating r " +
+            "JOIN r.book b WHERE r.id.userId = ?1 AND r.id.bookIsbn > ?2 ORDER BY r.id.bookIsbn")
+    List<UserRatingDto> findUserRatingsAfter(Long userId, String afterIsbn, Limit limit);
 }
@@ -0,0 +1,223 @@
+package com.bookstore.repository;
+
+import com.bookstore.controller.filters.BookFilter;
+import com.bookstore.dto.author.AuthorDto;
+import com.bookstore.dto.book.BookDto;
+import com.bookstore.dto.publisher.PublisherDto;
+import com.bookstore.dto.rating.BookRatingDto;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking reads of the catalog over R2DBC, returning the same pages as the JPA finders for the same filter
+ * and {@link Pageable}.
+ * <p>
+ * The repository owns its connection pool instead of publishing a {@code ConnectionFactory} bean: with one in the
+ * context Spring Boot stops configuring the JDBC {@code DataSource} that JPA, Flyway and the JDBC repositories use.
+ */
+@Repository
+public class ReactiveCatalogRepository implements DisposableBean {
+    private static final String BOOK_SELECT = """
+            SELECT b.isbn, b.title, b.year, a.id AS author_id, a.name AS author_name,
+                   p.id AS publisher_id, p.name AS publisher_name,
+                   b.ratings_sum, b.ratings_count, b.weighted_rating
+            FROM books b
+                     JOIN authors a ON a.id = b.author_id
+                     JOIN publishers p ON p.id = b.publisher_id
+            """;
+    private static final String BOOK_COUNT = """
+            SELECT COUNT(*)
+            FROM books b
+            """;
+    private static final Map<String, String> BOOK_SORT_COLUMNS = Map.of(
+            "isbn", "b.isbn",
+            "title", "b.title",
+            "year", "b.year",
+            "ratingsCount", "b.ratings_count",
+            "weightedRating", "b.weighted_rating",
+            "author.id", "a.id",
+            "author.name", "a.name",
+            "publisher.id", "p.id",
+            "publisher.name", "p.name");
+    private static final Map<String, String> NAMED_SORT_COLUMNS = Map.of("id", "t.id", "name", "t.name");
+
+    private final ConnectionPool pool;
+    private final DatabaseClient client;
+
+    @Autowired
+    public ReactiveCatalogRepository(@Value("${reactive-reads.url}") String url,
+                                     @Value("${spring.datasource.username}") String username,
+                                     @Value("${spring.datasource.password}") String password,
+                                     @Value("${reactive-reads.pool-size}") int poolSize) {
+        var options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(poolSize)
+                .build());
+        this.client = DatabaseClient.create(pool);
+    }
+
+    /**
+     * Same filters as {@link BookFilter#toSpec()}; absent ones are left out of the query.
+     */
+    public Mono<Page<BookDto>> findBooks(BookFilter filter, Pageable pageable) {
+        return Mono.defer(() -> findBooksNow(filter, pageable));
+    }
+
+    public Mono<BookDto> findBook(String isbn) {
+        return query(BOOK_SELECT + "WHERE b.isbn = :isbn", Map.of("isbn", isbn), ReactiveCatalogRepository::mapBook)
+                .next();
+    }
+
+    /**
+     * Offset paging ordered by user id, as {@link RatingRepository#findBookRatings}.
+     */
+    public Mono<Page<BookRatingDto>> findBookRatings(String isbn, Pageable pageable) {
+        var params = Map.<String, Object>of("isbn", isbn);
+        var content = query("SELECT r.user_id, r.score FROM ratings r WHERE r.book_isbn = :isbn ORDER BY r.user_id\n" +
+                limit(pageable), params, row -> new BookRatingDto(row.get("user_id", Long.class), row.get("score", Integer.class)));
+        return page(content, pageable, count("SELECT COUNT(*) FROM ratings r WHERE r.book_isbn = :isbn", params));
+    }
+
+    public Mono<Page<AuthorDto>> findAuthors(Pageable pageable) {
+        return Mono.defer(() -> findNamed("authors", pageable,
+                row -> new AuthorDto(row.get("id", Long.class), row.get("name", String.class))));
+    }
+
+    public Mono<AuthorDto> findAuthor(long id) {
+        return findNamed("authors", id, row -> new AuthorDto(row.get("id", Long.class), row.get("name", String.class)));
+    }
+
+    public Mono<Page<PublisherDto>> findPublishers(Pageable pageable) {
+        return Mono.defer(() -> findNamed("publishers", pageable,
+                row -> new PublisherDto(row.get("id", Long.class), row.get("name", String.class))));
+    }
+
+    public Mono<PublisherDto> findPublisher(long id) {
+        return findNamed("publishers", id, row -> new PublisherDto(row.get("id", Long.class), row.get("name", String.class)));
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+
+    private Mono<Page<BookDto>> findBooksNow(BookFilter filter, Pageable pageable) {
+        var conditions = new ArrayList<String>();
+        var params = new LinkedHashMap<String, Object>();
+        if (filter.getAuthorId() != null) {
+            conditions.add("b.author_id = :authorId");
+            params.put("authorId", filter.getAuthorId());
+        }
+        if (filter.getPublisherId() != null) {
+            conditions.add("b.publisher_id = :publisherId");
+            params.put("publisherId", filter.getPublisherId());
+        }
+        if (filter.getTitle() != null) {
+            conditions.add("b.title LIKE :title");
+            params.put("title", '%' + filter.getTitle() + '%');
+        }
+        if (filter.getYear() != null) {
+            conditions.add("b.year = :year");
+            params.put("year", filter.getYear());
+        }
+        var where = conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + "\n";
+
+        var content = query(BOOK_SELECT + where + orderBy(pageable.getSort(), BOOK_SORT_COLUMNS) + limit(pageable),
+                params, ReactiveCatalogRepository::mapBook);
+        return page(content, pageable, count(BOOK_COUNT + where, params));
+    }
+
+    private <T> Mono<Page<T>> findNamed(String table, Pageable pageable, Function<Readable, T> mapper) {
+        var content = query(String.format("SELECT t.id, t.name FROM %s t\n", table) +
+                orderBy(pageable.getSort(), NAMED_SORT_COLUMNS) + limit(pageable), Map.of(), mapper);
+        return page(content, pageable, count(String.format("SELECT COUNT(*) FROM %s t", table), Map.of()));
+    }
+
+    private <T> Mono<T> findNamed(String table, long id, Function<Readable, T> mapper) {
+        return query(String.format("SELECT t.id, t.name FROM %s t WHERE t.id = :id", table), Map.of("id", id), mapper)
+                .next();
+    }
+
+    private <T> Flux<T> query(String sql, Map<String, Object> params, Function<Readable, T> mapper) {
+        var spec = client.sql(sql);
+        for (var param : params.entrySet()) {
+            spec = spec.bind(param.getKey(), param.getValue());
+        }
+        return spec.map(mapper).all();
+    }
+
+    private Mono<Long> count(String sql, Map<String, Object> params) {
+        return query(sql, params, row -> row.get(0, Long.class)).single();
+    }
+
+    /**
+     * Runs the count only when the page content leaves the total open, like {@code PageableExecutionUtils}.
+     */
+    private static <T> Mono<Page<T>> page(Flux<T> content, Pageable pageable, Mono<Long> count) {
+        return content.collectList().flatMap(list -> {
+            if (pageable.isUnpaged() || (pageable.getOffset() == 0 && pageable.getPageSize() > list.size())) {
+                return Mono.just(new PageImpl<>(list, pageable, list.size()));
+            }
+            if (!list.isEmpty() && pageable.getPageSize() > list.size()) {
+                return Mono.just(new PageImpl<>(list, pageable, pageable.getOffset() + list.size()));
+            }
+            return count.map(total -> new PageImpl<>(list, pageable, total));
+        });
+    }
+
+    private static String orderBy(Sort sort, Map<String, String> columns) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        return sort.stream()
+                .map(order -> {
+                    var column = columns.get(order.getProperty());
+                    if (column == null) {
+                        throw new IllegalArgumentException("Unknown sort property: " + order.getProperty());
+                    }
+                    return column + (order.isAscending() ? " ASC" : " DESC");
+                })
+                .collect(Collectors.joining(", ", "ORDER BY ", "\n"));
+    }
+
+    private static String limit(Pageable pageable) {
+        return pageable.isPaged() ? String.format("LIMIT %d OFFSET %d", pageable.getPageSize(), pageable.getOffset()) : "";
+    }
+
+    private static BookDto mapBook(Readable row) {
+        return new BookDto(
+                row.get("isbn", String.class),
+                row.get("title", String.class),
+                row.get("year", Integer.class),
+                row.get("author_id", Long.class),
+                row.get("author_name", String.class),
+                row.get("publisher_id", Long.class),
+                row.get("publisher_name", String.class),
+                row.get("ratings_sum", Long.class),
+                row.get("ratings_count", Integer.class),
+                row.get("weighted_rating", Double.class));
+    }
+}
@@ -5,18 +5,42 @@ import com.bookstore.entity.Address_;
 import com.bookstore.entity.User;
 import com.bookstore.entity.User_;
 import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
 import lombok.experimental.UtilityClass;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
-public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>, UserRepositoryCustom {
     Page<User> findAll(Specification<User> userSpec, Pageable pageable);
 
+    /**
+     * Locks the user row. {@code FOR UPDATE} conflicts with the key-share lock taken by the foreign key check of a
+     * rating insert, so no rating of the user can be written until the lock holder commits.
+     */
+    @Query(value = "SELECT u.id FROM users u WHERE u.id = ?1 FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM Address a WHERE a.id = ?1")
+    int deleteAddressInBulk(Long userId);
+
+    /**
+     * Deletes the user with a single statement; ratings and implicit interactions go through
+     * {@code ON DELETE CASCADE} instead of being loaded and deleted one by one.
+     */
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = ?1")
+    int deleteByIdInBulk(Long userId);
+
     @UtilityClass
     class Specs {
 
@@ -29,24 +53,27 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
         }
 
         public static Specification<User> byCountry(String country) {
-            return (root, query, cb) -> {
-                Join<User, Address> join = root.join(User_.address);
-                return cb.equal(join.get(Address_.COUNTRY), country);
-            };
+            return (root, query, cb) -> cb.equal(address(root).get(Address_.COUNTRY), country);
         }
 
         public static Specification<User> byCity(String city) {
-            return (root, query, cb) -> {
-                Join<User, Address> join = root.join(User_.address);
-                return cb.equal(join.get(Address_.CITY), city);
-            };
+            return (root, query, cb) -> cb.equal(address(root).get(Address_.CITY), city);
         }
 
         public static Specification<User> byRegion(String region) {
-            return (root, query, cb) -> {
-                Join<User, Address> join = root.join(User_.address);
-                return cb.equal(join.get(Address_.REGION), region);
-            };
+            return (root, query, cb) -> cb.equal(address(root).get(Address_.REGION), region);
+        }
+
+        /**
+         * Reuses the address join of the query if one exists, so combined address filters join {@code address} once.
+         */
+        @SuppressWarnings("unchecked")
+        private static Join<User, Address> address(Root<User> root) {
+            return root.getJoins().stream()
+                    .filter(join -> join.getAttribute().equals(User_.address))
+                    .map(join -> (Join<User, Address>) join)
+                    .findFirst()
+                    .orElseGet(() -> root.join(User_.address));
         }
     }
 }
@@ -0,0 +1,15 @@
+package com.bookstore.repository;
+
+import com.bookstore.dto.user.UserDto;
+import com.bookstore.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface UserRepositoryCustom {
+    /**
+     * Reads a page of users straight into {@link UserDto}s (address included) with a single select joining
+     * {@code address} once, without loading {@link User} entities and their eager addresses.
+     */
+    Page<UserDto> findAllAsDto(Specification<User> spec, Pageable pageable);
+}
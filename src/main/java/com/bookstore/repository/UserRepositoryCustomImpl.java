@@ -0,0 +1,32 @@
+package com.bookstore.repository;
+
+import com.bookstore.dto.user.UserDto;
+import com.bookstore.entity.Address_;
+import com.bookstore.entity.User;
+import com.bookstore.entity.User_;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<UserDto> findAllAsDto(Specification<User> spec, Pageable pageable) {
+        return ProjectionPages.find(entityManager, User.class, UserDto.class, spec, pageable, (root, cb) -> {
+            // created before the spec is applied so the address predicates of UserRepository.Specs reuse it
+            var address = root.join(User_.address, JoinType.LEFT);
+            return cb.construct(UserDto.class,
+                    root.get(User_.id),
+                    address.get(Address_.city),
+                    address.get(Address_.region),
+                    address.get(Address_.country),
+                    root.get(User_.age)
+            );
+        });
+    }
+}
@@ -0,0 +1,366 @@
+package com.bookstore.search;
+
+import com.bookstore.dto.suggest.SuggestionDto;
+import com.bookstore.dto.suggest.SuggestionType;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory edge n-gram index used for search-box suggestions.
+ * <p>
+ * Every label is split into normalized tokens and each token prefix (up to {@code maxPrefixLength} chars)
+ * points to a posting list of document ids. Document ids grow monotonically, so posting lists stay sorted
+ * and multi-token queries are answered by intersecting them. Updates never rewrite posting lists: a replaced
+ * or removed document is only marked in the {@code removed} set. Once more than a quarter of the documents are
+ * marked, they are purged and the rest renumbered in order, so the index does not grow with updates between
+ * full rebuilds.
+ */
+public class TypeaheadIndex {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long WEIGHT_MASK = (1L << 40) - 1;
+    private static final int LENGTH_MASK = 0xFFFF;
+    private static final int MIN_REMOVED_TO_PURGE = 64;
+
+    private final int maxPrefixLength;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, IntList> postings = new HashMap<>();
+    private final Map<String, Integer> docIdsByKey = new HashMap<>();
+    private final BitSet removed = new BitSet();
+    private int removedCount;
+
+    private SuggestionType[] types = new SuggestionType[INITIAL_CAPACITY];
+    private String[] ids = new String[INITIAL_CAPACITY];
+    private String[] labels = new String[INITIAL_CAPACITY];
+    private int[] weights = new int[INITIAL_CAPACITY];
+    private int size;
+
+    public TypeaheadIndex(int maxPrefixLength) {
+        this.maxPrefixLength = maxPrefixLength;
+    }
+
+    public void put(SuggestionType type, String id, String label, int weight) {
+        lock.writeLock().lock();
+        try {
+            replace(type, id, label, weight);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Same as {@link #put(SuggestionType, String, String, int)} but keeps the weight of an already indexed entry.
+     */
+    public void put(SuggestionType type, String id, String label) {
+        lock.writeLock().lock();
+        try {
+            var docId = docIdsByKey.get(documentKey(type, id));
+            replace(type, id, label, docId == null ? 0 : weights[docId]);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(SuggestionType type, String id) {
+        lock.writeLock().lock();
+        try {
+            var docId = docIdsByKey.remove(documentKey(type, id));
+            if (docId != null) {
+                markRemoved(docId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIdsByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Trims posting lists to their exact length. Meant to be called once after a bulk build.
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(IntList::trimToSize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<SuggestionDto> search(String query, int limit) {
+        var tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            var lists = new IntList[tokens.size()];
+            for (int i = 0; i < tokens.size(); i++) {
+                lists[i] = postings.get(truncate(tokens.get(i)));
+                if (lists[i] == null) {
+                    return List.of();
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+            boolean needsVerification = tokens.stream().anyMatch(token -> token.length() > maxPrefixLength);
+            var trimmedQuery = query.trim();
+
+            var topKeys = new long[limit];
+            var topDocs = new int[limit];
+            int found = 0;
+
+            var smallest = lists[0];
+            var cursors = new int[lists.length];
+            candidates:
+            for (int i = 0; i < smallest.size; i++) {
+                int docId = smallest.values[i];
+                for (int l = 1; l < lists.length; l++) {
+                    cursors[l] = lists[l].seek(docId, cursors[l]);
+                    if (cursors[l] == lists[l].size) {
+                        break candidates;
+                    }
+                    if (lists[l].values[cursors[l]] != docId) {
+                        continue candidates;
+                    }
+                }
+                if (removed.get(docId) || (needsVerification && !matchesAllTokens(labels[docId], tokens))) {
+                    continue;
+                }
+
+                long rankKey = rankKey(docId, trimmedQuery);
+                if (found < limit) {
+                    found = insert(topKeys, topDocs, found, rankKey, docId);
+                } else if (rankKey > topKeys[limit - 1]) {
+                    insert(topKeys, topDocs, limit - 1, rankKey, docId);
+                }
+            }
+
+            var result = new ArrayList<SuggestionDto>(found);
+            for (int i = 0; i < found; i++) {
+                int docId = topDocs[i];
+                result.add(new SuggestionDto(types[docId], ids[docId], labels[docId]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of document slots in use, removed ones included.
+     */
+    int allocatedDocuments() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void replace(SuggestionType type, String id, String label, int weight) {
+        var key = documentKey(type, id);
+        var previousDocId = docIdsByKey.get(key);
+        if (previousDocId != null) {
+            markRemoved(previousDocId);
+        }
+        docIdsByKey.put(key, append(type, id, label, weight));
+    }
+
+    private void markRemoved(int docId) {
+        removed.set(docId);
+        removedCount++;
+        if (removedCount >= MIN_REMOVED_TO_PURGE && removedCount * 4 > size) {
+            purgeRemoved();
+        }
+    }
+
+    /**
+     * Drops the removed documents and renumbers the others in their current order, which keeps every posting list
+     * sorted without re-tokenizing any label.
+     */
+    private void purgeRemoved() {
+        var newDocIds = new int[size];
+        int live = 0;
+        for (int docId = 0; docId < size; docId++) {
+            if (removed.get(docId)) {
+                newDocIds[docId] = -1;
+                continue;
+            }
+            newDocIds[docId] = live;
+            types[live] = types[docId];
+            ids[live] = ids[docId];
+            labels[live] = labels[docId];
+            weights[live] = weights[docId];
+            live++;
+        }
+        Arrays.fill(types, live, size, null);
+        Arrays.fill(ids, live, size, null);
+        Arrays.fill(labels, live, size, null);
+
+        var grams = postings.entrySet().iterator();
+        while (grams.hasNext()) {
+            var list = grams.next().getValue();
+            int kept = 0;
+            for (int i = 0; i < list.size; i++) {
+                int newDocId = newDocIds[list.values[i]];
+                if (newDocId >= 0) {
+                    list.values[kept++] = newDocId;
+                }
+            }
+            list.size = kept;
+            if (kept == 0) {
+                grams.remove();
+            } else {
+                list.trimToSize();
+            }
+        }
+        docIdsByKey.replaceAll((key, docId) -> newDocIds[docId]);
+        removed.clear();
+        removedCount = 0;
+        size = live;
+    }
+
+    private int append(SuggestionType type, String id, String label, int weight) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            labels = Arrays.copyOf(labels, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        int docId = size++;
+        types[docId] = type;
+        ids[docId] = id;
+        labels[docId] = label;
+        weights[docId] = weight;
+
+        var grams = new HashSet<String>();
+        for (String token : tokenize(label)) {
+            for (int length = 1; length <= Math.min(token.length(), maxPrefixLength); length++) {
+                grams.add(token.substring(0, length));
+            }
+        }
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> new IntList()).add(docId);
+        }
+        return docId;
+    }
+
+    /**
+     * Orders candidates by match quality (exact label, label prefix, token prefix), then by weight,
+     * then by shorter label.
+     */
+    private long rankKey(int docId, String query) {
+        var label = labels[docId];
+        long quality;
+        if (label.equalsIgnoreCase(query)) {
+            quality = 2;
+        } else if (label.regionMatches(true, 0, query, 0, query.length())) {
+            quality = 1;
+        } else {
+            quality = 0;
+        }
+        long weight = Math.min(Math.max(weights[docId], 0), WEIGHT_MASK);
+        long shortness = LENGTH_MASK - Math.min(label.length(), LENGTH_MASK);
+        return (quality << 56) | (weight << 16) | shortness;
+    }
+
+    private static int insert(long[] keys, int[] docs, int count, long key, int docId) {
+        int position = count;
+        while (position > 0 && keys[position - 1] < key) {
+            if (position < keys.length) {
+                keys[position] = keys[position - 1];
+                docs[position] = docs[position - 1];
+            }
+            position--;
+        }
+        keys[position] = key;
+        docs[position] = docId;
+        return Math.min(count + 1, keys.length);
+    }
+
+    private boolean matchesAllTokens(String label, List<String> queryTokens) {
+        var labelTokens = tokenize(label);
+        return queryTokens.stream().allMatch(queryToken ->
+                labelTokens.stream().anyMatch(labelToken -> labelToken.startsWith(queryToken)));
+    }
+
+    private String truncate(String token) {
+        return token.length() > maxPrefixLength ? token.substring(0, maxPrefixLength) : token;
+    }
+
+    private static String documentKey(SuggestionType type, String id) {
+        return type.ordinal() + ":" + id;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        var normalized = DIACRITICS
+                .matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        var tokens = new ArrayList<String>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean tokenChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1) + 1);
+            }
+            values[size++] = value;
+        }
+
+        void trimToSize() {
+            if (values.length != size) {
+                values = Arrays.copyOf(values, size);
+            }
+        }
+
+        /**
+         * Returns the first position at or after {@code from} holding a value {@code >= target}.
+         */
+        int seek(int target, int from) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && values[high] < target) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int index = Arrays.binarySearch(values, low, Math.min(high + 1, size), target);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
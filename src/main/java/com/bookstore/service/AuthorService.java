@@ -1,5 +1,6 @@
 package com.bookstore.service;
 
+import com.bookstore.dto.Versioned;
 import com.bookstore.dto.author.AuthorDto;
 import com.bookstore.dto.author.AuthorRequestDto;
 import com.bookstore.dto.author.AuthorUpdateRequestDto;
@@ -9,11 +10,11 @@ import org.springframework.data.domain.Pageable;
 public interface AuthorService {
     Page<AuthorDto> findAll(Pageable pageable);
 
-    AuthorDto findById(Long id);
+    Versioned<AuthorDto> findById(Long id);
 
     AuthorDto create(AuthorRequestDto authorRequestDto);
 
-    AuthorDto update(Long authorId, AuthorUpdateRequestDto updateRequest);
+    Versioned<AuthorDto> update(Long authorId, AuthorUpdateRequestDto updateRequest, Long expectedVersion);
 
     void delete(Long authorId);
 }
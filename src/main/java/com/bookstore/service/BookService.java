@@ -1,25 +1,33 @@
 package com.bookstore.service;
 
 import com.bookstore.controller.filters.BookFilter;
+import com.bookstore.controller.filters.TopBooksFilter;
+import com.bookstore.dto.Versioned;
 import com.bookstore.dto.book.BookDto;
 import com.bookstore.dto.book.BookRequestDto;
 import com.bookstore.dto.rating.BookRatingDto;
-import com.bookstore.entity.Rating;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
 public interface BookService {
     Page<BookDto> findAll(BookFilter bookFilter, Pageable pageable);
 
-    BookDto findByIsbn(String isbn);
+    List<BookDto> findTopRated(TopBooksFilter filter, int limit);
+
+    Versioned<BookDto> findByIsbn(String isbn);
 
     Page<BookRatingDto> findRatingsByBookIsbn(String isbn, Pageable pageable);
 
+    Slice<BookRatingDto> findRatingsByBookIsbnAfter(String isbn, Long afterUserId, int size);
+
+    void rate(String isbn, Long userId, Integer score);
+
     BookDto create(BookRequestDto bookRequestDto);
 
-    BookDto update(String isbn, BookRequestDto bookRequestDto);
+    Versioned<BookDto> update(String isbn, BookRequestDto bookRequestDto, Long expectedVersion);
 
     void delete(String isbn);
 }
@@ -1,5 +1,6 @@
 package com.bookstore.service;
 
+import com.bookstore.dto.Versioned;
 import com.bookstore.dto.publisher.PublisherDto;
 import com.bookstore.dto.publisher.PublisherRequestDto;
 import com.bookstore.dto.publisher.PublisherUpdateRequestDto;
@@ -9,11 +10,11 @@ import org.springframework.data.domain.Pageable;
 public interface PublisherService {
     Page<PublisherDto> findAll(Pageable pageable);
 
-    PublisherDto findById(Long id);
+    Versioned<PublisherDto> findById(Long id);
 
     PublisherDto create(PublisherRequestDto publisherRequestDto);
 
-    PublisherDto update(Long publisherId, PublisherUpdateRequestDto publisherUpdateRequestDto);
+    Versioned<PublisherDto> update(Long publisherId, PublisherUpdateRequestDto publisherUpdateRequestDto, Long expectedVersion);
 
     void delete(Long publisherId);
 }
@@ -1,19 +1,26 @@
 package com.bookstore.service;
 
 import com.bookstore.controller.filters.UserFilter;
+import com.bookstore.dto.Versioned;
+import com.bookstore.dto.rating.UserRatingDto;
 import com.bookstore.dto.user.UserDto;
 import com.bookstore.dto.user.UserRequestDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface UserService {
     Page<UserDto> findAll(UserFilter userFilter, Pageable pageable);
 
-    UserDto findById(Long id);
+    Versioned<UserDto> findById(Long id);
+
+    Page<UserRatingDto> findRatingsByUserId(Long userId, Pageable pageable);
+
+    Slice<UserRatingDto> findRatingsByUserIdAfter(Long userId, String afterIsbn, int size);
 
     UserDto create(UserRequestDto userRequestDto);
 
-    UserDto update(Long userId, UserRequestDto userRequestDto);
+    Versioned<UserDto> update(Long userId, UserRequestDto userRequestDto, Long expectedVersion);
 
     void delete(Long publisherId);
 }
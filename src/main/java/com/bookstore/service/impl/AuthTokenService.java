@@ -1,36 +1,117 @@
 package com.bookstore.service.impl;
 
 import com.bookstore.dto.AuthTokenResponseDto;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Client-credentials token for the API, fetched from Auth0 once and shared by all callers.
+ * <p>
+ * The token is served until {@code auth0.token.expiry-margin} ms before it expires, with {@code expires_in} counting
+ * down to its actual expiry. Concurrent callers that find no usable token wait for a single request to Auth0 rather
+ * than each sending their own. Once the token is within {@code auth0.token.renew-ahead} ms of that margin it is
+ * renewed in the background, so callers normally never wait; a failed renewal keeps the current token and is retried
+ * on the next check. A response without {@code expires_in} is handed to the caller but not cached.
+ */
 @Slf4j
-@RequiredArgsConstructor
 @Service
 public class AuthTokenService {
-    @Value("${auth0.token.url}")
-    private String tokenUrl;
+    private final RestTemplate restTemplate;
+    private final String tokenUrl;
+    private final String clientId;
+    private final String clientSecret;
+    private final String audience;
+    private final long expiryMarginMillis;
+    private final long renewAheadMillis;
 
-    @Value("${auth0.client.id}")
-    private String clientId;
+    private volatile CachedToken cached;
+    private final AtomicReference<CompletableFuture<CachedToken>> refreshing = new AtomicReference<>();
 
-    @Value("${auth0.client.secret}")
-    private String clientSecret;
+    public AuthTokenService(RestTemplate restTemplate,
+                            @Value("${auth0.token.url}") String tokenUrl,
+                            @Value("${auth0.client.id}") String clientId,
+                            @Value("${auth0.client.secret}") String clientSecret,
+                            @Value("${spring.security.oauth2.resourceserver.jwt.audiences}") String audience,
+                            @Value("${auth0.token.expiry-margin}") long expiryMarginMillis,
+                            @Value("${auth0.token.renew-ahead}") long renewAheadMillis) {
+        this.restTemplate = restTemplate;
+        this.tokenUrl = tokenUrl;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.audience = audience;
+        this.expiryMarginMillis = expiryMarginMillis;
+        this.renewAheadMillis = renewAheadMillis;
+    }
 
-    @Value("${spring.security.oauth2.resourceserver.jwt.audiences}")
-    private String audience;
+    public AuthTokenResponseDto getToken() {
+        var token = cached;
+        long now = System.currentTimeMillis();
+        if (token == null || now >= token.usableUntil()) {
+            token = refresh(token);
+            now = System.currentTimeMillis();
+        }
+        return token.response(now);
+    }
 
-    private final RestTemplate restTemplate;
+    @Scheduled(fixedDelayString = "${auth0.token.renew-check-interval}",
+            initialDelayString = "${auth0.token.renew-check-interval}")
+    public void renewIfDue() {
+        var token = cached;
+        if (token == null || System.currentTimeMillis() < token.usableUntil() - renewAheadMillis) {
+            return;
+        }
+        try {
+            refresh(token);
+            log.info("Renewed auth token ahead of expiry");
+        } catch (RuntimeException ex) {
+            log.warn("Failed to renew auth token, keeping the current one: {}", ex.getMessage());
+        }
+    }
 
-    public AuthTokenResponseDto getToken() {
+    /**
+     * Replaces {@code stale} with a new token, unless another caller has replaced it already. Only one request to
+     * Auth0 is in flight at a time; callers arriving meanwhile get its outcome.
+     */
+    private CachedToken refresh(CachedToken stale) {
+        var own = new CompletableFuture<CachedToken>();
+        var inFlight = refreshing.compareAndExchange(null, own);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+        try {
+            var token = cached;
+            if (token == stale) {
+                token = fetch();
+                if (token.cacheable()) {
+                    cached = token;
+                }
+            }
+            own.complete(token);
+            return token;
+        } catch (RuntimeException ex) {
+            own.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            refreshing.set(null);
+        }
+    }
+
+    private CachedToken fetch() {
         var requestBody = new HashMap<>();
         requestBody.put("client_id", clientId);
         requestBody.put("client_secret", clientSecret);
@@ -41,7 +122,27 @@ public class AuthTokenService {
         headers.setContentType(MediaType.APPLICATION_JSON);
         var request = new HttpEntity<>(requestBody, headers);
 
-        return restTemplate.postForEntity(tokenUrl, request, AuthTokenResponseDto.class)
+        long requestedAt = System.currentTimeMillis();
+        var response = restTemplate.postForEntity(tokenUrl, request, AuthTokenResponseDto.class)
                 .getBody();
+        long expiresAt = response == null || response.expires_in() == null
+                ? requestedAt
+                : requestedAt + response.expires_in() * 1000;
+        return new CachedToken(response, expiresAt, expiresAt - expiryMarginMillis);
+    }
+
+    private record CachedToken(AuthTokenResponseDto response, long expiresAt, long usableUntil) {
+
+        boolean cacheable() {
+            return response != null && response.expires_in() != null;
+        }
+
+        AuthTokenResponseDto response(long now) {
+            if (!cacheable()) {
+                return response;
+            }
+            return new AuthTokenResponseDto(response.access_token(), Math.max(0, (expiresAt - now) / 1000),
+                    response.token_type(), response.scope());
+        }
     }
 }
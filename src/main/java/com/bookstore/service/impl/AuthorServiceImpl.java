@@ -1,16 +1,23 @@
 package com.bookstore.service.impl;
 
+import com.bookstore.dto.Versioned;
 import com.bookstore.dto.author.AuthorDto;
 import com.bookstore.dto.author.AuthorRequestDto;
 import com.bookstore.dto.author.AuthorUpdateRequestDto;
 import com.bookstore.entity.Author;
+import com.bookstore.event.AuthorDeletedEvent;
+import com.bookstore.event.AuthorSavedEvent;
 import com.bookstore.exception.ConflictException;
+import com.bookstore.exception.PreconditionFailedException;
 import com.bookstore.exception.ResourceNotFoundException;
 import com.bookstore.mapping.AuthorMapper;
 import com.bookstore.repository.AuthorRepository;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.ConditionalUpdateRepository;
 import com.bookstore.service.AuthorService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -23,51 +30,56 @@ import org.springframework.transaction.annotation.Transactional;
 public class AuthorServiceImpl implements AuthorService {
     private static final AuthorMapper MAPPER = AuthorMapper.INSTANCE;
     private final AuthorRepository authorRepo;
+    private final BookRepository bookRepo;
+    private final ConditionalUpdateRepository updateRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     @Override
     public Page<AuthorDto> findAll(Pageable pageable) {
-        return authorRepo.findAll(pageable)
-                .map(MAPPER::mapToDto);
+        return authorRepo.findAllAsDto(pageable);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public AuthorDto findById(Long authorId) {
+    public Versioned<AuthorDto> findById(Long authorId) {
         var author = findAuthorEntity(authorId);
-        return MAPPER.mapToDto(author);
+        return new Versioned<>(MAPPER.mapToDto(author), author.getVersion());
     }
 
     @Override
     public AuthorDto create(AuthorRequestDto authorRequestDto) {
         var authorEntity = MAPPER.mapToEntity(authorRequestDto);
         validateAuthorExist(authorRequestDto.getName());
-        var savedAuthor = authorRepo.save(authorEntity);
-        return MAPPER.mapToDto(savedAuthor);
+        var savedAuthor = MAPPER.mapToDto(authorRepo.save(authorEntity));
+        eventPublisher.publishEvent(new AuthorSavedEvent(savedAuthor));
+        return savedAuthor;
     }
 
+    /**
+     * Renames the author with one conditional update. {@code expectedVersion} is the version the client read,
+     * {@code null} updates any version.
+     */
     @Override
-    public AuthorDto update(Long authorId, AuthorUpdateRequestDto authorUpdateRequest) {
-        validateAuthorExist(authorUpdateRequest.getName());
-        var authorEntity = findAuthorEntity(authorId);
-        if (!authorEntity.getName().equals(authorUpdateRequest.getName())) {
-            validateAuthorExist(authorUpdateRequest.getName());
-        }
-        authorEntity.setName(authorUpdateRequest.getName());
-        return MAPPER.mapToDto(authorRepo.save(authorEntity));
-
+    public Versioned<AuthorDto> update(Long authorId, AuthorUpdateRequestDto authorUpdateRequest, Long expectedVersion) {
+        var name = authorUpdateRequest.getName();
+        var updatedAuthor = updateRepo.updateAuthor(authorId, name, expectedVersion)
+                .orElseThrow(() -> updateFailure(authorId, name, expectedVersion));
+        eventPublisher.publishEvent(new AuthorSavedEvent(updatedAuthor.content()));
+        return updatedAuthor;
     }
 
     @Override
     public void delete(Long authorId) {
         var author = findAuthorEntity(authorId);
-        if (!author.getBooks().isEmpty()) {
+        if (bookRepo.existsByAuthorId(authorId)) {
             throw new ConflictException(
                     String.format("Can't delete author: [%d]. Books not empty!", authorId)
             );
         }
 
         authorRepo.delete(author);
+        eventPublisher.publishEvent(new AuthorDeletedEvent(authorId));
     }
 
     private Author findAuthorEntity(Long authorId) {
@@ -79,6 +91,21 @@ public class AuthorServiceImpl implements AuthorService {
         );
     }
 
+    private RuntimeException updateFailure(Long authorId, String name, Long expectedVersion) {
+        if (!authorRepo.existsById(authorId)) {
+            log.warn("Author not found by id: [{}]", authorId);
+            return new ResourceNotFoundException("Author not found by id: " + authorId);
+        }
+        if (authorRepo.existsByNameAndIdNot(name, authorId)) {
+            return new ConflictException(String.format("Author with name [%s] already exists.", name));
+        }
+        if (expectedVersion != null) {
+            return new PreconditionFailedException(
+                    String.format("Author [%d] was modified since version %d", authorId, expectedVersion));
+        }
+        return new ConflictException(String.format("Author [%d] was changed concurrently, retry", authorId));
+    }
+
     private void validateAuthorExist(String authorName) {
         if (authorRepo.existsByName(authorName)) {
             throw new ConflictException(String.format("Author with name [%s] already exists.", authorName));
@@ -0,0 +1,96 @@
+package com.bookstore.service.impl;
+
+import com.bookstore.controller.filters.PopularBooksFilter;
+import com.bookstore.dto.book.BookShortDto;
+import com.bookstore.dto.book.PopularBookDto;
+import com.bookstore.event.RatingsImportedEvent;
+import com.bookstore.recommend.CohortCube;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.CohortCubeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the most rated books of a reader cohort (country and age range) from a precomputed {@link CohortCube}.
+ * <p>
+ * The cube is rebuilt off the request path (on startup, on a fixed delay and after rating imports) and published
+ * with a single volatile write, so a query never joins ratings, users and addresses.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookPopularityService {
+    @Value("${recommend.max-limit}")
+    private int maxLimit;
+
+    private final CohortCubeRepository cubeRepo;
+    private final BookRepository bookRepo;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile CohortCube cube = CohortCube.empty();
+
+    public List<PopularBookDto> findPopular(PopularBooksFilter filter, int limit) {
+        var entries = cube.top(filter.getCountry(), filter.getMinAge(), filter.getMaxAge(),
+                Math.min(Math.max(limit, 1), maxLimit));
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+        Map<String, String> titles = bookRepo.findShortByIsbnIn(
+                        entries.stream().map(CohortCube.Entry::itemId).toList())
+                .stream()
+                .collect(Collectors.toMap(BookShortDto::getIsbn, BookShortDto::getTitle, (a, b) -> a));
+        return entries.stream()
+                .filter(entry -> titles.containsKey(entry.itemId()))
+                .map(entry -> new PopularBookDto(entry.itemId(), titles.get(entry.itemId()),
+                        Math.round(entry.average() * 100) / 100.0, (long) entry.count()))
+                .toList();
+    }
+
+    /**
+     * Builds a new cube from the current ratings and swaps it in. Concurrent calls are skipped rather than queued.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.debug("Cohort cube rebuild already running, skipping");
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            var fresh = cubeRepo.loadCohortCube();
+            cube = fresh;
+            log.info("Cohort cube rebuilt in {} ms: {} countries, {} books, {} entries",
+                    System.currentTimeMillis() - start, fresh.countryCount(), fresh.itemCount(), fresh.size());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${recommend.popular.rebuild-interval}",
+            initialDelayString = "${recommend.popular.rebuild-interval}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingsImported(RatingsImportedEvent event) {
+        rebuild();
+    }
+}
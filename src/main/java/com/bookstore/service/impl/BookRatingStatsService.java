@@ -0,0 +1,146 @@
+package com.bookstore.service.impl;
+
+import com.bookstore.dto.rating.RatingRequestDto;
+import com.bookstore.entity.Rating;
+import com.bookstore.event.RatingsImportedEvent;
+import com.bookstore.repository.BookRankingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the per-book rating aggregates and Bayesian weighted ratings on {@code books} up to date.
+ * <p>
+ * Writers either call {@link #refreshBooks(Collection)} for the books whose ratings they touched, which recomputes
+ * those books in the caller's transaction, or write through {@link #saveRatings(Collection)}, which moves the
+ * aggregates by deltas. Both use the cached global mean. The global mean moves slowly, so it is
+ * only recomputed, together with every weighted rating, on a fixed delay and after bulk imports.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookRatingStatsService {
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    @Value("${ranking.weighted.prior-votes}")
+    private int priorVotes;
+
+    private final BookRankingRepository rankingRepo;
+    private final PlatformTransactionManager transactionManager;
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+    private volatile Double priorMean;
+
+    @Transactional
+    public void refreshBooks(Collection<String> isbns) {
+        rankingRepo.refreshBooks(isbns, priorVotes, priorMean());
+    }
+
+    /**
+     * Upserts the ratings and applies them to the book aggregates as deltas. Returns the keys that were already rated.
+     */
+    @Transactional
+    public Set<Rating.BookRatingPrimaryKey> saveRatings(Collection<RatingRequestDto> ratings) {
+        return rankingRepo.upsertRatings(ratings, priorVotes, priorMean());
+    }
+
+    /**
+     * Removes the ratings and implicit interactions of a user about to be deleted from the book aggregates, in the
+     * caller's transaction.
+     */
+    @Transactional
+    public void subtractUserRatings(long userId) {
+        rankingRepo.subtractUserRatings(userId, priorVotes, priorMean());
+    }
+
+    /**
+     * Repairs drifted aggregates and implicit interaction counts, recomputes the global mean and re-weights every
+     * book whose weighted rating changed. Concurrent calls are skipped rather than queued.
+     * <p>
+     * The repair writes counts computed from {@code ratings}, so it runs in one repeatable read transaction: a rating
+     * write committed after its snapshot to a book it repairs fails it with a serialization error instead of being
+     * overwritten, and the whole reconciliation is retried from a fresh snapshot.
+     */
+    public void reconcile() {
+        if (!reconciling.compareAndSet(false, true)) {
+            log.debug("Book rating stats reconciliation already running, skipping");
+            return;
+        }
+        try {
+            var transaction = new TransactionTemplate(transactionManager);
+            transaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            for (int attempt = 1; ; attempt++) {
+                long start = System.currentTimeMillis();
+                try {
+                    var result = transaction.execute(status -> reconcileOnce());
+                    priorMean = result.mean();
+                    log.info("Book rating stats reconciled in {} ms: {} drifted aggregates, {} drifted implicit " +
+                                    "counts, {} weighted ratings updated, mean {}",
+                            System.currentTimeMillis() - start, result.drifted(), result.implicitDrifted(),
+                            result.reweighted(), result.mean());
+                    return;
+                } catch (ConcurrencyFailureException ex) {
+                    if (attempt == RECONCILE_ATTEMPTS) {
+                        log.warn("Book rating stats reconciliation gave up after {} attempts: {}", attempt,
+                                ex.getMessage());
+                        return;
+                    }
+                    log.debug("Book rating stats reconciliation conflicted with a concurrent write, retrying");
+                }
+            }
+        } finally {
+            reconciling.set(false);
+        }
+    }
+
+    private Reconciliation reconcileOnce() {
+        int drifted = rankingRepo.reconcileAggregates();
+        int implicitDrifted = rankingRepo.reconcileImplicitCounts();
+        var mean = rankingRepo.findGlobalMeanRating();
+        int reweighted = rankingRepo.updateWeightedRatings(priorVotes, mean);
+        return new Reconciliation(drifted, implicitDrifted, reweighted, mean);
+    }
+
+    @Scheduled(fixedDelayString = "${ranking.reconcile-interval}", initialDelayString = "${ranking.reconcile-interval}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingsImported(RatingsImportedEvent event) {
+        reconcile();
+    }
+
+    private double priorMean() {
+        var mean = priorMean;
+        if (mean == null) {
+            mean = rankingRepo.findGlobalMeanRating();
+            priorMean = mean;
+        }
+        return mean;
+    }
+
+    private record Reconciliation(int drifted, int implicitDrifted, int reweighted, double mean) {
+    }
+}
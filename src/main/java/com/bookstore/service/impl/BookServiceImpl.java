@@ -1,6 +1,8 @@
 package com.bookstore.service.impl;
 
 import com.bookstore.controller.filters.BookFilter;
+import com.bookstore.controller.filters.TopBooksFilter;
+import com.bookstore.dto.Versioned;
 import com.bookstore.dto.author.AuthorDto;
 import com.bookstore.dto.book.BookDto;
 import com.bookstore.dto.book.BookRequestDto;
@@ -9,24 +11,30 @@ import com.bookstore.dto.rating.BookRatingDto;
 import com.bookstore.entity.Author;
 import com.bookstore.entity.Book;
 import com.bookstore.entity.Publisher;
+import com.bookstore.event.BookDeletedEvent;
+import com.bookstore.event.BookSavedEvent;
 import com.bookstore.exception.ConflictException;
+import com.bookstore.exception.PreconditionFailedException;
 import com.bookstore.exception.ResourceNotFoundException;
 import com.bookstore.mapping.BookMapper;
 import com.bookstore.repository.AuthorRepository;
+import com.bookstore.repository.BookRankingRepository;
 import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.ConditionalUpdateRepository;
 import com.bookstore.repository.PublisherRepository;
 import com.bookstore.repository.RatingRepository;
+import com.bookstore.repository.UserRepository;
 import com.bookstore.service.BookService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -34,43 +42,73 @@ import java.util.stream.Collectors;
 @Service
 public class BookServiceImpl implements BookService {
     private static final BookMapper MAPPER = BookMapper.INSTANCE;
+
+    @Value("${ranking.default-min-votes}")
+    private int defaultMinVotes;
+
+    @Value("${ranking.max-limit}")
+    private int maxTopLimit;
+
     private final BookRepository bookRepo;
     private final RatingRepository ratingRepo;
     private final AuthorRepository authorRepo;
     private final PublisherRepository publisherRepo;
+    private final UserRepository userRepo;
+    private final BookRankingRepository rankingRepo;
+    private final ConditionalUpdateRepository updateRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RatingWriteBuffer ratingWriteBuffer;
+    private final KeysetPager keysetPager;
 
     @Transactional(readOnly = true)
     @Override
     public Page<BookDto> findAll(BookFilter bookFilter, Pageable pageable) {
-        Page<BookDto> booksPage = bookRepo
-                .findAll(bookFilter.toSpec(), pageable)
-                .map(MAPPER::mapToDto);
-
-        List<String> bookIsbns = booksPage.map(BookDto::getIsbn).toList();
-        Map<String, Double> bookRatings = ratingRepo.findAverageRatingByBookIsbnsIn(bookIsbns)
-                .stream().collect(Collectors.toMap(
-                        arr -> (String) arr[0],   // Book ISBN
-                        arr -> (Double) arr[1]    // Average
-                ));
-
-        return booksPage.map(book -> {
-            var avgRating = bookRatings.getOrDefault(book.getIsbn(), 0.0);
-            book.setRating(avgRating);
-            return book;
-        });
+        return bookRepo.findAllAsDto(bookFilter.toSpec(), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookDto> findTopRated(TopBooksFilter filter, int limit) {
+        var minVotes = filter.getMinVotes() == null ? defaultMinVotes : Math.max(filter.getMinVotes(), 1);
+        return rankingRepo.findTopRated(filter, minVotes, Math.min(Math.max(limit, 1), maxTopLimit));
     }
 
     @Transactional(readOnly = true)
     @Override
-    public BookDto findByIsbn(String isbn) {
+    public Versioned<BookDto> findByIsbn(String isbn) {
         var book = findBookEntity(isbn);
-        return mapToResponse(book);
+        return new Versioned<>(MAPPER.mapToDto(book), book.getVersion());
     }
 
+    @Transactional(readOnly = true)
     @Override
     public Page<BookRatingDto> findRatingsByBookIsbn(String isbn, Pageable pageable) {
-        return ratingRepo.findAllByBookIsbn(isbn, pageable)
-                .map(rating -> new BookRatingDto(rating.getUser().getId(), rating.getScore()));
+        return ratingRepo.findBookRatings(isbn, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<BookRatingDto> findRatingsByBookIsbnAfter(String isbn, Long afterUserId, int size) {
+        return keysetPager.fetch(size, limit -> ratingRepo.findBookRatingsAfter(isbn, afterUserId, limit));
+    }
+
+    /**
+     * Checks that book and user exist and buffers the rating; it is written by the next flush of
+     * {@link RatingWriteBuffer}. Runs outside a transaction: each check holds a pooled connection only for its
+     * own query, and none is held while {@code submit} waits for room in a full buffer.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Override
+    public void rate(String isbn, Long userId, Integer score) {
+        if (!bookRepo.existsByIsbn(isbn)) {
+            log.warn("Book not found by isbn: [{}]", isbn);
+            throw new ResourceNotFoundException(String.format("Book not found by isbn: %s", isbn));
+        }
+        if (!userRepo.existsById(userId)) {
+            log.warn("User not found by id: [{}]", userId);
+            throw new ResourceNotFoundException(String.format("User not found by id: %d", userId));
+        }
+        ratingWriteBuffer.submit(isbn, userId, score);
     }
 
     @Override
@@ -81,32 +119,30 @@ public class BookServiceImpl implements BookService {
         var book = MAPPER.mapToEntity(bookRequestDto);
         book.setAuthor(author);
         book.setPublisher(publisher);
-        return mapToResponse(bookRepo.save(book));
+        var savedBook = MAPPER.mapToDto(bookRepo.save(book));
+        eventPublisher.publishEvent(new BookSavedEvent(savedBook));
+        return savedBook;
     }
 
+    /**
+     * Updates the book with one conditional update that also resolves the author and publisher names.
+     * {@code expectedVersion} is the version the client read, {@code null} updates any version.
+     */
     @Override
-    public BookDto update(String isbn, BookRequestDto bookRequestDto) {
-        var bookEntity = findBookEntity(isbn);
-        bookEntity.setTitle(bookRequestDto.getTitle());
-        bookEntity.setYear(bookRequestDto.getYear());
-
-        if (!bookEntity.getPublisher().getId().equals(bookRequestDto.getPublisher().getId())) {
-            var publisher = findPublisherEntity(bookRequestDto.getPublisher().getId());
-            bookEntity.setPublisher(publisher);
-        }
-
-        if (!bookEntity.getAuthor().getId().equals(bookRequestDto.getAuthor().getId())) {
-            var author = findAuthorEntity(bookRequestDto.getAuthor().getId());
-            bookEntity.setAuthor(author);
-        }
-
-        return mapToResponse(bookRepo.save(bookEntity));
+    public Versioned<BookDto> update(String isbn, BookRequestDto bookRequestDto, Long expectedVersion) {
+        var updatedBook = updateRepo.updateBook(isbn, bookRequestDto, expectedVersion)
+                .orElseThrow(() -> updateFailure(isbn, bookRequestDto, expectedVersion));
+        eventPublisher.publishEvent(new BookSavedEvent(updatedBook.content()));
+        return updatedBook;
     }
 
     @Override
     public void delete(String isbn) {
-        var book = findBookEntity(isbn);
-        bookRepo.delete(book);
+        if (bookRepo.deleteByIsbnInBulk(isbn) == 0) {
+            log.warn("Book not found by isbn: [{}]", isbn);
+            throw new ResourceNotFoundException(String.format("Book not found by isbn: %s", isbn));
+        }
+        eventPublisher.publishEvent(new BookDeletedEvent(isbn));
     }
 
     private Book findBookEntity(String isbn) {
@@ -130,16 +166,31 @@ public class BookServiceImpl implements BookService {
         });
     }
 
+    private RuntimeException updateFailure(String isbn, BookRequestDto bookRequestDto, Long expectedVersion) {
+        if (!bookRepo.existsByIsbn(isbn)) {
+            log.warn("Book not found by isbn: [{}]", isbn);
+            return new ResourceNotFoundException(String.format("Book not found by isbn: %s", isbn));
+        }
+        var authorId = bookRequestDto.getAuthor().getId();
+        if (authorId == null || !authorRepo.existsById(authorId)) {
+            log.warn("Author not found by id: [{}]", authorId);
+            return new ResourceNotFoundException(String.format("Author not found by id: %d", authorId));
+        }
+        var publisherId = bookRequestDto.getPublisher().getId();
+        if (publisherId == null || !publisherRepo.existsById(publisherId)) {
+            log.warn("Publisher not found by id: [{}]", publisherId);
+            return new ResourceNotFoundException(String.format("Publisher not found by id: %d", publisherId));
+        }
+        if (expectedVersion != null) {
+            return new PreconditionFailedException(
+                    String.format("Book [%s] was modified since version %d", isbn, expectedVersion));
+        }
+        return new ConflictException(String.format("Book [%s] was changed concurrently, retry", isbn));
+    }
+
     private void validateBookExist(String isbn) {
         if (bookRepo.existsByIsbn(isbn)) {
             throw new ConflictException(String.format("Book with isbn [%s] already exists!", isbn));
         }
     }
-
-    private BookDto mapToResponse(Book book) {
-        var bookDto = MAPPER.mapToDto(book);
-        var avgRating = bookRepo.calculateAverageRating(book).orElse(0.0);
-        bookDto.setRating(avgRating);
-        return bookDto;
-    }
 }
@@ -0,0 +1,123 @@
+package com.bookstore.service.impl;
+
+import com.bookstore.dto.book.BookShortDto;
+import com.bookstore.dto.book.ScoredBookDto;
+import com.bookstore.event.RatingsImportedEvent;
+import com.bookstore.exception.ResourceNotFoundException;
+import com.bookstore.recommend.ItemSimilarityModel;
+import com.bookstore.recommend.ItemSimilarityModelBuilder;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.RatingMatrixRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Serves "readers who liked this also liked" lists from a precomputed {@link ItemSimilarityModel}.
+ * <p>
+ * The model is rebuilt off the request path (on startup, on a fixed delay and after rating imports) and
+ * published with a single volatile write, so readers always see either the old or the new model in full.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookSimilarityService {
+    @Value("${recommend.similar.neighbors}")
+    private int neighbors;
+
+    @Value("${recommend.similar.min-co-raters}")
+    private int minCoRaters;
+
+    @Value("${recommend.similar.max-items-per-user}")
+    private int maxItemsPerUser;
+
+    @Value("${recommend.parallelism}")
+    private int parallelism;
+
+    @Value("${recommend.max-limit}")
+    private int maxLimit;
+
+    private final RatingMatrixRepository matrixRepo;
+    private final BookRepository bookRepo;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile ItemSimilarityModel model = ItemSimilarityModel.empty();
+
+    public List<ScoredBookDto> findSimilar(String isbn, int limit) {
+        var current = model;
+        if (!current.contains(isbn)) {
+            if (!bookRepo.existsByIsbn(isbn)) {
+                log.warn("Book not found by isbn: [{}]", isbn);
+                throw new ResourceNotFoundException(String.format("Book not found by isbn: %s", isbn));
+            }
+            return List.of();
+        }
+
+        var neighborList = current.neighbors(isbn, Math.min(Math.max(limit, 1), maxLimit));
+        if (neighborList.isEmpty()) {
+            return List.of();
+        }
+        // titles are read at request time so renamed or deleted books never leak from an older model
+        Map<String, String> titles = bookRepo.findShortByIsbnIn(
+                        neighborList.stream().map(ItemSimilarityModel.Neighbor::itemId).toList())
+                .stream()
+                .collect(Collectors.toMap(BookShortDto::getIsbn, BookShortDto::getTitle, (a, b) -> a));
+        return neighborList.stream()
+                .filter(neighbor -> titles.containsKey(neighbor.itemId()))
+                .map(neighbor -> new ScoredBookDto(neighbor.itemId(), titles.get(neighbor.itemId()),
+                        Math.round(neighbor.score() * 1000) / 1000.0))
+                .toList();
+    }
+
+    /**
+     * Builds a new model from the current ratings and swaps it in. Concurrent calls are skipped rather than queued.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.debug("Book similarity model rebuild already running, skipping");
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            var matrix = matrixRepo.loadExplicitRatings();
+            long loaded = System.currentTimeMillis();
+            var fresh = new ItemSimilarityModelBuilder(neighbors, minCoRaters, maxItemsPerUser, parallelism)
+                    .build(matrix);
+            model = fresh;
+            log.info("Book similarity model rebuilt from {} ratings of {} users: {} books, {} neighbors " +
+                            "(load {} ms, build {} ms)",
+                    matrix.size(), matrix.userCount(), fresh.itemCount(), fresh.neighborCount(),
+                    loaded - start, System.currentTimeMillis() - loaded);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${recommend.similar.rebuild-interval}",
+            initialDelayString = "${recommend.similar.rebuild-interval}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingsImported(RatingsImportedEvent event) {
+        rebuild();
+    }
+}
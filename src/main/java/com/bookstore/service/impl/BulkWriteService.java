@@ -0,0 +1,268 @@
+package com.bookstore.service.impl;
+
+import com.bookstore.dto.author.AuthorDto;
+import com.bookstore.dto.author.AuthorRequestDto;
+import com.bookstore.dto.book.BookDto;
+import com.bookstore.dto.book.BookRequestDto;
+import com.bookstore.dto.bulk.BulkItemResultDto;
+import com.bookstore.dto.bulk.BulkItemStatus;
+import com.bookstore.dto.bulk.BulkResultDto;
+import com.bookstore.dto.publisher.PublisherDto;
+import com.bookstore.dto.publisher.PublisherRequestDto;
+import com.bookstore.dto.rating.RatingRequestDto;
+import com.bookstore.entity.Rating;
+import com.bookstore.event.AuthorSavedEvent;
+import com.bookstore.event.BookSavedEvent;
+import com.bookstore.event.PublisherSavedEvent;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Batch versions of the create endpoints and a batch rating upsert.
+ * <p>
+ * Each item is validated on its own, then the whole batch is checked with one {@code = ANY(?)} query per
+ * referenced table and written in a single transaction: catalog rows with JDBC batches, ratings with one
+ * set-based upsert. Items failing validation or checks
+ * are reported in the result and skipped; the rest of the batch is still written.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class BulkWriteService {
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookRatingStatsService ratingStatsService;
+
+    public BulkResultDto createAuthors(List<AuthorRequestDto> requests) {
+        return createNamed(requests, AuthorRequestDto::getName, "authors", "Author",
+                (id, name) -> eventPublisher.publishEvent(new AuthorSavedEvent(new AuthorDto(id, name))));
+    }
+
+    public BulkResultDto createPublishers(List<PublisherRequestDto> requests) {
+        return createNamed(requests, PublisherRequestDto::getName, "publishers", "Publisher",
+                (id, name) -> eventPublisher.publishEvent(new PublisherSavedEvent(new PublisherDto(id, name))));
+    }
+
+    public BulkResultDto createBooks(List<BookRequestDto> requests) {
+        var results = new BulkItemResultDto[requests.size()];
+        Map<String, Integer> pending = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            var request = requests.get(i);
+            if (!isValid(i, request, results)) {
+                continue;
+            }
+            if (request.getAuthor().getId() == null || request.getPublisher().getId() == null) {
+                results[i] = failure(i, BulkItemStatus.INVALID, "author.id and publisher.id must not be null");
+            } else if (pending.putIfAbsent(request.getIsbn(), i) != null) {
+                results[i] = failure(i, BulkItemStatus.CONFLICT,
+                        String.format("Book with isbn [%s] is repeated in the request!", request.getIsbn()));
+            }
+        }
+
+        var existingIsbns = findExisting("SELECT b.isbn FROM books b WHERE b.isbn = ANY(?)",
+                "varchar", pending.keySet(), String.class);
+        existingIsbns.forEach(isbn -> {
+            int index = pending.remove(isbn);
+            results[index] = failure(index, BulkItemStatus.CONFLICT,
+                    String.format("Book with isbn [%s] already exists!", isbn));
+        });
+
+        var authorNames = findNames("authors", pending.values().stream()
+                .map(index -> requests.get(index).getAuthor().getId()).collect(Collectors.toSet()));
+        var publisherNames = findNames("publishers", pending.values().stream()
+                .map(index -> requests.get(index).getPublisher().getId()).collect(Collectors.toSet()));
+        pending.values().removeIf(index -> {
+            var request = requests.get(index);
+            if (!authorNames.containsKey(request.getAuthor().getId())) {
+                results[index] = failure(index, BulkItemStatus.NOT_FOUND,
+                        String.format("Author not found by id: %d", request.getAuthor().getId()));
+                return true;
+            }
+            if (!publisherNames.containsKey(request.getPublisher().getId())) {
+                results[index] = failure(index, BulkItemStatus.NOT_FOUND,
+                        String.format("Publisher not found by id: %d", request.getPublisher().getId()));
+                return true;
+            }
+            return false;
+        });
+
+        var books = pending.values().stream().map(requests::get).toList();
+        var insertBookSql = "INSERT INTO books(id, isbn, title, publisher_id, author_id, year)" +
+                " VALUES (nextval('books_id_seq'), ?, ?, ?, ?, ?)";
+        jdbcTemplate.batchUpdate(insertBookSql, books, books.size(), (ps, book) -> {
+            ps.setString(1, book.getIsbn());
+            ps.setString(2, book.getTitle());
+            ps.setLong(3, book.getPublisher().getId());
+            ps.setLong(4, book.getAuthor().getId());
+            ps.setInt(5, book.getYear());
+        });
+
+        pending.values().forEach(index -> {
+            var request = requests.get(index);
+            results[index] = success(index, BulkItemStatus.CREATED, request.getIsbn());
+            var authorId = request.getAuthor().getId();
+            var publisherId = request.getPublisher().getId();
+            eventPublisher.publishEvent(new BookSavedEvent(BookDto.builder()
+                    .isbn(request.getIsbn())
+                    .title(request.getTitle())
+                    .year(request.getYear())
+                    .author(new AuthorDto(authorId, authorNames.get(authorId)))
+                    .publisher(new PublisherDto(publisherId, publisherNames.get(publisherId)))
+                    .rating(0.0)
+                    .build()));
+        });
+        return BulkResultDto.of(Arrays.asList(results));
+    }
+
+    /**
+     * Creates or overwrites the given ratings; the aggregates of the rated books move by the score differences.
+     */
+    public BulkResultDto saveRatings(List<RatingRequestDto> requests) {
+        var results = new BulkItemResultDto[requests.size()];
+        Map<Rating.BookRatingPrimaryKey, Integer> pending = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            var request = requests.get(i);
+            if (!isValid(i, request, results)) {
+                continue;
+            }
+            var ratingPk = new Rating.BookRatingPrimaryKey(request.getUserId(), request.getIsbn());
+            if (pending.putIfAbsent(ratingPk, i) != null) {
+                results[i] = failure(i, BulkItemStatus.CONFLICT, String.format(
+                        "Rating of user [%d] for book [%s] is repeated in the request!", ratingPk.getUserId(), ratingPk.getBookIsbn()));
+            }
+        }
+
+        var existingIsbns = findExisting("SELECT b.isbn FROM books b WHERE b.isbn = ANY(?)", "varchar",
+                pending.keySet().stream().map(Rating.BookRatingPrimaryKey::getBookIsbn).collect(Collectors.toSet()), String.class);
+        var existingUserIds = findExisting("SELECT u.id FROM users u WHERE u.id = ANY(?)", "bigint",
+                pending.keySet().stream().map(Rating.BookRatingPrimaryKey::getUserId).collect(Collectors.toSet()), Long.class);
+        pending.entrySet().removeIf(entry -> {
+            var ratingPk = entry.getKey();
+            int index = entry.getValue();
+            if (!existingIsbns.contains(ratingPk.getBookIsbn())) {
+                results[index] = failure(index, BulkItemStatus.NOT_FOUND,
+                        String.format("Book not found by isbn: %s", ratingPk.getBookIsbn()));
+                return true;
+            }
+            if (!existingUserIds.contains(ratingPk.getUserId())) {
+                results[index] = failure(index, BulkItemStatus.NOT_FOUND,
+                        String.format("User not found by id: %d", ratingPk.getUserId()));
+                return true;
+            }
+            return false;
+        });
+        if (pending.isEmpty()) {
+            return BulkResultDto.of(Arrays.asList(results));
+        }
+
+        var updatedRatings = ratingStatsService.saveRatings(pending.values().stream().map(requests::get).toList());
+        pending.forEach((ratingPk, index) -> results[index] = success(index,
+                updatedRatings.contains(ratingPk) ? BulkItemStatus.UPDATED : BulkItemStatus.CREATED, null));
+        return BulkResultDto.of(Arrays.asList(results));
+    }
+
+    private <T> BulkResultDto createNamed(List<T> requests, Function<T, String> nameOf, String table, String entity,
+                                          BiConsumer<Long, String> onCreated) {
+        var results = new BulkItemResultDto[requests.size()];
+        Map<String, Integer> pending = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            var request = requests.get(i);
+            if (isValid(i, request, results) && pending.putIfAbsent(nameOf.apply(request), i) != null) {
+                results[i] = failure(i, BulkItemStatus.CONFLICT,
+                        String.format("%s with name [%s] is repeated in the request.", entity, nameOf.apply(request)));
+            }
+        }
+
+        var existingNames = findExisting(String.format("SELECT t.name FROM %s t WHERE t.name = ANY(?)", table),
+                "varchar", pending.keySet(), String.class);
+        existingNames.forEach(name -> {
+            int index = pending.remove(name);
+            results[index] = failure(index, BulkItemStatus.CONFLICT,
+                    String.format("%s with name [%s] already exists.", entity, name));
+        });
+
+        var names = List.copyOf(pending.keySet());
+        var ids = jdbcTemplate.queryForList("SELECT nextval(?::regclass) FROM generate_series(1, ?)",
+                Long.class, table + "_id_seq", names.size());
+        var rows = new ArrayList<Map.Entry<Long, String>>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            rows.add(Map.entry(ids.get(i), names.get(i)));
+        }
+        jdbcTemplate.batchUpdate(String.format("INSERT INTO %s(id, name) VALUES (?, ?)", table),
+                rows, rows.size(), (ps, row) -> {
+                    ps.setLong(1, row.getKey());
+                    ps.setString(2, row.getValue());
+                });
+
+        rows.forEach(row -> {
+            int index = pending.get(row.getValue());
+            results[index] = success(index, BulkItemStatus.CREATED, row.getKey());
+            onCreated.accept(row.getKey(), row.getValue());
+        });
+        return BulkResultDto.of(Arrays.asList(results));
+    }
+
+    private boolean isValid(int index, Object request, BulkItemResultDto[] results) {
+        if (request == null) {
+            results[index] = failure(index, BulkItemStatus.INVALID, "Item must not be null");
+            return false;
+        }
+        var violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return true;
+        }
+        var error = violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        results[index] = failure(index, BulkItemStatus.INVALID, error);
+        return false;
+    }
+
+    private <K> Set<K> findExisting(String sql, String sqlType, Collection<K> keys, Class<K> keyType) {
+        Set<K> existing = new HashSet<>();
+        if (keys.isEmpty()) {
+            return existing;
+        }
+        jdbcTemplate.query(sql,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf(sqlType, keys.toArray())),
+                rs -> {
+                    existing.add(rs.getObject(1, keyType));
+                });
+        return existing;
+    }
+
+    private Map<Long, String> findNames(String table, Collection<Long> ids) {
+        Map<Long, String> names = new HashMap<>();
+        if (ids.isEmpty()) {
+            return names;
+        }
+        jdbcTemplate.query(String.format("SELECT t.id, t.name FROM %s t WHERE t.id = ANY(?)", table),
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())),
+                rs -> {
+                    names.put(rs.getLong(1), rs.getString(2));
+                });
+        return names;
+    }
+
+    private static BulkItemResultDto success(int index, BulkItemStatus status, Object id) {
+        return BulkItemResultDto.builder().index(index).status(status).id(id).build();
+    }
+
+    private static BulkItemResultDto failure(int index, BulkItemStatus status, String error) {
+        log.debug("Bulk item [{}] rejected: {}", index, error);
+        return BulkItemResultDto.builder().index(index).status(status).error(error).build();
+    }
+}
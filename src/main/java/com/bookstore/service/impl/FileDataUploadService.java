@@ -1,6 +1,8 @@
 package com.bookstore.service.impl;
 
 import com.bookstore.entity.*;
+import com.bookstore.event.CatalogImportedEvent;
+import com.bookstore.event.RatingsImportedEvent;
 import com.bookstore.exception.CsvFileException;
 import com.google.common.base.CharMatcher;
 import com.google.common.collect.Iterables;
@@ -8,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -30,10 +33,29 @@ public class FileDataUploadService {
     private static final int BATCH_SIZE = 1000;
 
     private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookRatingStatsService ratingStatsService;
 
     private static final String[] BOOKS_CSV_HEADERS = {"ISBN", "Book-Title", "Book-Author", "Year-Of-Publication", "Publisher"};
     private static final String[] USERS_CSV_HEADERS = {"User-ID", "Location", "Age"};
     private static final String[] RATINGS_CSV_HEADERS = {"User-ID", "ISBN", "Book-Rating"};
+    // merges the user's interactions and counts the books not listed for the user yet, like the rating upsert
+    private static final String UPSERT_IMPLICIT_SQL = """
+            WITH added AS (SELECT book_id
+                           FROM unnest(?::bigint[]) AS book_id
+                           WHERE NOT EXISTS (SELECT 1
+                                             FROM implicit_interactions i
+                                             WHERE i.user_id = ?
+                                               AND book_id = ANY (i.book_ids))),
+                 counted AS (UPDATE books b
+                             SET implicit_count = b.implicit_count + 1
+                             FROM added a
+                             WHERE b.id = a.book_id)
+            INSERT INTO implicit_interactions AS i (user_id, book_ids)
+            VALUES (?, ?)
+            ON CONFLICT (user_id) DO UPDATE
+                SET book_ids = ARRAY(SELECT DISTINCT id FROM unnest(i.book_ids || EXCLUDED.book_ids) AS id ORDER BY id)
+            """;
 
     @Transactional
     public void processBooksFile(MultipartFile file) {
@@ -63,6 +85,7 @@ public class FileDataUploadService {
             saveAuthors(authors);
             savePublishers(publishers);
             saveBooks(books);
+            eventPublisher.publishEvent(new CatalogImportedEvent());
         } catch (Exception ex) {
             log.error("There was an error processing books: {}", ex.getMessage());
             throw new CsvFileException("Error parsing csv file", ex);
@@ -107,31 +130,36 @@ public class FileDataUploadService {
     public void processRatingsFile(MultipartFile file) {
         CSVFormat format = this.getCsvFormat(RATINGS_CSV_HEADERS);
         try (final CSVParser records = CSVParser.parse(file.getInputStream(), StandardCharsets.UTF_8, format)) {
-            Set<Rating> ratings = new HashSet<>();
+            // keyed by primary key: Rating equality is defined on the associations, which are not resolved yet
+            Map<Rating.BookRatingPrimaryKey, Rating> ratings = new LinkedHashMap<>();
+            Map<Long, Set<String>> implicitInteractions = new HashMap<>();
 
             records.stream().sequential().forEach(record -> {
                 var userExternalId = Long.valueOf(record.get(0));
                 var bookIsbn = sanitizeString(record.get(1));
                 var ratingScore = Integer.valueOf(record.get(2));
 
-                // User Rating can't be 0. Not valid data. Skipping...
+                // Score 0 is an interaction without a rating: kept apart so it never counts as an explicit vote
                 if (ratingScore.equals(0)) {
+                    implicitInteractions.computeIfAbsent(userExternalId, id -> new HashSet<>()).add(bookIsbn);
                     return;
                 }
 
                 var ratingPk = new Rating.BookRatingPrimaryKey(userExternalId, bookIsbn);
                 var rating = Rating.builder().id(ratingPk).score(ratingScore).build();
-                ratings.add(rating);
+                ratings.put(ratingPk, rating);
             });
 
-            saveRatings(ratings);
+            saveRatings(ratings.values());
+            saveImplicitInteractions(implicitInteractions);
+            eventPublisher.publishEvent(new RatingsImportedEvent());
         } catch (Exception ex) {
             log.error("There was an error processing ratings: {}", ex.getMessage());
             throw new CsvFileException("Error parsing csv file", ex);
         }
     }
 
-    private void saveRatings(Set<Rating> ratings) {
+    private void saveRatings(Collection<Rating> ratings) {
         Iterable<List<Rating>> ratingsChunks = Iterables.partition(ratings, BATCH_SIZE);
         ratingsChunks.forEach(this::saveRatingsChunk);
     }
@@ -170,6 +198,52 @@ public class FileDataUploadService {
             ps.setString(2, rating.getBook().getIsbn());
             ps.setDouble(3, rating.getScore());
         });
+
+        var ratedBookIsbns = newRatingsChunk.stream()
+                .map(rating -> rating.getBook().getIsbn())
+                .collect(Collectors.toSet());
+        ratingStatsService.refreshBooks(ratedBookIsbns);
+    }
+
+    private void saveImplicitInteractions(Map<Long, Set<String>> interactionsByUser) {
+        Iterable<List<Map.Entry<Long, Set<String>>>> chunks = Iterables.partition(interactionsByUser.entrySet(), BATCH_SIZE);
+        chunks.forEach(this::saveImplicitInteractionsChunk);
+    }
+
+    private void saveImplicitInteractionsChunk(List<Map.Entry<Long, Set<String>>> chunk) {
+        var userExternalIds = chunk.stream().map(Map.Entry::getKey).toArray(Long[]::new);
+        var bookIsbns = chunk.stream().flatMap(entry -> entry.getValue().stream()).distinct().toArray(String[]::new);
+
+        Map<Long, Long> userIds = new HashMap<>();
+        jdbcTemplate.query("SELECT u.id, u.external_id FROM users u WHERE u.external_id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", userExternalIds)),
+                rs -> {
+                    userIds.put(rs.getLong(2), rs.getLong(1));
+                });
+        Map<String, Long> bookIds = new HashMap<>();
+        jdbcTemplate.query("SELECT b.id, b.isbn FROM books b WHERE b.isbn = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", bookIsbns)),
+                rs -> {
+                    bookIds.put(rs.getString(2), rs.getLong(1));
+                });
+
+        var rows = chunk.stream()
+                .filter(entry -> userIds.containsKey(entry.getKey()))
+                .map(entry -> Map.entry(userIds.get(entry.getKey()), entry.getValue().stream()
+                        .map(bookIds::get)
+                        .filter(Objects::nonNull)
+                        .sorted()
+                        .toArray(Long[]::new)))
+                .filter(entry -> entry.getValue().length > 0)
+                .toList();
+
+        jdbcTemplate.batchUpdate(UPSERT_IMPLICIT_SQL, rows, rows.size(), (ps, row) -> {
+            var ids = ps.getConnection().createArrayOf("bigint", row.getValue());
+            ps.setArray(1, ids);
+            ps.setLong(2, row.getKey());
+            ps.setLong(3, row.getKey());
+            ps.setArray(4, ids);
+        });
     }
 
     private Rating createNewRating(Rating rating, Map<String, Book> booksMap, Map<Long, User> usersMap) {
@@ -0,0 +1,32 @@
+package com.bookstore.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reads one keyset page: the requested size is clamped to {@code spring.data.web.pageable.max-page-size}, and one
+ * row more than that is fetched to tell whether there is a next page without counting the rest.
+ */
+@Component
+public class KeysetPager {
+    private final int maxPageSize;
+
+    public KeysetPager(@Value("${spring.data.web.pageable.max-page-size:2000}") int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    public <T> Slice<T> fetch(int size, Function<Limit, List<T>> query) {
+        var pageSize = Math.min(Math.max(size, 1), maxPageSize);
+        var rows = query.apply(Limit.of(pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        var content = hasNext ? rows.subList(0, pageSize) : rows;
+        return new SliceImpl<>(content, PageRequest.ofSize(pageSize), hasNext);
+    }
+}
@@ -1,16 +1,23 @@
 package com.bookstore.service.impl;
 
+import com.bookstore.dto.Versioned;
 import com.bookstore.dto.publisher.PublisherDto;
 import com.bookstore.dto.publisher.PublisherRequestDto;
 import com.bookstore.dto.publisher.PublisherUpdateRequestDto;
 import com.bookstore.entity.Publisher;
+import com.bookstore.event.PublisherDeletedEvent;
+import com.bookstore.event.PublisherSavedEvent;
 import com.bookstore.exception.ConflictException;
+import com.bookstore.exception.PreconditionFailedException;
 import com.bookstore.exception.ResourceNotFoundException;
 import com.bookstore.mapping.PublisherMapper;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.ConditionalUpdateRepository;
 import com.bookstore.repository.PublisherRepository;
 import com.bookstore.service.PublisherService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -23,50 +30,56 @@ import org.springframework.transaction.annotation.Transactional;
 public class PublisherServiceImpl implements PublisherService {
     private static final PublisherMapper MAPPER = PublisherMapper.INSTANCE;
     private final PublisherRepository publisherRepo;
+    private final BookRepository bookRepo;
+    private final ConditionalUpdateRepository updateRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     @Override
     public Page<PublisherDto> findAll(Pageable pageable) {
-        return publisherRepo.findAll(pageable)
-                .map(MAPPER::mapToDto);
+        return publisherRepo.findAllAsDto(pageable);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public PublisherDto findById(Long id) {
+    public Versioned<PublisherDto> findById(Long id) {
         var publisher = findPublisherEntity(id);
-        return MAPPER.mapToDto(publisher);
+        return new Versioned<>(MAPPER.mapToDto(publisher), publisher.getVersion());
     }
 
     @Override
     public PublisherDto create(PublisherRequestDto publisherRequestDto) {
         validatePublisherExist(publisherRequestDto.getName());
         var publisherEntity = MAPPER.mapToEntity(publisherRequestDto);
-        var savedPublisher = publisherRepo.save(publisherEntity);
-        return MAPPER.mapToDto(savedPublisher);
+        var savedPublisher = MAPPER.mapToDto(publisherRepo.save(publisherEntity));
+        eventPublisher.publishEvent(new PublisherSavedEvent(savedPublisher));
+        return savedPublisher;
     }
 
+    /**
+     * Renames the publisher with one conditional update. {@code expectedVersion} is the version the client read,
+     * {@code null} updates any version.
+     */
     @Override
-    public PublisherDto update(Long publisherId, PublisherUpdateRequestDto updateRequest) {
-        var publisherEntity = findPublisherEntity(publisherId);
+    public Versioned<PublisherDto> update(Long publisherId, PublisherUpdateRequestDto updateRequest, Long expectedVersion) {
         var newName = updateRequest.getName();
-        if (!publisherEntity.getName().equals(newName)) {
-            validatePublisherExist(newName);
-        }
-        publisherEntity.setName(updateRequest.getName());
-        return MAPPER.mapToDto(publisherRepo.save(publisherEntity));
+        var updatedPublisher = updateRepo.updatePublisher(publisherId, newName, expectedVersion)
+                .orElseThrow(() -> updateFailure(publisherId, newName, expectedVersion));
+        eventPublisher.publishEvent(new PublisherSavedEvent(updatedPublisher.content()));
+        return updatedPublisher;
     }
 
     @Override
     public void delete(Long publisherId) {
         var publisherEntity = findPublisherEntity(publisherId);
-        if (!publisherEntity.getBooks().isEmpty()) {
+        if (bookRepo.existsByPublisherId(publisherId)) {
             throw new ConflictException(
                     String.format("Can't delete publisher: [%d]. It has published books!", publisherId)
             );
         }
 
         publisherRepo.delete(publisherEntity);
+        eventPublisher.publishEvent(new PublisherDeletedEvent(publisherId));
     }
 
     private Publisher findPublisherEntity(Long publisherId) {
@@ -78,6 +91,21 @@ public class PublisherServiceImpl implements PublisherService {
         );
     }
 
+    private RuntimeException updateFailure(Long publisherId, String name, Long expectedVersion) {
+        if (!publisherRepo.existsById(publisherId)) {
+            log.warn("Publisher not found by id: [{}]", publisherId);
+            return new ResourceNotFoundException("Publisher not found by id: " + publisherId);
+        }
+        if (publisherRepo.existsByNameAndIdNot(name, publisherId)) {
+            return new ConflictException(String.format("Publisher with name [%s] alredy exists.", name));
+        }
+        if (expectedVersion != null) {
+            return new PreconditionFailedException(
+                    String.format("Publisher [%d] was modified since version %d", publisherId, expectedVersion));
+        }
+        return new ConflictException(String.format("Publisher [%d] was changed concurrently, retry", publisherId));
+    }
+
     private void validatePublisherExist(String publisherName) {
         if (publisherRepo.existsByName(publisherName)) {
             throw new ConflictException(String.format("Publisher with name [%s] alredy exists.", publisherName));
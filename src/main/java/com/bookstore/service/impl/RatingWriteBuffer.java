@@ -0,0 +1,178 @@
+package com.bookstore.service.impl;
+
+import com.bookstore.dto.rating.RatingRequestDto;
+import com.bookstore.entity.Rating;
+import com.bookstore.exception.ServiceOverloadedException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for single rating submissions.
+ * <p>
+ * Submissions are coalesced per (user, book), so re-rating a book before the next flush only replaces the
+ * pending score. A single flusher thread writes pending ratings in batches through
+ * {@link BulkWriteService#saveRatings(List)}: one set-based upsert per batch instead of one transaction
+ * per rating. Flushes run every {@code ratings.write-behind.flush-interval} ms, which bounds what an unclean
+ * shutdown can lose, and early once {@code batch-size} ratings are pending.
+ * <p>
+ * At most {@code capacity} distinct ratings are buffered. When the buffer is full a submitter waits up to
+ * {@code offer-timeout} ms for a flush to free space and is then rejected. Entries are removed only after their
+ * batch is committed and only if they were not re-rated meanwhile, so a failed flush is retried by the next one
+ * and never overwrites a newer score.
+ */
+@Slf4j
+@Service
+public class RatingWriteBuffer {
+    private final BulkWriteService bulkWriteService;
+    private final int maxPending;
+    private final int batchSize;
+    private final long offerTimeoutMillis;
+
+    private final Map<Rating.BookRatingPrimaryKey, Integer> pending = new ConcurrentHashMap<>();
+    private final Semaphore freeSlots;
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(task -> {
+        var thread = new Thread(task, "rating-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+
+    // striped counters: submitters on every request thread update them without contending on one cache line
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+
+    public RatingWriteBuffer(BulkWriteService bulkWriteService,
+                             @Value("${ratings.write-behind.capacity}") int maxPending,
+                             @Value("${ratings.write-behind.batch-size}") int batchSize,
+                             @Value("${ratings.write-behind.offer-timeout}") long offerTimeoutMillis) {
+        this.bulkWriteService = bulkWriteService;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.freeSlots = new Semaphore(maxPending);
+    }
+
+    /**
+     * Buffers the rating. Throws {@link ServiceOverloadedException} when the buffer stays full for
+     * {@code offer-timeout} ms.
+     */
+    public void submit(String isbn, Long userId, int score) {
+        var ratingPk = new Rating.BookRatingPrimaryKey(userId, isbn);
+        if (pending.replace(ratingPk, score) != null) {
+            coalesced.increment();
+            return;
+        }
+        if (!acquireSlot()) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Too many pending ratings, retry later");
+        }
+        if (pending.put(ratingPk, score) != null) {
+            freeSlots.release();
+            coalesced.increment();
+        } else {
+            accepted.increment();
+        }
+        if (pendingCount() >= batchSize) {
+            requestFlush();
+        }
+    }
+
+    public int pendingCount() {
+        return maxPending - freeSlots.availablePermits();
+    }
+
+    /**
+     * Writes every rating pending at the time of the call. Stops at the first failed batch, leaving it and
+     * everything after it for the next flush.
+     */
+    public synchronized void flush() {
+        List<Map.Entry<Rating.BookRatingPrimaryKey, Integer>> snapshot = new ArrayList<>(pending.size());
+        pending.forEach((ratingPk, score) -> snapshot.add(Map.entry(ratingPk, score)));
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int rejectedInFlush = 0;
+        for (int from = 0; from < snapshot.size(); from += batchSize) {
+            var batch = snapshot.subList(from, Math.min(from + batchSize, snapshot.size()));
+            try {
+                var result = bulkWriteService.saveRatings(batch.stream()
+                        .map(entry -> new RatingRequestDto(entry.getKey().getBookIsbn(), entry.getKey().getUserId(), entry.getValue()))
+                        .toList());
+                rejectedInFlush += result.getFailed();
+            } catch (RuntimeException ex) {
+                log.error("Rating flush failed, {} ratings stay buffered: {}", pendingCount(), ex.getMessage());
+                return;
+            }
+            for (var entry : batch) {
+                if (pending.remove(entry.getKey(), entry.getValue())) {
+                    freeSlots.release();
+                }
+            }
+            flushed.add(batch.size());
+        }
+        if (rejectedInFlush > 0) {
+            log.warn("{} buffered ratings were dropped because their book or user no longer exists", rejectedInFlush);
+        }
+        log.debug("Flushed {} ratings in {} ms (accepted {}, coalesced {}, rejected {}, flushed {} in total)",
+                snapshot.size(), System.currentTimeMillis() - start,
+                accepted.sum(), coalesced.sum(), rejected.sum(), flushed.sum());
+    }
+
+    @Scheduled(fixedDelayString = "${ratings.write-behind.flush-interval}",
+            initialDelayString = "${ratings.write-behind.flush-interval}")
+    public void scheduledFlush() {
+        requestFlush();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        if (!flusher.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Rating flusher did not stop in time");
+        }
+        flush();
+    }
+
+    private boolean acquireSlot() {
+        if (freeSlots.tryAcquire()) {
+            return true;
+        }
+        requestFlush();
+        try {
+            return freeSlots.tryAcquire(offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Queues at most one flush on the flusher thread; a request made while a flush runs queues the next one.
+     */
+    private void requestFlush() {
+        if (!flushQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            flusher.execute(() -> {
+                flushQueued.set(false);
+                flush();
+            });
+        } catch (RejectedExecutionException ex) {
+            flushQueued.set(false);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.bookstore.service.impl;
+
+import com.bookstore.controller.filters.BookFilter;
+import com.bookstore.dto.author.AuthorDto;
+import com.bookstore.dto.book.BookDto;
+import com.bookstore.dto.publisher.PublisherDto;
+import com.bookstore.dto.rating.BookRatingDto;
+import com.bookstore.exception.ResourceNotFoundException;
+import com.bookstore.repository.ReactiveCatalogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only catalog queries that never block the calling thread: results are produced by the R2DBC pool's event
+ * loop, so a request waiting for the database holds no servlet thread.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveCatalogService {
+    private final ReactiveCatalogRepository catalogRepo;
+
+    public Mono<Page<BookDto>> findBooks(BookFilter bookFilter, Pageable pageable) {
+        return catalogRepo.findBooks(bookFilter, pageable);
+    }
+
+    public Mono<BookDto> findBook(String isbn) {
+        return catalogRepo.findBook(isbn).switchIfEmpty(Mono.error(() -> {
+            log.warn("Book not found by isbn: [{}]", isbn);
+            return new ResourceNotFoundException(String.format("Book not found by isbn: %s", isbn));
+        }));
+    }
+
+    public Mono<Page<BookRatingDto>> findBookRatings(String isbn, Pageable pageable) {
+        return catalogRepo.findBookRatings(isbn, pageable);
+    }
+
+    public Mono<Page<AuthorDto>> findAuthors(Pageable pageable) {
+        return catalogRepo.findAuthors(pageable);
+    }
+
+    public Mono<AuthorDto> findAuthor(Long authorId) {
+        return catalogRepo.findAuthor(authorId).switchIfEmpty(Mono.error(() -> {
+            log.warn("Author not found by id: [{}]", authorId);
+            return new ResourceNotFoundException("Author not found by id: " + authorId);
+        }));
+    }
+
+    public Mono<Page<PublisherDto>> findPublishers(Pageable pageable) {
+        return catalogRepo.findPublishers(pageable);
+    }
+
+    public Mono<PublisherDto> findPublisher(Long publisherId) {
+        return catalogRepo.findPublisher(publisherId).switchIfEmpty(Mono.error(() -> {
+            log.warn("Publisher not found by id: [{}]", publisherId);
+            return new ResourceNotFoundException("Publisher not found by id: " + publisherId);
+        }));
+    }
+}
@@ -0,0 +1,145 @@
+package com.bookstore.service.impl;
+
+import com.bookstore.dto.suggest.SuggestionDto;
+import com.bookstore.event.*;
+import com.bookstore.search.TypeaheadIndex;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.bookstore.dto.suggest.SuggestionType.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SuggestService {
+    private static final String BOOKS_SQL = "SELECT b.isbn, b.title, b.ratings_count + b.implicit_count FROM books b";
+    private static final String AUTHORS_SQL = "SELECT a.id, a.name, COUNT(b.id) FROM authors a " +
+            "LEFT JOIN books b ON b.author_id = a.id GROUP BY a.id, a.name";
+    private static final String PUBLISHERS_SQL = "SELECT p.id, p.name, COUNT(b.id) FROM publishers p " +
+            "LEFT JOIN books b ON b.publisher_id = p.id GROUP BY p.id, p.name";
+
+    @Value("${suggest.max-prefix-length}")
+    private int maxPrefixLength;
+
+    @Value("${suggest.max-limit}")
+    private int maxLimit;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Object mutationLock = new Object();
+    private final Object rebuildLock = new Object();
+    private volatile TypeaheadIndex index;
+    private List<Consumer<TypeaheadIndex>> pendingChanges;
+
+    @PostConstruct
+    void init() {
+        index = new TypeaheadIndex(maxPrefixLength);
+    }
+
+    public List<SuggestionDto> suggest(String query, int limit) {
+        return index.search(query, Math.min(Math.max(limit, 1), maxLimit));
+    }
+
+    public void rebuildIndex() {
+        synchronized (rebuildLock) {
+            synchronized (mutationLock) {
+                pendingChanges = new ArrayList<>();
+            }
+
+            long start = System.currentTimeMillis();
+            var freshIndex = new TypeaheadIndex(maxPrefixLength);
+            try {
+                jdbcTemplate.query(BOOKS_SQL, rs -> {
+                    freshIndex.put(BOOK, rs.getString(1), rs.getString(2), rs.getInt(3));
+                });
+                jdbcTemplate.query(AUTHORS_SQL, rs -> {
+                    freshIndex.put(AUTHOR, rs.getString(1), rs.getString(2), rs.getInt(3));
+                });
+                jdbcTemplate.query(PUBLISHERS_SQL, rs -> {
+                    freshIndex.put(PUBLISHER, rs.getString(1), rs.getString(2), rs.getInt(3));
+                });
+                freshIndex.compact();
+            } catch (RuntimeException ex) {
+                synchronized (mutationLock) {
+                    pendingChanges = null;
+                }
+                throw ex;
+            }
+
+            synchronized (mutationLock) {
+                // Changes committed while the snapshot was loading may be missing from it
+                pendingChanges.forEach(change -> change.accept(freshIndex));
+                pendingChanges = null;
+                index = freshIndex;
+            }
+            log.info("Suggestion index rebuilt: {} entries in {} ms",
+                    freshIndex.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildIndex();
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        rebuildIndex();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookSaved(BookSavedEvent event) {
+        var book = event.book();
+        apply(idx -> idx.put(BOOK, book.getIsbn(), book.getTitle()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookDeleted(BookDeletedEvent event) {
+        apply(idx -> idx.remove(BOOK, event.isbn()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorSaved(AuthorSavedEvent event) {
+        var author = event.author();
+        apply(idx -> idx.put(AUTHOR, String.valueOf(author.getId()), author.getName()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorDeleted(AuthorDeletedEvent event) {
+        apply(idx -> idx.remove(AUTHOR, String.valueOf(event.authorId())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPublisherSaved(PublisherSavedEvent event) {
+        var publisher = event.publisher();
+        apply(idx -> idx.put(PUBLISHER, String.valueOf(publisher.getId()), publisher.getName()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPublisherDeleted(PublisherDeletedEvent event) {
+        apply(idx -> idx.remove(PUBLISHER, String.valueOf(event.publisherId())));
+    }
+
+    private void apply(Consumer<TypeaheadIndex> change) {
+        synchronized (mutationLock) {
+            change.accept(index);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.bookstore.service.impl;
+
+import com.bookstore.dto.book.BookShortDto;
+import com.bookstore.dto.book.ScoredBookDto;
+import com.bookstore.event.RatingsImportedEvent;
+import com.bookstore.exception.ResourceNotFoundException;
+import com.bookstore.recommend.AlsTrainer;
+import com.bookstore.recommend.MatrixFactorizationModel;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.RatingMatrixRepository;
+import com.bookstore.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Serves personalized recommendations from a {@link MatrixFactorizationModel} trained with implicit-feedback ALS.
+ * <p>
+ * Explicit ratings and implicit (score 0) interactions are both used; an implicit interaction counts as a rating
+ * of {@code recommend.als.implicit-score}, i.e. a positive preference with lower confidence than most explicit votes.
+ * Training runs off the request path (on startup, on a fixed delay and after rating imports) and the trained
+ * model is published with a single volatile write. Users without any interaction in the current model get an
+ * empty list.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserRecommendationService {
+    private static final long SEED = 42L;
+
+    @Value("${recommend.als.rank}")
+    private int rank;
+
+    @Value("${recommend.als.iterations}")
+    private int iterations;
+
+    @Value("${recommend.als.lambda}")
+    private float lambda;
+
+    @Value("${recommend.als.alpha}")
+    private float alpha;
+
+    @Value("${recommend.als.implicit-score}")
+    private float implicitScore;
+
+    @Value("${recommend.parallelism}")
+    private int parallelism;
+
+    @Value("${recommend.max-limit}")
+    private int maxLimit;
+
+    private final RatingMatrixRepository matrixRepo;
+    private final BookRepository bookRepo;
+    private final UserRepository userRepo;
+    private final AtomicBoolean training = new AtomicBoolean();
+    private volatile MatrixFactorizationModel model = MatrixFactorizationModel.empty();
+
+    public List<ScoredBookDto> recommend(Long userId, int limit) {
+        var current = model;
+        if (!current.contains(userId)) {
+            if (!userRepo.existsById(userId)) {
+                log.warn("User not found by id: [{}]", userId);
+                throw new ResourceNotFoundException(String.format("User not found by id: %d", userId));
+            }
+            return List.of();
+        }
+
+        var recommendations = current.recommend(userId, Math.min(Math.max(limit, 1), maxLimit));
+        if (recommendations.isEmpty()) {
+            return List.of();
+        }
+        Map<String, String> titles = bookRepo.findShortByIsbnIn(
+                        recommendations.stream().map(MatrixFactorizationModel.Recommendation::itemId).toList())
+                .stream()
+                .collect(Collectors.toMap(BookShortDto::getIsbn, BookShortDto::getTitle, (a, b) -> a));
+        return recommendations.stream()
+                .filter(recommendation -> titles.containsKey(recommendation.itemId()))
+                .map(recommendation -> new ScoredBookDto(recommendation.itemId(), titles.get(recommendation.itemId()),
+                        Math.round(recommendation.score() * 1000) / 1000.0))
+                .toList();
+    }
+
+    /**
+     * Trains a new model from the current ratings and swaps it in. Concurrent calls are skipped rather than queued.
+     */
+    public void retrain() {
+        if (!training.compareAndSet(false, true)) {
+            log.debug("Recommendation model training already running, skipping");
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            var matrix = matrixRepo.loadInteractions(implicitScore);
+            long loaded = System.currentTimeMillis();
+            var fresh = new AlsTrainer(rank, iterations, lambda, alpha, parallelism, SEED).train(matrix);
+            model = fresh;
+            log.info("Recommendation model trained on {} interactions: {} users, {} books, rank {}, {} KB of factors " +
+                            "(load {} ms, train {} ms)",
+                    matrix.size(), fresh.userCount(), fresh.itemCount(), fresh.rank(), fresh.factorBytes() / 1024,
+                    loaded - start, System.currentTimeMillis() - loaded);
+        } finally {
+            training.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${recommend.als.retrain-interval}",
+            initialDelayString = "${recommend.als.retrain-interval}")
+    public void scheduledRetrain() {
+        retrain();
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        retrain();
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingsImported(RatingsImportedEvent event) {
+        retrain();
+    }
+}
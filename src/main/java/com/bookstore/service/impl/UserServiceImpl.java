@@ -1,24 +1,26 @@
 package com.bookstore.service.impl;
 
 import com.bookstore.controller.filters.UserFilter;
+import com.bookstore.dto.Versioned;
+import com.bookstore.dto.rating.UserRatingDto;
 import com.bookstore.dto.user.UserDto;
 import com.bookstore.dto.user.UserRequestDto;
 import com.bookstore.entity.Address;
 import com.bookstore.entity.User;
+import com.bookstore.exception.ConflictException;
+import com.bookstore.exception.PreconditionFailedException;
 import com.bookstore.exception.ResourceNotFoundException;
 import com.bookstore.mapping.UserMapper;
+import com.bookstore.repository.ConditionalUpdateRepository;
+import com.bookstore.repository.RatingRepository;
 import com.bookstore.repository.UserRepository;
 import com.bookstore.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Objects;
-import java.util.Optional;
-
 @Slf4j
 @RequiredArgsConstructor
 @Transactional
@@ -26,18 +28,33 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
     private static final UserMapper MAPPER = UserMapper.INSTANCE;
     private final UserRepository userRepo;
+    private final RatingRepository ratingRepo;
+    private final BookRatingStatsService ratingStatsService;
+    private final ConditionalUpdateRepository updateRepo;
+    private final KeysetPager keysetPager;
 
+    @Transactional(readOnly = true)
     @Override
     public Page<UserDto> findAll(UserFilter userFilter, Pageable pageable) {
-        return userRepo
-                .findAll(userFilter.toSpec(), pageable)
-                .map(MAPPER::mapToDto);
+        return userRepo.findAllAsDto(userFilter.toSpec(), pageable);
     }
 
     @Override
-    public UserDto findById(Long id) {
+    public Versioned<UserDto> findById(Long id) {
         var user = findUserEntity(id);
-        return MAPPER.mapToDto(user);
+        return new Versioned<>(MAPPER.mapToDto(user), user.getVersion());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Page<UserRatingDto> findRatingsByUserId(Long userId, Pageable pageable) {
+        return ratingRepo.findUserRatings(userId, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<UserRatingDto> findRatingsByUserIdAfter(Long userId, String afterIsbn, int size) {
+        return keysetPager.fetch(size, limit -> ratingRepo.findUserRatingsAfter(userId, afterIsbn, limit));
     }
 
     @Override
@@ -52,33 +69,34 @@ public class UserServiceImpl implements UserService {
         return MAPPER.mapToDto(savedUser);
     }
 
+    /**
+     * Updates age and address with one conditional statement; address fields left null keep their value.
+     * {@code expectedVersion} is the version the client read, {@code null} updates any version.
+     */
     @Override
-    public UserDto update(Long userId, UserRequestDto userRequestDto) {
-        var currentUser = findUserEntity(userId);
-
-        if (!Objects.equals(currentUser.getAge(), userRequestDto.getAge())) {
-            currentUser.setAge(userRequestDto.getAge());
-        }
-
-        Optional.ofNullable(userRequestDto.getCity()).ifPresent(city -> {
-            currentUser.getAddress().setCity(city);
-        });
-
-        Optional.ofNullable(userRequestDto.getCountry()).ifPresent(country -> {
-            currentUser.getAddress().setCountry(country);
+    public Versioned<UserDto> update(Long userId, UserRequestDto userRequestDto, Long expectedVersion) {
+        return updateRepo.updateUser(userId, userRequestDto, expectedVersion).orElseThrow(() -> {
+            if (!userRepo.existsById(userId)) {
+                log.warn("User not found by id: [{}]", userId);
+                return new ResourceNotFoundException("User not found by id: " + userId);
+            }
+            if (expectedVersion != null) {
+                return new PreconditionFailedException(
+                        String.format("User [%d] was modified since version %d", userId, expectedVersion));
+            }
+            return new ConflictException(String.format("User [%d] was changed concurrently, retry", userId));
         });
-
-        Optional.ofNullable(userRequestDto.getRegion()).ifPresent(region -> {
-            currentUser.getAddress().setRegion(region);
-        });
-
-        return MAPPER.mapToDto(userRepo.save(currentUser));
     }
 
     @Override
     public void delete(Long userId) {
-        var user = findUserEntity(userId);
-        userRepo.delete(user);
+        if (userRepo.lockById(userId).isEmpty()) {
+            log.warn("User not found by id: [{}]", userId);
+            throw new ResourceNotFoundException("User not found by id: " + userId);
+        }
+        ratingStatsService.subtractUserRatings(userId);
+        userRepo.deleteAddressInBulk(userId);
+        userRepo.deleteByIdInBulk(userId);
     }
 
     private User findUserEntity(Long userId) {
@@ -0,0 +1,6 @@
+-- Optimistic locking: every update through the API increments the version and PUTs may require the version the
+-- client read (If-Match). Constant defaults are stored in the catalog, so no table is rewritten.
+ALTER TABLE books ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE authors ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE publishers ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
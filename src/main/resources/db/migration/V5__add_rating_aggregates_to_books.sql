@@ -0,0 +1,19 @@
+
+ALTER TABLE books
+    ADD COLUMN ratings_count   INT              NOT NULL DEFAULT 0,
+    ADD COLUMN ratings_sum     BIGINT           NOT NULL DEFAULT 0,
+    ADD COLUMN weighted_rating DOUBLE PRECISION NOT NULL DEFAULT 0;
+
+UPDATE books b
+SET ratings_count = agg.ratings_count,
+    ratings_sum   = agg.ratings_sum
+FROM (SELECT r.book_isbn, COUNT(*) AS ratings_count, SUM(r.score) AS ratings_sum
+      FROM ratings r
+      GROUP BY r.book_isbn) agg
+WHERE b.isbn = agg.book_isbn;
+
+-- weighted_rating is filled in by the application once it knows the configured prior
+CREATE INDEX idx_books_weighted_rating ON books (weighted_rating DESC, ratings_count DESC, isbn);
+CREATE INDEX idx_books_author_weighted_rating ON books (author_id, weighted_rating DESC, ratings_count DESC, isbn);
+CREATE INDEX idx_books_publisher_weighted_rating ON books (publisher_id, weighted_rating DESC, ratings_count DESC, isbn);
+CREATE INDEX idx_books_year_weighted_rating ON books (year, weighted_rating DESC, ratings_count DESC, isbn);
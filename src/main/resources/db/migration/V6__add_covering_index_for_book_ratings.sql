@@ -0,0 +1,2 @@
+-- Covers both the per-book rating listing (ordered by user) and the per-book average
+CREATE INDEX idx_ratings_book_isbn_user_id_score ON ratings (book_isbn, user_id, score);
@@ -0,0 +1,39 @@
+-- Score-0 interactions ("user touched the book without rating it") are kept out of ratings:
+-- one row per user holding the sorted ids of the books the user interacted with.
+-- Arrays above ~2 kB are TOAST-compressed.
+CREATE TABLE implicit_interactions
+(
+    user_id  BIGINT PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE,
+    book_ids BIGINT[] NOT NULL
+);
+
+ALTER TABLE books ADD COLUMN implicit_count INT NOT NULL DEFAULT 0;
+
+INSERT INTO implicit_interactions (user_id, book_ids)
+SELECT r.user_id, array_agg(DISTINCT b.id ORDER BY b.id)
+FROM ratings r
+         JOIN books b ON b.isbn = r.book_isbn
+WHERE r.score = 0
+GROUP BY r.user_id;
+
+DELETE FROM ratings WHERE score = 0;
+
+ALTER TABLE ratings DROP CONSTRAINT ratings_score_check;
+ALTER TABLE ratings ADD CONSTRAINT ratings_score_check CHECK (score BETWEEN 1 AND 10);
+
+UPDATE books b
+SET ratings_count = COALESCE(agg.ratings_count, 0),
+    ratings_sum   = COALESCE(agg.ratings_sum, 0)
+FROM books bk
+         LEFT JOIN (SELECT r.book_isbn, COUNT(*) AS ratings_count, SUM(r.score) AS ratings_sum
+                    FROM ratings r
+                    GROUP BY r.book_isbn) agg ON agg.book_isbn = bk.isbn
+WHERE b.id = bk.id
+  AND (b.ratings_count, b.ratings_sum) IS DISTINCT FROM (COALESCE(agg.ratings_count, 0), COALESCE(agg.ratings_sum, 0));
+
+UPDATE books b
+SET implicit_count = agg.implicit_count
+FROM (SELECT book_id, COUNT(*) AS implicit_count
+      FROM implicit_interactions i, unnest(i.book_ids) AS book_id
+      GROUP BY book_id) agg
+WHERE b.id = agg.book_id;
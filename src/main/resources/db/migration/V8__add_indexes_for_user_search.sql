@@ -0,0 +1,2 @@
+CREATE INDEX idx_address_country_region_city ON address (country, region, city);
+CREATE INDEX idx_users_age ON users (age);
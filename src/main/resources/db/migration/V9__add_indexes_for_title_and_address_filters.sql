@@ -0,0 +1,10 @@
+-- V2 named this index after the author, but it has always covered (title, year); it serves title-sorted lists
+ALTER INDEX idx_books_author_year RENAME TO idx_books_title_year;
+
+-- book title filters are substring matches (LIKE '%...%'), which only a trigram index can serve
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_books_title_trgm ON books USING gin (title gin_trgm_ops);
+
+-- region and city filters without a country cannot use idx_address_country_region_city
+CREATE INDEX idx_address_region_city ON address (region, city);
+CREATE INDEX idx_address_city ON address (city);
@@ -0,0 +1,77 @@
+package com.bookstore.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AdaptiveConcurrencyLimitTests {
+
+    @Test
+    void shouldRejectOverLimit_untilARequestIsReleased() {
+        var limit = new AdaptiveConcurrencyLimit(2, 1, 10, 1000, 0.5);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+
+        limit.release(System.nanoTime(), false);
+
+        assertThat(limit.getInFlight()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void shouldGrowByAboutOnePerLimitOfFastResponses_whileLimitIsUsed() {
+        var limit = new AdaptiveConcurrencyLimit(4, 1, 5, 1000, 0.5);
+
+        for (int i = 0; i < 4; i++) {
+            limit.tryAcquire();
+        }
+        for (int i = 0; i < 4; i++) {
+            limit.release(System.nanoTime(), false);
+        }
+        assertThat(limit.getLimit()).as("last two released with half the limit or less in flight").isEqualTo(4);
+
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < limit.getLimit(); i++) {
+                limit.tryAcquire();
+            }
+            while (limit.getInFlight() > 0) {
+                limit.release(System.nanoTime(), false);
+            }
+        }
+        assertThat(limit.getLimit()).as("capped at the maximum").isEqualTo(5);
+    }
+
+    @Test
+    void shouldBackOffOncePerCongestedPeriod_onSlowOrOverloadedResponses() throws InterruptedException {
+        var limit = new AdaptiveConcurrencyLimit(16, 3, 100, 10, 0.5);
+
+        long admitted = System.nanoTime();
+        for (int i = 0; i < 8; i++) {
+            limit.tryAcquire();
+        }
+        Thread.sleep(20);
+        for (int i = 0; i < 8; i++) {
+            limit.release(admitted, false);
+        }
+        assertThat(limit.getLimit()).as("admitted together, backs off once").isEqualTo(8);
+
+        limit.tryAcquire();
+        limit.release(System.nanoTime(), true);
+        assertThat(limit.getLimit()).isEqualTo(4);
+
+        limit.tryAcquire();
+        limit.release(System.nanoTime(), true);
+        assertThat(limit.getLimit()).as("floored at the minimum").isEqualTo(3);
+    }
+
+    @Test
+    void shouldRejectInconsistentBounds() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(20, 4, 10, 1000, 0.9))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(1, 0, 10, 1000, 0.9))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,142 @@
+package com.bookstore.config;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CachingJwtDecoderTests {
+    private static final String ISSUER = "https://issuer.test/";
+    private static final String AUDIENCE = "https://api.test/";
+
+    private HttpServer jwksServer;
+    private final AtomicInteger jwksRequests = new AtomicInteger();
+    private volatile JWKSet published;
+    private RSAKey signingKey;
+    private SimpleMeterRegistry meterRegistry;
+    private JwkSetCache jwkSet;
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() throws IOException, JOSEException {
+        signingKey = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        published = new JWKSet(signingKey.toPublicJWK());
+        jwksServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        jwksServer.createContext("/.well-known/jwks.json", exchange -> {
+            jwksRequests.incrementAndGet();
+            var body = published.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        jwksServer.start();
+
+        var jwksUri = "http://localhost:" + jwksServer.getAddress().getPort() + "/.well-known/jwks.json";
+        jwkSet = new JwkSetCache(new RestTemplate(), jwksUri, 0);
+        jwkSet.refresh();
+        meterRegistry = new SimpleMeterRegistry();
+        decoder = new CachingJwtDecoder(jwkSet, meterRegistry, ISSUER, List.of(AUDIENCE), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jwksServer.stop(0);
+    }
+
+    @Test
+    void shouldVerifyTokenOnce_andServeRepeatsFromCache() throws JOSEException {
+        var token = token(signingKey, AUDIENCE, Instant.now().plusSeconds(3600));
+
+        var first = decoder.decode(token);
+        var second = decoder.decode(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getSubject()).isEqualTo("client@clients");
+        assertThat(verifications()).isEqualTo(1);
+        assertThat(cacheGets("hit")).isEqualTo(1);
+        assertThat(cacheGets("miss")).isEqualTo(1);
+        assertThat(jwksRequests).as("keys fetched ahead of the first token").hasValue(1);
+    }
+
+    @Test
+    void shouldVerifyAgain_onceCachedTokenExpired() throws Exception {
+        var token = token(signingKey, AUDIENCE, Instant.now().plusSeconds(1));
+
+        decoder.decode(token);
+        decoder.decode(token);
+        Thread.sleep(1100);
+        decoder.decode(token);
+
+        assertThat(verifications()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectForgedAndMisaddressedTokens_withoutCachingThem() throws JOSEException {
+        var forger = new RSAKeyGenerator(2048).keyID("key-1").generate();
+        var forged = token(forger, AUDIENCE, Instant.now().plusSeconds(3600));
+        var misaddressed = token(signingKey, "https://other.test/", Instant.now().plusSeconds(3600));
+
+        assertThatThrownBy(() -> decoder.decode(forged)).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode(forged)).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode(misaddressed)).isInstanceOf(JwtValidationException.class);
+
+        assertThat(verifications()).isEqualTo(3);
+        assertThat(cacheGets("hit")).isZero();
+    }
+
+    @Test
+    void shouldFetchKeysAgain_whenIssuerRotatedThem() throws JOSEException {
+        var rotated = new RSAKeyGenerator(2048).keyID("key-2").generate();
+        published = new JWKSet(List.of(signingKey.toPublicJWK(), rotated.toPublicJWK()));
+
+        assertThat(decoder.decode(token(rotated, AUDIENCE, Instant.now().plusSeconds(3600))).getAudience())
+                .containsExactly(AUDIENCE);
+        assertThat(jwksRequests).hasValue(2);
+    }
+
+    private double verifications() {
+        return meterRegistry.get("jwt.verification").timer().count();
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "jwt").tag("result", result).functionCounter().count();
+    }
+
+    private static String token(RSAKey key, String audience, Instant expiresAt) throws JOSEException {
+        var claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject("client@clients")
+                .audience(audience)
+                .issueTime(new Date())
+                .expirationTime(Date.from(expiresAt))
+                .build();
+        var jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
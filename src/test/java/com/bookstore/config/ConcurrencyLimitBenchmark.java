@@ -0,0 +1,116 @@
+package com.bookstore.config;
+
+import com.bookstore.support.PostgresRepositoryTest;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Requests arriving at twice the rate the pool can serve them for {@code SECONDS} seconds, each holding a
+ * connection for a {@code QUERY_SECONDS} query, on Tomcat's default 200 workers. Without a limit every request
+ * waits its turn for a connection; with an {@link AdaptiveConcurrencyLimit} the ones over the limit are turned away
+ * at once. Goodput counts the requests answered successfully within the client's {@code DEADLINE_MILLIS}, overall
+ * and per second of arrival.
+ * <p>
+ * Not part of the regular build; run with {@code mvn test -Dtest=ConcurrencyLimitBenchmark -Dbenchmark=true}.
+ */
+@PostgresRepositoryTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ConcurrencyLimitBenchmark {
+    private static final int SECONDS = 10;
+    private static final double QUERY_SECONDS = 0.02;
+    private static final double OVERLOAD = 2.0;
+    private static final int PLATFORM_WORKERS = 200;
+    private static final long DEADLINE_MILLIS = 1000;
+    private static final long LATENCY_THRESHOLD_MILLIS = 250;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void benchmark() throws Exception {
+        int poolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        int rate = (int) (poolSize / QUERY_SECONDS * OVERLOAD);
+
+        System.out.printf("%-10s %10s %10s %8s %10s %8s %12s %8s  %s%n", "mode", "offered/s", "goodput/s", "late",
+                "rejected", "failed", "good p99 ms", "limit", "goodput by second");
+        run("unlimited", rate, null);
+        run("adaptive", rate, new AdaptiveConcurrencyLimit(poolSize, 1, PLATFORM_WORKERS, LATENCY_THRESHOLD_MILLIS, 0.9));
+    }
+
+    private void run(String mode, int rate, AdaptiveConcurrencyLimit limit) throws Exception {
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+        int requests = rate * SECONDS;
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        var latencies = new long[requests];
+        var rejected = new AtomicInteger();
+        var failed = new AtomicInteger();
+        var done = new CountDownLatch(requests);
+        ExecutorService workers = Executors.newFixedThreadPool(PLATFORM_WORKERS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int request = i;
+            long arrival = start + i * interval;
+            LockSupport.parkNanos(arrival - System.nanoTime());
+            workers.execute(() -> {
+                try {
+                    if (limit != null && !limit.tryAcquire()) {
+                        latencies[request] = -1;
+                        rejected.incrementAndGet();
+                        return;
+                    }
+                    long admitted = System.nanoTime();
+                    boolean overloaded = false;
+                    try {
+                        jdbcTemplate.execute("SELECT pg_sleep(" + QUERY_SECONDS + ")");
+                        latencies[request] = System.nanoTime() - arrival;
+                    } catch (DataAccessException ex) {
+                        overloaded = true;
+                        latencies[request] = -1;
+                        failed.incrementAndGet();
+                    } finally {
+                        if (limit != null) {
+                            limit.release(admitted, overloaded);
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        workers.shutdown();
+
+        long deadline = TimeUnit.MILLISECONDS.toNanos(DEADLINE_MILLIS);
+        var good = Arrays.stream(latencies).filter(latency -> latency >= 0 && latency <= deadline).sorted().toArray();
+        long late = Arrays.stream(latencies).filter(latency -> latency > deadline).count();
+        var bySecond = IntStream.range(0, SECONDS)
+                .mapToObj(second -> String.valueOf(IntStream.range(second * rate, (second + 1) * rate)
+                        .filter(i -> latencies[i] >= 0 && latencies[i] <= deadline)
+                        .count()))
+                .collect(Collectors.joining(" "));
+        double p99 = good.length == 0 ? Double.NaN : good[(int) Math.ceil(good.length * 0.99) - 1] / 1e6;
+
+        System.out.printf("%-10s %10d %10.0f %8d %10d %8d %12.1f %8s  %s%n", mode, rate, (double) good.length / SECONDS,
+                late, rejected.get(), failed.get(), p99, limit == null ? "-" : String.valueOf(limit.getLimit()),
+                bySecond);
+    }
+}
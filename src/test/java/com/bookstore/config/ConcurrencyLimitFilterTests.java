@@ -0,0 +1,101 @@
+package com.bookstore.config;
+
+import com.bookstore.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ConcurrencyLimitFilterTests {
+    private final List<Exception> resolved = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimit reads;
+    private AdaptiveConcurrencyLimit writes;
+    private AdaptiveConcurrencyLimit uploads;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reads = new AdaptiveConcurrencyLimit(2, 1, 10, 1000, 0.5);
+        writes = new AdaptiveConcurrencyLimit(2, 1, 10, 1000, 0.5);
+        uploads = new AdaptiveConcurrencyLimit(1, 1, 1, 1000, 0.5);
+        filter = new ConcurrencyLimitFilter(reads, writes, uploads, (request, response, handler, ex) -> {
+            resolved.add(ex);
+            response.setStatus(503);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return new ModelAndView();
+        }, meterRegistry);
+    }
+
+    @Test
+    void shouldRejectRequestsOverGroupLimit_withoutReachingHandler() throws Exception {
+        reads.tryAcquire();
+        reads.tryAcquire();
+
+        var rejected = perform("GET", "/v1/books", 200);
+        var write = perform("POST", "/v1/books", 201);
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(resolved).singleElement().isInstanceOf(ServiceOverloadedException.class);
+        assertThat(write.getStatus()).as("writes have their own limit").isEqualTo(201);
+        assertThat(meterRegistry.get("http.server.concurrency.rejected").tag("group", "reads").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("http.server.concurrency.rejected").tag("group", "writes").counter().count())
+                .isZero();
+    }
+
+    @Test
+    void shouldLimitUploadsSeparately_andLeaveReactiveReadsAlone() throws Exception {
+        uploads.tryAcquire();
+        reads.tryAcquire();
+        reads.tryAcquire();
+
+        assertThat(perform("POST", "/csv/upload/books", 200).getStatus()).isEqualTo(503);
+        assertThat(perform("GET", "/v1/reactive/books", 200).getStatus()).isEqualTo(200);
+        assertThat(perform("GET", "/actuator/health", 200).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldBackOff_whenHandlerReportsOverload_andExportLimit() throws Exception {
+        perform("PUT", "/v1/books/1", 503);
+
+        assertThat(writes.getLimit()).isEqualTo(1);
+        assertThat(writes.getInFlight()).isZero();
+        assertThat(meterRegistry.get("http.server.concurrency.limit").tag("group", "writes").gauge().value())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("http.server.concurrency.in-flight").tag("group", "reads").gauge().value())
+                .isZero();
+    }
+
+    @Test
+    void shouldBackOff_whenExceptionEscapesChain() {
+        var request = new MockHttpServletRequest("POST", "/api/v1/books");
+        request.setContextPath("/api");
+
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            throw new IllegalStateException("handler failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(writes.getLimit()).isEqualTo(1);
+        assertThat(writes.getInFlight()).isZero();
+    }
+
+    private MockHttpServletResponse perform(String method, String path, int handlerStatus) throws Exception {
+        var request = new MockHttpServletRequest(method, "/api" + path);
+        request.setContextPath("/api");
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> ((MockHttpServletResponse) res).setStatus(handlerStatus));
+        return response;
+    }
+}
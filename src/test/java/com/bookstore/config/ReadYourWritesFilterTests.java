@@ -0,0 +1,46 @@
+package com.bookstore.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.security.Principal;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadYourWritesFilterTests {
+
+    @Test
+    void shouldPinWrite_andLaterRequestsOfSameClient() throws Exception {
+        var filter = new ReadYourWritesFilter(60_000);
+
+        assertThat(pinnedDuring(filter, "GET", "alice")).isFalse();
+        assertThat(pinnedDuring(filter, "PUT", "alice")).isTrue();
+        assertThat(pinnedDuring(filter, "GET", "alice")).isTrue();
+        assertThat(pinnedDuring(filter, "GET", "bob")).isFalse();
+        assertThat(pinnedDuring(filter, "GET", null)).isFalse();
+        assertThat(ReplicaRoutingDataSource.isPinnedToPrimary()).isFalse();
+    }
+
+    @Test
+    void shouldReadFromReplicasAgain_afterWindow() throws Exception {
+        var filter = new ReadYourWritesFilter(50);
+
+        pinnedDuring(filter, "DELETE", "alice");
+        Thread.sleep(100);
+
+        assertThat(pinnedDuring(filter, "GET", "alice")).isFalse();
+    }
+
+    private static boolean pinnedDuring(ReadYourWritesFilter filter, String method, String user) throws Exception {
+        var request = new MockHttpServletRequest(method, "/v1/books");
+        if (user != null) {
+            request.setUserPrincipal((Principal) () -> user);
+        }
+        var pinned = new AtomicBoolean();
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> pinned.set(ReplicaRoutingDataSource.isPinnedToPrimary()));
+        return pinned.get();
+    }
+}
@@ -0,0 +1,107 @@
+package com.bookstore.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class ReplicaRoutingDataSourceTests {
+    private Connection primaryConnection;
+    private Connection firstReplicaConnection;
+    private Connection secondReplicaConnection;
+    private DataSource firstReplica;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primaryConnection = mock(Connection.class);
+        firstReplicaConnection = mock(Connection.class);
+        secondReplicaConnection = mock(Connection.class);
+        var primary = mock(DataSource.class);
+        firstReplica = mock(DataSource.class);
+        var secondReplica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(firstReplica.getConnection()).thenReturn(firstReplicaConnection);
+        when(secondReplica.getConnection()).thenReturn(secondReplicaConnection);
+        dataSource = new ReplicaRoutingDataSource(primary, List.of(firstReplica, secondReplica), 1000);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        ReplicaRoutingDataSource.setPinnedToPrimary(false);
+    }
+
+    @Test
+    void shouldSpreadReadOnlyConnectionsOverReplicas_andKeepOthersOnPrimary() throws SQLException {
+        dataSource.recordLag(0, 0);
+        dataSource.recordLag(1, 1000);
+
+        assertThat(List.of(connection(true), connection(true)))
+                .containsExactlyInAnyOrder(firstReplicaConnection, secondReplicaConnection);
+        assertThat(connection(false)).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void shouldReadFromPrimary_whenNoReplicaWithinMaxLag() throws SQLException {
+        assertThat(connection(true)).as("lag not checked yet").isSameAs(primaryConnection);
+
+        dataSource.recordLag(0, 1001);
+        dataSource.recordLag(1, 5000);
+        assertThat(connection(true)).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void shouldReadFromPrimary_whilePinned() throws SQLException {
+        dataSource.recordLag(0, 0);
+        dataSource.recordLag(1, 0);
+
+        ReplicaRoutingDataSource.setPinnedToPrimary(true);
+        assertThat(connection(true)).isSameAs(primaryConnection);
+
+        ReplicaRoutingDataSource.setPinnedToPrimary(false);
+        assertThat(connection(true)).isNotSameAs(primaryConnection);
+    }
+
+    @Test
+    void shouldSkipFailingReplica_untilItIsInRangeAgain() throws SQLException {
+        dataSource.recordLag(0, 0);
+        dataSource.recordLag(1, 0);
+        when(firstReplica.getConnection()).thenThrow(new SQLTransientConnectionException("replica down"));
+
+        assertThat(List.of(connection(true), connection(true), connection(true)))
+                .containsOnly(secondReplicaConnection);
+        verify(firstReplica).getConnection();
+
+        dataSource.recordLag(0, 0);
+        dataSource.recordLag(1, 5000);
+        assertThat(connection(true)).isSameAs(primaryConnection);
+        verify(firstReplica, times(2)).getConnection();
+    }
+
+    @Test
+    void shouldReportReplicaLag_asUnknownUntilMeasured() {
+        var meterRegistry = new SimpleMeterRegistry();
+        dataSource.bindMetrics(meterRegistry);
+        dataSource.recordLag(1, 250);
+
+        assertThat(meterRegistry.get("db.replica.lag").tag("replica", "0").gauge().value()).isNaN();
+        assertThat(meterRegistry.get("db.replica.lag").tag("replica", "1").gauge().value()).isEqualTo(250);
+    }
+
+    private Connection connection(boolean readOnly) throws SQLException {
+        try (var connection = dataSource.getConnection()) {
+            connection.setReadOnly(readOnly);
+            return ((ConnectionProxy) connection).getTargetConnection();
+        }
+    }
+}
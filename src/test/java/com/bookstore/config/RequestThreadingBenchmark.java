@@ -0,0 +1,125 @@
+package com.bookstore.config;
+
+import com.bookstore.support.PostgresRepositoryTest;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * A burst of {@code REQUESTS} requests arriving at once, every {@code SLOW_EVERY}th one running a slow query and
+ * the rest served without the database (cached rankings, suggestions). Compares Tomcat's default 200 platform
+ * workers with a virtual thread per request, without and with a {@link ConnectionAdmissionDataSource} in front of
+ * the pool, by throughput and p99 latency of both kinds of request.
+ * <p>
+ * The virtual thread modes need a Java 21 runtime. On older ones they run with a new platform thread per request
+ * instead, labelled {@code thread-per-request}: that keeps what matters for the pool, no worker cap in front of it,
+ * but not the cheap blocking of virtual threads.
+ * Not part of the regular build; run with {@code mvn test -Dtest=RequestThreadingBenchmark -Dbenchmark=true}.
+ */
+@PostgresRepositoryTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RequestThreadingBenchmark {
+    private static final int REQUESTS = 2_000;
+    private static final int SLOW_EVERY = 4;
+    private static final double SLOW_QUERY_SECONDS = 0.02;
+    private static final int PLATFORM_WORKERS = 200;
+    private static final int WAITING_PER_CONNECTION = 4;
+    private static final long ADMISSION_WAIT_MILLIS = 1000;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void benchmark() throws Exception {
+        int poolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+
+        System.out.printf("%-28s %10s %10s %12s %12s %10s%n", "mode", "total ms", "served/s", "fast p99 ms",
+                "slow p99 ms", "rejected");
+        ExecutorService platform = Executors.newFixedThreadPool(PLATFORM_WORKERS);
+        try {
+            run("platform", platform, dataSource);
+        } finally {
+            platform.shutdown();
+        }
+
+        Executor perRequest;
+        String label;
+        try {
+            perRequest = new VirtualThreadTaskExecutor("request-");
+            label = "virtual";
+        } catch (UnsupportedOperationException ex) {
+            perRequest = runnable -> new Thread(runnable).start();
+            label = "thread-per-request";
+        }
+        run(label, perRequest, dataSource);
+        run(label + "+admission", perRequest, new ConnectionAdmissionDataSource(
+                dataSource, poolSize * (1 + WAITING_PER_CONNECTION), ADMISSION_WAIT_MILLIS));
+    }
+
+    private void run(String mode, Executor executor, DataSource requestDataSource) throws Exception {
+        var jdbcTemplate = new JdbcTemplate(requestDataSource);
+        var latencies = new long[REQUESTS];
+        var rejected = new AtomicInteger();
+        var done = new CountDownLatch(REQUESTS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            int request = i;
+            long submitted = System.nanoTime();
+            executor.execute(() -> {
+                try {
+                    if (request % SLOW_EVERY == 0) {
+                        jdbcTemplate.execute("SELECT pg_sleep(" + SLOW_QUERY_SECONDS + ")");
+                    } else {
+                        TimeUnit.MILLISECONDS.sleep(1);
+                    }
+                    latencies[request] = System.nanoTime() - submitted;
+                } catch (DataAccessException ex) {
+                    latencies[request] = -1;
+                    rejected.incrementAndGet();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        double millis = (System.nanoTime() - start) / 1e6;
+
+        System.out.printf("%-28s %10.0f %10.0f %12.1f %12.1f %10d%n", mode, millis,
+                (REQUESTS - rejected.get()) / millis * 1000, p99(latencies, false), p99(latencies, true), rejected.get());
+    }
+
+    /**
+     * p99 in milliseconds of the served fast or slow requests.
+     */
+    private static double p99(long[] latencies, boolean slow) {
+        var served = IntStream.range(0, latencies.length)
+                .filter(i -> (i % SLOW_EVERY == 0) == slow && latencies[i] >= 0)
+                .mapToLong(i -> latencies[i])
+                .toArray();
+        if (served.length == 0) {
+            return Double.NaN;
+        }
+        Arrays.sort(served);
+        return served[(int) Math.ceil(served.length * 0.99) - 1] / 1e6;
+    }
+}
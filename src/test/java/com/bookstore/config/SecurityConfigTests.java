@@ -0,0 +1,110 @@
+package com.bookstore.config;
+
+import com.bookstore.controller.AuthorController;
+import com.bookstore.service.AuthorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Authorization outcomes with the anonymous read chain in front of the main one, without mock users.
+ */
+@WebMvcTest(AuthorController.class)
+@Import(SecurityConfig.class)
+public class SecurityConfigTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private FilterChainProxy filterChainProxy;
+
+    @MockBean
+    private AuthorService service;
+
+    @MockBean
+    private JwtDecoder jwtDecoder;
+
+    @BeforeEach
+    void setUp() {
+        given(service.findAll(any())).willReturn(Page.empty());
+        given(jwtDecoder.decode("valid")).willReturn(Jwt.withTokenValue("valid")
+                .header("alg", "RS256")
+                .subject("client@clients")
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build());
+        given(jwtDecoder.decode("invalid")).willThrow(new BadJwtException("Invalid signature"));
+    }
+
+    @Test
+    void shouldPermitAnonymousGet_onReadChainWithoutBearerTokenFilter() throws Exception {
+        mvc.perform(get("/v1/authors"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+                .andExpect(header().exists(HttpHeaders.CACHE_CONTROL));
+
+        var readChain = filterChainProxy.getFilterChains().get(0);
+        assertThat(readChain.matches(new MockHttpServletRequest("GET", "/v1/authors"))).isTrue();
+        assertThat(readChain.getFilters()).noneMatch(BearerTokenAuthenticationFilter.class::isInstance);
+        verifyNoInteractions(jwtDecoder);
+    }
+
+    @Test
+    void shouldCheckBearerToken_onGetThatCarriesOne() throws Exception {
+        mvc.perform(get("/v1/authors").header(HttpHeaders.AUTHORIZATION, "Bearer valid"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/v1/authors").header(HttpHeaders.AUTHORIZATION, "Bearer invalid"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void shouldRequireAuthentication_forAnonymousWrites() throws Exception {
+        mvc.perform(post("/v1/authors").contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Author\"}"))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(delete("/v1/authors/1"))
+                .andExpect(status().isUnauthorized());
+        mvc.perform(delete("/v1/authors/1").header(HttpHeaders.AUTHORIZATION, "Bearer valid"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldRequireAuthentication_forActuatorEndpointsOtherThanHealth() throws Exception {
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+
+        var readChain = filterChainProxy.getFilterChains().get(0);
+        assertThat(readChain.matches(servletRequest("/actuator/prometheus"))).isFalse();
+        assertThat(readChain.matches(servletRequest("/actuator/health"))).isTrue();
+    }
+
+    private static MockHttpServletRequest servletRequest(String path) {
+        var request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
@@ -0,0 +1,106 @@
+package com.bookstore.config;
+
+import com.bookstore.controller.AuthorController;
+import com.bookstore.service.AuthorService;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+
+/**
+ * Cost of the security filters for an anonymous {@code GET /v1/authors}: through the main chain alone, as every GET
+ * was served before the anonymous read chain was added, and through the configured filter chain proxy, which hands it
+ * to the read chain. Both run behind the handler mapping introspector cache, as the proxy is in the application. The
+ * request ends right after security, so the timings leave out MVC and the handler; the {@code none} row is the cost
+ * of building the mock request and response, included in the other two. The first round warms up, the best of the
+ * remaining rounds is reported.
+ * <p>
+ * Not part of the regular build; run with {@code mvn test -Dtest=SecurityFilterChainBenchmark -Dbenchmark=true}.
+ */
+@WebMvcTest(AuthorController.class)
+@Import(SecurityConfig.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class SecurityFilterChainBenchmark {
+    private static final int ROUNDS = 6;
+    private static final int REQUESTS = 500_000;
+    private static final FilterChain HANDLER = (request, response) -> {
+    };
+
+    @Autowired
+    private FilterChainProxy filterChainProxy;
+
+    @Autowired
+    @Qualifier("filterChain")
+    private SecurityFilterChain mainChain;
+
+    @Autowired
+    private HandlerMappingIntrospector introspector;
+
+    @MockBean
+    private AuthorService service;
+
+    @MockBean
+    private JwtDecoder jwtDecoder;
+
+    @Test
+    void benchmark() throws Exception {
+        var introspectorCache = introspector.createCacheFilter();
+        var mainChainOnly = new FilterChainProxy(mainChain);
+        Filter main = (request, response, chain) -> introspectorCache.doFilter(request, response,
+                (cachedRequest, cachedResponse) -> mainChainOnly.doFilter(cachedRequest, cachedResponse, chain));
+        Filter none = (request, response, chain) -> chain.doFilter(request, response);
+
+        var chains = new LinkedHashMap<String, Filter>();
+        chains.put("none", none);
+        chains.put("main", main);
+        chains.put("read", filterChainProxy);
+        var best = new LinkedHashMap<String, double[]>();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (var chain : chains.entrySet()) {
+                var measured = run(chain.getValue());
+                if (round > 0) {
+                    best.merge(chain.getKey(), measured, (a, b) -> a[0] <= b[0] ? a : b);
+                }
+            }
+        }
+
+        System.out.printf("%-6s %12s %16s%n", "chain", "ns/request", "bytes/request");
+        best.forEach((chain, measured) -> System.out.printf("%-6s %12.0f %16.0f%n", chain, measured[0], measured[1]));
+    }
+
+    /**
+     * Returns nanoseconds and bytes allocated per request.
+     */
+    private static double[] run(Filter filter) throws Exception {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            filter.doFilter(request(), new MockHttpServletResponse(), HANDLER);
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new double[]{(double) nanos / REQUESTS, (double) allocated / REQUESTS};
+    }
+
+    private static MockHttpServletRequest request() {
+        var request = new MockHttpServletRequest("GET", "/api/v1/authors");
+        request.setContextPath("/api");
+        request.setServletPath("/v1/authors");
+        return request;
+    }
+}
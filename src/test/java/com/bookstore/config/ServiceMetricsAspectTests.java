@@ -0,0 +1,54 @@
+package com.bookstore.config;
+
+import com.bookstore.exception.ResourceNotFoundException;
+import com.bookstore.repository.AuthorRepository;
+import com.bookstore.repository.BookRepository;
+import com.bookstore.repository.ConditionalUpdateRepository;
+import com.bookstore.service.AuthorService;
+import com.bookstore.service.impl.AuthorServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class ServiceMetricsAspectTests {
+    private SimpleMeterRegistry meterRegistry;
+    private AuthorRepository authorRepo;
+    private AuthorService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        authorRepo = mock(AuthorRepository.class);
+        var proxyFactory = new AspectJProxyFactory(new AuthorServiceImpl(authorRepo, mock(BookRepository.class),
+                mock(ConditionalUpdateRepository.class), mock(ApplicationEventPublisher.class)));
+        proxyFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        service = proxyFactory.getProxy();
+    }
+
+    @Test
+    void shouldTimeServiceCalls_byClassMethodAndException() {
+        given(authorRepo.findAllAsDto(Pageable.unpaged())).willReturn(Page.empty());
+
+        service.findAll(Pageable.unpaged());
+        service.findAll(Pageable.unpaged());
+        assertThatThrownBy(() -> service.findById(42L)).isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(meterRegistry.get("service.method")
+                .tags("class", "AuthorServiceImpl", "method", "findAll", "exception", "none")
+                .timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("service.method")
+                .tags("class", "AuthorServiceImpl", "method", "findById", "exception", "ResourceNotFoundException")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("service.method").tag("method", "findById").timers())
+                .as("the author id is not a tag").hasSize(1);
+    }
+}
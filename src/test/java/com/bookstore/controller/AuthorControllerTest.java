@@ -1,9 +1,11 @@
 package com.bookstore.controller;
 
+import com.bookstore.dto.Versioned;
 import com.bookstore.dto.author.AuthorDto;
 import com.bookstore.dto.author.AuthorRequestDto;
 import com.bookstore.dto.author.AuthorUpdateRequestDto;
 import com.bookstore.exception.ConflictException;
+import com.bookstore.exception.PreconditionFailedException;
 import com.bookstore.exception.ResourceNotFoundException;
 import com.bookstore.service.AuthorService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -14,6 +16,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -23,10 +26,13 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -60,10 +66,11 @@ public class AuthorControllerTest {
     @Test
     void shouldReturnAuthorDto_whenGetById() throws Exception {
         AuthorDto author = new AuthorDto(1L, "Alex");
-        given(service.findById(any(Long.class))).willReturn(author);
+        given(service.findById(any(Long.class))).willReturn(new Versioned<>(author, 1));
 
         mvc.perform(get("/v1/authors/1").contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
                 .andExpect(jsonPath("name", is(author.getName())));
     }
 
@@ -121,15 +128,15 @@ public class AuthorControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("Id in path should be equal to id in request body!"));
 
-        verify(service, times(0)).update(any(Long.class), any(AuthorUpdateRequestDto.class));
+        verify(service, times(0)).update(any(Long.class), any(AuthorUpdateRequestDto.class), isNull());
     }
 
     @Test
     public void shouldUpdateAuthor_isOk() throws Exception {
         var requestBody = new AuthorUpdateRequestDto(2L, "John Doe Updated");
 
-        when(service.update(any(Long.class), any(AuthorUpdateRequestDto.class)))
-                .thenReturn(new AuthorDto(2L, "John Doe Updated"));
+        when(service.update(any(Long.class), any(AuthorUpdateRequestDto.class), isNull()))
+                .thenReturn(new Versioned<>(new AuthorDto(2L, "John Doe Updated"), 1));
 
         mvc.perform(put("/v1/authors/{id}", requestBody.getId())
                         .contentType(MediaType.APPLICATION_JSON)
@@ -138,7 +145,52 @@ public class AuthorControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("John Doe Updated"));
 
-        verify(service, times(1)).update(any(Long.class), any(AuthorUpdateRequestDto.class));
+        verify(service, times(1)).update(any(Long.class), any(AuthorUpdateRequestDto.class), isNull());
+    }
+
+    @Test
+    public void shouldUpdateAuthor_ifMatchVersion_andReturnNewETag() throws Exception {
+        var requestBody = new AuthorUpdateRequestDto(2L, "John Doe Updated");
+        when(service.update(eq(2L), any(AuthorUpdateRequestDto.class), eq(3L)))
+                .thenReturn(new Versioned<>(new AuthorDto(2L, "John Doe Updated"), 4));
+
+        mvc.perform(put("/v1/authors/2")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .with(jwt())
+                        .content(om.writeValueAsString(requestBody)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    public void shouldNotUpdateAuthor_staleVersion_PreconditionFailed() throws Exception {
+        var requestBody = new AuthorUpdateRequestDto(2L, "John Doe Updated");
+        var errorMessage = "Author [2] was modified since version 3";
+        when(service.update(eq(2L), any(AuthorUpdateRequestDto.class), eq(3L)))
+                .thenThrow(new PreconditionFailedException(errorMessage));
+
+        mvc.perform(put("/v1/authors/2")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .with(jwt())
+                        .content(om.writeValueAsString(requestBody)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").value(errorMessage));
+    }
+
+    @Test
+    public void shouldNotUpdateAuthor_weakETag_PreconditionFailed() throws Exception {
+        var requestBody = new AuthorUpdateRequestDto(2L, "John Doe Updated");
+        when(service.update(eq(2L), any(AuthorUpdateRequestDto.class), eq(-1L)))
+                .thenThrow(new PreconditionFailedException("Author [2] was modified since version -1"));
+
+        mvc.perform(put("/v1/authors/2")
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .with(jwt())
+                        .content(om.writeValueAsString(requestBody)))
+                .andExpect(status().isPreconditionFailed());
     }
 
     @Test
@@ -146,7 +198,7 @@ public class AuthorControllerTest {
         var requestBody = new AuthorUpdateRequestDto(2L, "John Doe Updated");
 
         var errorMessage = "Author with name [John Doe Updated] already exists!";
-        when(service.update(any(Long.class), any(AuthorUpdateRequestDto.class)))
+        when(service.update(any(Long.class), any(AuthorUpdateRequestDto.class), isNull()))
                 .thenThrow(new ConflictException(errorMessage));
 
         mvc.perform(put("/v1/authors/2")
@@ -156,7 +208,7 @@ public class AuthorControllerTest {
                 .andExpect(status().isConflict())
                 .andExpect(jsonPath("$.error").value(errorMessage));
 
-        verify(service, times(1)).update(any(Long.class), any(AuthorUpdateRequestDto.class));
+        verify(service, times(1)).update(any(Long.class), any(AuthorUpdateRequestDto.class), isNull());
     }
 
     @Test
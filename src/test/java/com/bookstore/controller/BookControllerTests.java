@@ -1,14 +1,23 @@
 package com.bookstore.controller;
 
 import com.bookstore.controller.filters.BookFilter;
+import com.bookstore.controller.filters.PopularBooksFilter;
+import com.bookstore.controller.filters.TopBooksFilter;
+import com.bookstore.dto.Versioned;
 import com.bookstore.dto.author.AuthorDto;
 import com.bookstore.dto.book.BookDto;
 import com.bookstore.dto.book.BookRequestDto;
+import com.bookstore.dto.book.PopularBookDto;
+import com.bookstore.dto.book.ScoredBookDto;
 import com.bookstore.dto.publisher.PublisherDto;
 import com.bookstore.dto.rating.BookRatingDto;
+import com.bookstore.dto.rating.RatingScoreRequestDto;
 import com.bookstore.exception.ConflictException;
 import com.bookstore.exception.ResourceNotFoundException;
+import com.bookstore.exception.ServiceOverloadedException;
 import com.bookstore.service.BookService;
+import com.bookstore.service.impl.BookPopularityService;
+import com.bookstore.service.impl.BookSimilarityService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +26,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -25,11 +36,16 @@ import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -43,6 +59,12 @@ public class BookControllerTests {
     @MockBean
     private BookService service;
 
+    @MockBean
+    private BookSimilarityService similarityService;
+
+    @MockBean
+    private BookPopularityService popularityService;
+
     @Autowired
     private ObjectMapper om;
 
@@ -66,16 +88,63 @@ public class BookControllerTests {
                 .andExpect(jsonPath("content[0].rating", is(7.85)));
     }
 
+    @Test
+    void shouldReturnTopRatedBooks_withScopes() throws Exception {
+        var book = BookDto.builder()
+                .isbn("0439136350")
+                .title("Harry Potter and the Prisoner of Azkaban")
+                .rating(9.04)
+                .ratingsCount(2340L)
+                .build();
+        var expectedFilter = TopBooksFilter.builder().authorId(3L).year(1999).minVotes(100).build();
+
+        given(service.findTopRated(eq(expectedFilter), eq(5))).willReturn(List.of(book));
+
+        mvc.perform(get("/v1/books/top")
+                        .param("authorId", "3")
+                        .param("year", "1999")
+                        .param("minVotes", "100")
+                        .param("limit", "5")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].isbn", is(book.getIsbn())))
+                .andExpect(jsonPath("$[0].rating", is(9.04)))
+                .andExpect(jsonPath("$[0].ratingsCount", is(2340)));
+
+        verify(service, times(1)).findTopRated(eq(expectedFilter), eq(5));
+        verify(service, never()).findByIsbn(any(String.class));
+    }
+
     @Test
     void shouldReturnBookDto_whenGetById() throws Exception {
         BookDto book = BookDto.builder().isbn("12794867XHS4").title("Book about sports").build();
-        given(service.findByIsbn(any(String.class))).willReturn(book);
+        given(service.findByIsbn(any(String.class))).willReturn(new Versioned<>(book, 1));
 
         mvc.perform(get("/v1/books/12794867XHS4").contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"1-")))
                 .andExpect(jsonPath("title", is(book.getTitle())));
     }
 
+    @Test
+    void shouldChangeETag_whenRatingChangesWithoutNewVersion() throws Exception {
+        BookDto book = BookDto.builder().isbn("12794867XHS4").rating(7.5).ratingsCount(2L).build();
+        given(service.findByIsbn("12794867XHS4")).willReturn(new Versioned<>(book, 1));
+        var etag = mvc.perform(get("/v1/books/12794867XHS4"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/v1/books/12794867XHS4").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        BookDto rated = BookDto.builder().isbn("12794867XHS4").rating(8.0).ratingsCount(3L).build();
+        given(service.findByIsbn("12794867XHS4")).willReturn(new Versioned<>(rated, 1));
+        mvc.perform(get("/v1/books/12794867XHS4").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("rating", is(8.0)));
+    }
+
     @Test
     void shouldReturnNotFound_whenGetByNonExistentId() throws Exception {
         when(service.findByIsbn(any(String.class))).thenThrow(new ResourceNotFoundException("No Book found by id"));
@@ -103,6 +172,71 @@ public class BookControllerTests {
                 .andExpect(jsonPath("$.content[1].score", is(6)));
     }
 
+    @Test
+    void shouldReturnBookRatingsAfterUser_withKeysetPaging() throws Exception {
+        var bookRatings = new SliceImpl<>(List.of(
+                BookRatingDto.builder().userId(11L).score(7).build(),
+                BookRatingDto.builder().userId(12L).score(3).build()
+        ), PageRequest.ofSize(2), true);
+
+        given(service.findRatingsByBookIsbnAfter("83839XHS1", 10L, 2)).willReturn(bookRatings);
+
+        mvc.perform(get("/v1/books/83839XHS1/ratings?afterUserId=10&size=2").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(2)))
+                .andExpect(jsonPath("$.content[1].userId", is(12)))
+                .andExpect(jsonPath("$.last", is(false)));
+
+        verify(service, never()).findRatingsByBookIsbn(any(String.class), any(PageRequest.class));
+    }
+
+    @Test
+    void shouldReturnSimilarBooks_isOk() throws Exception {
+        given(similarityService.findSimilar("83839XHS1", 2)).willReturn(List.of(
+                new ScoredBookDto("ISBN-7", "Book 7", 0.91),
+                new ScoredBookDto("ISBN-3", "Book 3", 0.42)
+        ));
+
+        mvc.perform(get("/v1/books/83839XHS1/similar?limit=2").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].isbn", is("ISBN-7")))
+                .andExpect(jsonPath("$[0].title", is("Book 7")))
+                .andExpect(jsonPath("$[0].score", is(0.91)));
+    }
+
+    @Test
+    void shouldReturnNotFound_whenSimilarOfNonExistentBook() throws Exception {
+        when(similarityService.findSimilar(any(String.class), anyInt()))
+                .thenThrow(new ResourceNotFoundException("Book not found by isbn: 83839XHS1"));
+
+        mvc.perform(get("/v1/books/83839XHS1/similar").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReturnPopularBooksOfCohort_isOk() throws Exception {
+        var filter = new PopularBooksFilter("germany", 18, 25);
+        given(popularityService.findPopular(filter, 10)).willReturn(List.of(
+                new PopularBookDto("ISBN-7", "Book 7", 8.5, 42L)
+        ));
+
+        mvc.perform(get("/v1/books/popular?country=germany&minAge=18&maxAge=25").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].isbn", is("ISBN-7")))
+                .andExpect(jsonPath("$[0].rating", is(8.5)))
+                .andExpect(jsonPath("$[0].ratingsCount", is(42)));
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenPopularAgeRangeIsInverted() throws Exception {
+        mvc.perform(get("/v1/books/popular?minAge=30&maxAge=20").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(popularityService);
+    }
+
     @Test
     public void shouldCreateNewBook() throws Exception {
         var requestBody = defaultBookRequest().build();
@@ -152,7 +286,7 @@ public class BookControllerTests {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("ISBN in path should be equal to ISBN in request body!"));
 
-        verify(service, times(0)).update(any(String.class), any(BookRequestDto.class));
+        verify(service, times(0)).update(any(String.class), any(BookRequestDto.class), isNull());
     }
 
     @Test
@@ -163,8 +297,8 @@ public class BookControllerTests {
                 .title(requestBody.getTitle())
                 .build();
 
-        when(service.update(any(String.class), any(BookRequestDto.class)))
-                .thenReturn(bookDto);
+        when(service.update(any(String.class), any(BookRequestDto.class), isNull()))
+                .thenReturn(new Versioned<>(bookDto, 1));
 
         mvc.perform(put("/v1/books/{isbn}", requestBody.getIsbn())
                         .contentType(MediaType.APPLICATION_JSON)
@@ -173,7 +307,36 @@ public class BookControllerTests {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.title").value(bookDto.getTitle()));
 
-        verify(service, times(1)).update(any(String.class), any(BookRequestDto.class));
+        verify(service, times(1)).update(any(String.class), any(BookRequestDto.class), isNull());
+    }
+
+    @Test
+    public void shouldUpdateBook_ifMatchVersion_andReturnNewETag() throws Exception {
+        var requestBody = defaultBookRequest().build();
+        when(service.update(eq(requestBody.getIsbn()), any(BookRequestDto.class), eq(7L)))
+                .thenReturn(new Versioned<>(BookDto.builder().isbn(requestBody.getIsbn()).build(), 8));
+
+        mvc.perform(put("/v1/books/{isbn}", requestBody.getIsbn())
+                        .header(HttpHeaders.IF_MATCH, "\"7-5f2a91c\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .with(jwt())
+                        .content(om.writeValueAsString(requestBody)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"8-")));
+    }
+
+    @Test
+    public void shouldNotUpdateBook_ifMatchWithSeveralTags_BadRequest() throws Exception {
+        var requestBody = defaultBookRequest().build();
+
+        mvc.perform(put("/v1/books/{isbn}", requestBody.getIsbn())
+                        .header(HttpHeaders.IF_MATCH, "\"7\", \"8\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .with(jwt())
+                        .content(om.writeValueAsString(requestBody)))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).update(any(String.class), any(BookRequestDto.class), any());
     }
 
     @Test
@@ -181,7 +344,7 @@ public class BookControllerTests {
         var requestBody = defaultBookRequest().build();
 
         var errorMessage = String.format("Book with isbn [%s] already exists!", requestBody.getIsbn());
-        when(service.update(any(String.class), any(BookRequestDto.class)))
+        when(service.update(any(String.class), any(BookRequestDto.class), isNull()))
                 .thenThrow(new ConflictException(errorMessage));
 
         mvc.perform(put("/v1/books/{isbn}", requestBody.getIsbn())
@@ -191,7 +354,7 @@ public class BookControllerTests {
                 .andExpect(status().isConflict())
                 .andExpect(jsonPath("$.error").value(errorMessage));
 
-        verify(service, times(1)).update(any(String.class), any(BookRequestDto.class));
+        verify(service, times(1)).update(any(String.class), any(BookRequestDto.class), isNull());
     }
 
     @Test
@@ -206,6 +369,38 @@ public class BookControllerTests {
         verify(service, times(1)).delete(any(String.class));
     }
 
+    @Test
+    public void shouldAcceptRating() throws Exception {
+        mvc.perform(put("/v1/books/X7236HS93/ratings/42").with(jwt())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(new RatingScoreRequestDto(8))))
+                .andExpect(status().isAccepted());
+
+        verify(service, times(1)).rate("X7236HS93", 42L, 8);
+    }
+
+    @Test
+    public void shouldNotAcceptRating_ScoreOutOfRange() throws Exception {
+        mvc.perform(put("/v1/books/X7236HS93/ratings/42").with(jwt())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(new RatingScoreRequestDto(11))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    public void shouldAskToRetryRating_BufferFull() throws Exception {
+        doThrow(new ServiceOverloadedException("Too many pending ratings, retry later"))
+                .when(service).rate(any(String.class), any(Long.class), any(Integer.class));
+
+        mvc.perform(put("/v1/books/X7236HS93/ratings/42").with(jwt())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(new RatingScoreRequestDto(8))))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
     private BookRequestDto.BookRequestDtoBuilder defaultBookRequest() {
         var author = AuthorDto.builder().id(1L).name("John Doe").build();
         var publisher = PublisherDto.builder().id(1L).name("IT Books Publishing").build();
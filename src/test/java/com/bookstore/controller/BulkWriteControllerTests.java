@@ -0,0 +1,74 @@
+package com.bookstore.controller;
+
+import com.bookstore.dto.author.AuthorRequestDto;
+import com.bookstore.dto.bulk.BulkItemResultDto;
+import com.bookstore.dto.bulk.BulkItemStatus;
+import com.bookstore.dto.bulk.BulkResultDto;
+import com.bookstore.service.impl.BulkWriteService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WithMockUser
+@WebMvcTest(BulkWriteController.class)
+@TestPropertySource(properties = "bulk.max-items=2")
+public class BulkWriteControllerTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private BulkWriteService service;
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Test
+    void shouldReturnPerItemResults_whenCreateAuthorsInBulk() throws Exception {
+        var result = BulkResultDto.of(List.of(
+                BulkItemResultDto.builder().index(0).status(BulkItemStatus.CREATED).id(7L).build(),
+                BulkItemResultDto.builder().index(1).status(BulkItemStatus.CONFLICT)
+                        .error("Author with name [Alex] already exists.").build()));
+        given(service.createAuthors(anyList())).willReturn(result);
+
+        mvc.perform(post("/v1/authors/bulk")
+                        .with(jwt())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(List.of(new AuthorRequestDto("Bob"), new AuthorRequestDto("Alex")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("succeeded", is(1)))
+                .andExpect(jsonPath("failed", is(1)))
+                .andExpect(jsonPath("items[0].id", is(7)))
+                .andExpect(jsonPath("items[0].error").doesNotExist())
+                .andExpect(jsonPath("items[1].status", is("CONFLICT")));
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenBatchExceedsMaxItems() throws Exception {
+        mvc.perform(post("/v1/books/ratings/bulk")
+                        .with(jwt())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{}, {}, {}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("error", containsString("At most 2 items")));
+
+        verifyNoInteractions(service);
+    }
+}
@@ -1,5 +1,6 @@
 package com.bookstore.controller;
 
+import com.bookstore.dto.Versioned;
 import com.bookstore.dto.publisher.PublisherDto;
 import com.bookstore.dto.publisher.PublisherRequestDto;
 import com.bookstore.dto.publisher.PublisherUpdateRequestDto;
@@ -23,6 +24,7 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.times;
@@ -61,7 +63,7 @@ public class PublisherControllerTests {
     @Test
     void shouldReturnPublisherDto_whenGetById() throws Exception {
         PublisherDto Publisher = new PublisherDto(1L, "Alex");
-        given(service.findById(any(Long.class))).willReturn(Publisher);
+        given(service.findById(any(Long.class))).willReturn(new Versioned<>(Publisher, 1));
 
         mvc.perform(get("/v1/publishers/1").contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -122,15 +124,15 @@ public class PublisherControllerTests {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("Id in path should be equal to id in request body!"));
 
-        verify(service, times(0)).update(any(Long.class), any(PublisherUpdateRequestDto.class));
+        verify(service, times(0)).update(any(Long.class), any(PublisherUpdateRequestDto.class), isNull());
     }
 
     @Test
     public void shouldUpdatePublisher_isOk() throws Exception {
         var requestBody = new PublisherUpdateRequestDto(2L, "John Doe Updated");
 
-        when(service.update(any(Long.class), any(PublisherUpdateRequestDto.class)))
-                .thenReturn(new PublisherDto(2L, "John Doe Updated"));
+        when(service.update(any(Long.class), any(PublisherUpdateRequestDto.class), isNull()))
+                .thenReturn(new Versioned<>(new PublisherDto(2L, "John Doe Updated"), 1));
 
         mvc.perform(put("/v1/publishers/2")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -139,7 +141,7 @@ public class PublisherControllerTests {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("John Doe Updated"));
 
-        verify(service, times(1)).update(any(Long.class), any(PublisherUpdateRequestDto.class));
+        verify(service, times(1)).update(any(Long.class), any(PublisherUpdateRequestDto.class), isNull());
     }
 
     @Test
@@ -147,7 +149,7 @@ public class PublisherControllerTests {
         var requestBody = new PublisherUpdateRequestDto(2L, "John Doe Updated");
 
         var errorMessage = "Publisher with name [John Doe Updated] already exists!";
-        when(service.update(any(Long.class), any(PublisherUpdateRequestDto.class)))
+        when(service.update(any(Long.class), any(PublisherUpdateRequestDto.class), isNull()))
                 .thenThrow(new ConflictException(errorMessage));
 
         mvc.perform(put("/v1/publishers/2")
@@ -157,7 +159,7 @@ public class PublisherControllerTests {
                 .andExpect(status().isConflict())
                 .andExpect(jsonPath("$.error").value(errorMessage));
 
-        verify(service, times(1)).update(any(Long.class), any(PublisherUpdateRequestDto.class));
+        verify(service, times(1)).update(any(Long.class), any(PublisherUpdateRequestDto.class), isNull());
     }
 
     @Test
@@ -0,0 +1,89 @@
+package com.bookstore.controller;
+
+import com.bookstore.controller.filters.BookFilter;
+import com.bookstore.dto.author.AuthorDto;
+import com.bookstore.dto.book.BookDto;
+import com.bookstore.dto.publisher.PublisherDto;
+import com.bookstore.exception.ResourceNotFoundException;
+import com.bookstore.service.impl.ReactiveCatalogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WithMockUser
+@WebMvcTest(ReactiveCatalogController.class)
+public class ReactiveCatalogControllerTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private ReactiveCatalogService service;
+
+    @Test
+    void shouldReturnBooksPage_withFilterAndPageable() throws Exception {
+        var book = BookDto.builder()
+                .isbn("ISBN-1")
+                .title("Book 1")
+                .year(2001)
+                .author(new AuthorDto(1L, "Author 1"))
+                .publisher(new PublisherDto(2L, "Publisher 2"))
+                .rating(7.5)
+                .build();
+        var pageable = PageRequest.of(1, 5, Sort.by("title"));
+        given(service.findBooks(any(BookFilter.class), eq(pageable)))
+                .willReturn(Mono.just(new PageImpl<>(List.of(book), pageable, 6)));
+
+        var result = mvc.perform(get("/v1/reactive/books")
+                        .param("authorId", "1")
+                        .param("page", "1").param("size", "5").param("sort", "title"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].isbn", is("ISBN-1")))
+                .andExpect(jsonPath("$.content[0].author.name", is("Author 1")))
+                .andExpect(jsonPath("$.totalElements", is(6)));
+
+        verify(service).findBooks(new BookFilter(null, 1L, null, null), pageable);
+    }
+
+    @Test
+    void shouldReturnNotFound_whenAuthorMissing() throws Exception {
+        given(service.findAuthor(100L)).willReturn(Mono.error(new ResourceNotFoundException("Author not found by id: 100")));
+
+        var result = mvc.perform(get("/v1/reactive/authors/100")).andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("Author not found by id: 100")));
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenSortPropertyUnknown() throws Exception {
+        given(service.findPublishers(any())).willReturn(Mono.error(new IllegalArgumentException("Unknown sort property: foo")));
+
+        var result = mvc.perform(get("/v1/reactive/publishers").param("sort", "foo")).andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest());
+    }
+}
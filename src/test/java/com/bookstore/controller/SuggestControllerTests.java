@@ -0,0 +1,69 @@
+package com.bookstore.controller;
+
+import com.bookstore.dto.suggest.SuggestionDto;
+import com.bookstore.dto.suggest.SuggestionType;
+import com.bookstore.service.impl.SuggestService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WithMockUser
+@WebMvcTest(SuggestController.class)
+public class SuggestControllerTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private SuggestService service;
+
+    @Test
+    void shouldReturnSuggestions_withDefaultLimit() throws Exception {
+        given(service.suggest("harry", 10)).willReturn(List.of(
+                new SuggestionDto(SuggestionType.BOOK, "0439136350", "Harry Potter and the Prisoner of Azkaban"),
+                new SuggestionDto(SuggestionType.AUTHOR, "12", "Harry Turtledove")
+        ));
+
+        mvc.perform(get("/v1/suggest").param("q", "harry").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].type", is("BOOK")))
+                .andExpect(jsonPath("$[0].id", is("0439136350")))
+                .andExpect(jsonPath("$[1].type", is("AUTHOR")))
+                .andExpect(jsonPath("$[1].label", is("Harry Turtledove")));
+
+        verify(service, times(1)).suggest("harry", 10);
+    }
+
+    @Test
+    void shouldPassLimitToService() throws Exception {
+        given(service.suggest("tol", 3)).willReturn(List.of());
+
+        mvc.perform(get("/v1/suggest").param("q", "tol").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        verify(service, times(1)).suggest("tol", 3);
+    }
+
+    @Test
+    void shouldReturnBadRequest_whenQueryMissing() throws Exception {
+        mvc.perform(get("/v1/suggest"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -1,12 +1,17 @@
 package com.bookstore.controller;
 
 import com.bookstore.controller.filters.UserFilter;
+import com.bookstore.dto.Versioned;
+import com.bookstore.dto.book.BookShortDto;
+import com.bookstore.dto.book.ScoredBookDto;
+import com.bookstore.dto.rating.UserRatingDto;
 import com.bookstore.dto.user.UpdateUserRequestDto;
 import com.bookstore.dto.user.UserDto;
 import com.bookstore.dto.user.UserRequestDto;
 import com.bookstore.exception.ConflictException;
 import com.bookstore.exception.ResourceNotFoundException;
 import com.bookstore.service.UserService;
+import com.bookstore.service.impl.UserRecommendationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +21,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -25,6 +31,9 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
@@ -42,6 +51,9 @@ public class UserControllerTests {
     @MockBean
     private UserService service;
 
+    @MockBean
+    private UserRecommendationService recommendationService;
+
     @Autowired
     private ObjectMapper om;
 
@@ -62,11 +74,69 @@ public class UserControllerTests {
         verify(service, times(1)).findAll(any(UserFilter.class), any(Pageable.class));
     }
 
+    @Test
+    void shouldReturnUserRecommendations_isOk() throws Exception {
+        given(recommendationService.recommend(5L, 2)).willReturn(List.of(
+                new ScoredBookDto("ISBN-4", "Book 4", 9.125),
+                new ScoredBookDto("ISBN-9", "Book 9", 8.5)
+        ));
+
+        mvc.perform(get("/v1/users/5/recommendations?limit=2").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].isbn", is("ISBN-4")))
+                .andExpect(jsonPath("$[1].score", is(8.5)));
+    }
+
+    @Test
+    void shouldReturnNotFound_whenRecommendationsOfNonExistentUser() throws Exception {
+        when(recommendationService.recommend(any(Long.class), anyInt()))
+                .thenThrow(new ResourceNotFoundException("User not found by id: 5"));
+
+        mvc.perform(get("/v1/users/5/recommendations").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReturnUserRatings_isOk() throws Exception {
+        Page<UserRatingDto> ratings = new PageImpl<>(List.of(
+                new UserRatingDto(new BookShortDto("ISBN-1", "Book 1"), 7),
+                new UserRatingDto(new BookShortDto("ISBN-2", "Book 2"), 3)
+        ));
+
+        given(service.findRatingsByUserId(eq(5L), any(PageRequest.class))).willReturn(ratings);
+
+        mvc.perform(get("/v1/users/5/ratings").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].book.isbn", is("ISBN-1")))
+                .andExpect(jsonPath("$.content[0].book.title", is("Book 1")))
+                .andExpect(jsonPath("$.content[0].score", is(7)))
+                .andExpect(jsonPath("totalElements", is(2)));
+    }
+
+    @Test
+    void shouldReturnUserRatingsAfterIsbn_withKeysetPaging() throws Exception {
+        var ratings = new SliceImpl<>(List.of(
+                new UserRatingDto(new BookShortDto("ISBN-3", "Book 3"), 9)
+        ), PageRequest.ofSize(1), true);
+
+        given(service.findRatingsByUserIdAfter(5L, "ISBN-2", 1)).willReturn(ratings);
+
+        mvc.perform(get("/v1/users/5/ratings?afterIsbn=ISBN-2&size=1").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].book.isbn", is("ISBN-3")))
+                .andExpect(jsonPath("$.last", is(false)));
+
+        verify(service, never()).findRatingsByUserId(any(Long.class), any(PageRequest.class));
+    }
+
     @Test
     void shouldReturnUserDto_whenGetById() throws Exception {
         UserDto user = UserDto.ofAge(15);
         ;
-        given(service.findById(any(Long.class))).willReturn(user);
+        given(service.findById(any(Long.class))).willReturn(new Versioned<>(user, 1));
 
         mvc.perform(get("/v1/users/1").contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -127,15 +197,15 @@ public class UserControllerTests {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("Id in path should be equal to id in request body!"));
 
-        verify(service, never()).update(any(Long.class), any(UpdateUserRequestDto.class));
+        verify(service, never()).update(any(Long.class), any(UpdateUserRequestDto.class), isNull());
     }
 
     @Test
     public void shouldUpdateUser_isOk() throws Exception {
         var requestBody = UpdateUserRequestDto.builder().id(2L).age(20).country("Ukraine").build();
 
-        when(service.update(any(Long.class), any(UpdateUserRequestDto.class)))
-                .thenReturn(UserDto.builder().age(20).country("Ukraine").build());
+        when(service.update(any(Long.class), any(UpdateUserRequestDto.class), isNull()))
+                .thenReturn(new Versioned<>(UserDto.builder().age(20).country("Ukraine").build(), 1));
 
         mvc.perform(put("/v1/users/2")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -144,7 +214,7 @@ public class UserControllerTests {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.country").value("Ukraine"));
 
-        verify(service, times(1)).update(any(Long.class), any(UpdateUserRequestDto.class));
+        verify(service, times(1)).update(any(Long.class), any(UpdateUserRequestDto.class), isNull());
     }
 
     @Test
@@ -152,7 +222,7 @@ public class UserControllerTests {
         var requestBody = UpdateUserRequestDto.builder().id(2L).age(20).country("Ukraine").build();
 
         var errorMessage = "User with name [John Doe Updated] already exists!";
-        when(service.update(any(Long.class), any(UpdateUserRequestDto.class)))
+        when(service.update(any(Long.class), any(UpdateUserRequestDto.class), isNull()))
                 .thenThrow(new ConflictException(errorMessage));
 
         mvc.perform(put("/v1/users/2")
@@ -162,7 +232,7 @@ public class UserControllerTests {
                 .andExpect(status().isConflict())
                 .andExpect(jsonPath("$.error").value(errorMessage));
 
-        verify(service, times(1)).update(any(Long.class), any(UpdateUserRequestDto.class));
+        verify(service, times(1)).update(any(Long.class), any(UpdateUserRequestDto.class), isNull());
     }
 
     @Test
@@ -0,0 +1,78 @@
+package com.bookstore.recommend;
+
+import com.bookstore.recommend.MatrixFactorizationModel.Recommendation;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AlsTrainerTests {
+
+    @Test
+    void shouldRecommendUnratedBooksOfTheUsersTaste() {
+        // users 0..19 read books A*, users 20..39 books B*; user 0 has not read A3 yet
+        var builder = RatingMatrix.builder();
+        for (int user = 0; user < 40; user++) {
+            var shelf = user < 20 ? "A" : "B";
+            for (int book = 0; book < 4; book++) {
+                if (user != 0 || book != 3) {
+                    builder.add(user, shelf + book, 5 + book);
+                }
+            }
+        }
+        var matrix = builder.build();
+
+        var model = new AlsTrainer(2, 10, 1f, 1f, 2, 1L).train(matrix);
+
+        assertThat(model.recommend(0, 1)).extracting(Recommendation::itemId).containsExactly("A3");
+        assertThat(model.predict(0, "A3")).isGreaterThan(0.5f).isGreaterThan(model.predict(0, "B3") + 0.5f);
+        assertThat(model.recommend(999, 5)).isEmpty();
+    }
+
+    @Test
+    void shouldNeverRecommendAlreadyRatedBooks() {
+        var matrix = ItemSimilarityModelBuilderTests.randomMatrix(200, 100, 30, 11);
+        var model = new AlsTrainer(8, 5, 0.1f, 1f, 2, 1L).train(matrix);
+
+        for (int user = 0; user < matrix.userCount(); user++) {
+            var rated = new HashSet<String>();
+            for (int p = matrix.userOffsets[user]; p < matrix.userOffsets[user + 1]; p++) {
+                rated.add(matrix.itemId(matrix.userItems[p]));
+            }
+            var recommendations = model.recommend(matrix.userId(user), 10);
+            assertThat(recommendations).hasSize(10)
+                    .extracting(Recommendation::itemId)
+                    .doesNotContainAnyElementsOf(rated);
+            assertThat(recommendations).extracting(Recommendation::score)
+                    .isSortedAccordingTo((a, b) -> Float.compare(b, a));
+        }
+    }
+
+    @Test
+    void shouldPreferReadBooks_independentlyOfParallelism() {
+        var matrix = ItemSimilarityModelBuilderTests.randomMatrix(300, 200, 40, 3);
+
+        var sequential = new AlsTrainer(10, 8, 0.1f, 1f, 1, 7L).train(matrix);
+        var parallel = new AlsTrainer(10, 8, 0.1f, 1f, 4, 7L).train(matrix);
+
+        double read = 0;
+        double unread = 0;
+        for (int user = 0; user < matrix.userCount(); user++) {
+            var rated = new HashSet<Integer>();
+            for (int p = matrix.userOffsets[user]; p < matrix.userOffsets[user + 1]; p++) {
+                rated.add(matrix.userItems[p]);
+            }
+            for (int item = 0; item < matrix.itemCount(); item++) {
+                float preference = sequential.predict(matrix.userId(user), matrix.itemId(item));
+                if (rated.contains(item)) {
+                    read += preference / rated.size();
+                } else {
+                    unread += preference / (matrix.itemCount() - rated.size());
+                }
+            }
+        }
+        assertThat(read / matrix.userCount()).isGreaterThan(unread / matrix.userCount() + 0.1);
+        assertThat(parallel.recommend(5, 20)).isEqualTo(sequential.recommend(5, 20));
+    }
+}
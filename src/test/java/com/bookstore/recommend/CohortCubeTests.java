@@ -0,0 +1,59 @@
+package com.bookstore.recommend;
+
+import com.bookstore.recommend.CohortCube.Entry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class CohortCubeTests {
+    private final CohortCube cube = CohortCube.builder()
+            .add("germany", 18, "A", 3, 24)
+            .add("germany", 25, "B", 2, 18)
+            .add("germany", 25, "A", 1, 2)
+            .add("germany", 26, "C", 9, 45)
+            .add(" Germany ", null, "C", 4, 20)
+            .add("spain", 20, "B", 5, 40)
+            .add("spain", 230, "D", 1, 10)
+            .add(null, 40, "D", 2, 20)
+            .build();
+
+    @Test
+    void shouldSumCellsOfAgeRange() {
+        assertThat(cube.top("germany", 18, 25, 10))
+                .extracting(Entry::itemId, Entry::count, Entry::average)
+                .containsExactly(tuple("A", 4, 6.5), tuple("B", 2, 9.0));
+    }
+
+    @Test
+    void shouldCountUnknownAgesOnlyWithoutAgeBounds() {
+        assertThat(cube.top("GERMANY", null, null, 1))
+                .extracting(Entry::itemId, Entry::count)
+                .containsExactly(tuple("C", 13));
+        assertThat(cube.top("germany", 26, null, 10))
+                .extracting(Entry::itemId, Entry::count)
+                .containsExactly(tuple("C", 9));
+        assertThat(cube.top("spain", 0, CohortCube.MAX_AGE, 10))
+                .extracting(Entry::itemId)
+                .containsExactly("B");
+    }
+
+    @Test
+    void shouldRankAcrossCountries_byCountThenAverage() {
+        assertThat(cube.top(null, 18, 40, 10))
+                .extracting(Entry::itemId, Entry::count)
+                .containsExactly(tuple("C", 9), tuple("B", 7), tuple("A", 4), tuple("D", 2));
+        assertThat(CohortCube.builder()
+                .add("x", 30, "low", 2, 4).add("x", 30, "high", 2, 18).build()
+                .top("x", null, null, 10))
+                .extracting(Entry::itemId)
+                .containsExactly("high", "low");
+    }
+
+    @Test
+    void shouldReturnEmpty_forUnknownCountryOrEmptyRange() {
+        assertThat(cube.top("france", null, null, 10)).isEmpty();
+        assertThat(cube.top("germany", 200, null, 10)).isEmpty();
+        assertThat(CohortCube.empty().top(null, null, null, 10)).isEmpty();
+    }
+}
@@ -0,0 +1,140 @@
+package com.bookstore.recommend;
+
+import com.bookstore.recommend.ItemSimilarityModel.Neighbor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class ItemSimilarityModelBuilderTests {
+
+    @Test
+    void shouldKeepOnlyPositivelyCorrelatedNeighbors() {
+        var matrix = RatingMatrix.builder()
+                .add(1, "A", 10).add(1, "B", 9).add(1, "C", 2)
+                .add(2, "A", 8).add(2, "B", 9).add(2, "C", 1)
+                .add(3, "A", 2).add(3, "B", 3).add(3, "C", 9)
+                .add(4, "A", 9).add(4, "B", 10).add(4, "C", 3).add(4, "D", 5)
+                .build();
+
+        var model = new ItemSimilarityModelBuilder(10, 2, 100, 2).build(matrix);
+
+        assertThat(model.neighbors("A", 10)).extracting(Neighbor::itemId).containsExactly("B");
+        assertThat(model.neighbors("B", 10)).extracting(Neighbor::itemId).containsExactly("A");
+        assertThat(model.neighbors("C", 10)).isEmpty();
+        // D shares a single rater with every other book, below min co-raters
+        assertThat(model.neighbors("D", 10)).isEmpty();
+        assertThat(model.neighbors("unknown", 10)).isEmpty();
+    }
+
+    @Test
+    void shouldComputeAdjustedCosine() {
+        var matrix = RatingMatrix.builder()
+                .add(1, "A", 4).add(1, "B", 4).add(1, "C", 1)
+                .add(2, "A", 5).add(2, "B", 3).add(2, "C", 1)
+                .build();
+
+        var model = new ItemSimilarityModelBuilder(10, 1, 100, 1).build(matrix);
+
+        // both user means are 3: centered A = (1, 2), B = (1, 0), C = (-2, -2)
+        assertThat(model.neighbors("A", 10)).singleElement().satisfies(neighbor -> {
+            assertThat(neighbor.itemId()).isEqualTo("B");
+            assertThat(neighbor.score()).isCloseTo((float) (1 / Math.sqrt(5)), within(1e-6f));
+        });
+        assertThat(model.neighbors("C", 10)).isEmpty();
+    }
+
+    @Test
+    void shouldBuildSameModel_regardlessOfParallelism() {
+        var matrix = randomMatrix(400, 300, 40, 42);
+
+        var sequential = new ItemSimilarityModelBuilder(20, 2, 1000, 1).build(matrix);
+        var parallel = new ItemSimilarityModelBuilder(20, 2, 1000, 4).build(matrix);
+
+        assertThat(parallel.neighborCount()).isEqualTo(sequential.neighborCount()).isPositive();
+        for (int item = 0; item < matrix.itemCount(); item++) {
+            var itemId = matrix.itemId(item);
+            assertThat(parallel.neighbors(itemId, 20)).isEqualTo(sequential.neighbors(itemId, 20));
+        }
+    }
+
+    @Test
+    void shouldKeepTopNeighborsInDescendingOrder() {
+        var matrix = randomMatrix(400, 300, 40, 7);
+
+        var model = new ItemSimilarityModelBuilder(5, 2, 1000, 2).build(matrix);
+
+        for (int item = 0; item < matrix.itemCount(); item++) {
+            var neighbors = model.neighbors(matrix.itemId(item), 10);
+            assertThat(neighbors).hasSizeLessThanOrEqualTo(5);
+            assertThat(neighbors).extracting(Neighbor::score)
+                    .isSortedAccordingTo((a, b) -> Float.compare(b, a))
+                    .allSatisfy(score -> assertThat(score).isPositive().isLessThanOrEqualTo(1.0f + 1e-5f));
+        }
+        var first = model.neighbors(matrix.itemId(0), 1);
+        if (!first.isEmpty()) {
+            assertThat(first.get(0).score()).isCloseTo(
+                    bruteForceSimilarity(matrix, 0, matrix.itemIndex(first.get(0).itemId())), within(1e-4f));
+        }
+    }
+
+    @Test
+    void shouldDownSampleHeavyUsers() {
+        var builder = RatingMatrix.builder();
+        for (int item = 0; item < 100; item++) {
+            builder.add(1, "B" + item, 1 + item % 10);
+        }
+        builder.add(2, "B0", 5);
+        var matrix = builder.build();
+
+        var truncated = matrix.truncateUsers(10);
+
+        assertThat(truncated.userRatingCount(matrix.userIndex(1))).isEqualTo(10);
+        assertThat(truncated.userRatingCount(matrix.userIndex(2))).isEqualTo(1);
+        assertThat(truncated.size()).isEqualTo(11);
+        assertThat(matrix.truncateUsers(100)).isSameAs(matrix);
+    }
+
+    static RatingMatrix randomMatrix(int users, int items, int ratingsPerUser, long seed) {
+        var random = new Random(seed);
+        var builder = RatingMatrix.builder();
+        for (int user = 0; user < users; user++) {
+            long userId = user;
+            random.ints(0, items).distinct().limit(ratingsPerUser)
+                    .forEach(item -> builder.add(userId, "ISBN-" + item, 1 + random.nextInt(10)));
+        }
+        return builder.build();
+    }
+
+    private static float bruteForceSimilarity(RatingMatrix matrix, int first, int second) {
+        double dot = 0;
+        double firstNorm = 0;
+        double secondNorm = 0;
+        for (int user = 0; user < matrix.userCount(); user++) {
+            double sum = 0;
+            Float firstValue = null;
+            Float secondValue = null;
+            for (int p = matrix.userOffsets[user]; p < matrix.userOffsets[user + 1]; p++) {
+                sum += matrix.userValues[p];
+                if (matrix.userItems[p] == first) {
+                    firstValue = matrix.userValues[p];
+                } else if (matrix.userItems[p] == second) {
+                    secondValue = matrix.userValues[p];
+                }
+            }
+            double mean = sum / matrix.userRatingCount(user);
+            if (firstValue != null) {
+                firstNorm += (firstValue - mean) * (firstValue - mean);
+            }
+            if (secondValue != null) {
+                secondNorm += (secondValue - mean) * (secondValue - mean);
+            }
+            if (firstValue != null && secondValue != null) {
+                dot += (firstValue - mean) * (secondValue - mean);
+            }
+        }
+        return (float) (dot / Math.sqrt(firstNorm * secondNorm));
+    }
+}
@@ -0,0 +1,178 @@
+package com.bookstore.recommend;
+
+import com.bookstore.recommend.MatrixFactorizationModel.Recommendation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Training time, memory and recall@K of the recommenders on a synthetic dataset shaped like Book-Crossing (about
+ * 100k users, 150k books, 450k explicit ratings plus 1.5 times as many implicit score-0 interactions, heavy-tailed
+ * user activity and book popularity).
+ * <p>
+ * Not part of the regular build; run with {@code mvn test -Dtest=RecommenderBenchmark -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class RecommenderBenchmark {
+    private static final int USERS = 100_000;
+    private static final int BOOKS = 150_000;
+    private static final int GENRES = 40;
+    private static final int EVALUATED_USERS = 2_000;
+    private static final int[] CUTOFFS = {10, 50};
+    private static final int RANK = Integer.getInteger("benchmark.rank", 20);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 10);
+    private static final float LAMBDA = Float.parseFloat(System.getProperty("benchmark.lambda", "1.0"));
+    private static final float ALPHA = Float.parseFloat(System.getProperty("benchmark.alpha", "1.0"));
+    private static final float IMPLICIT_SCORE = Float.parseFloat(System.getProperty("benchmark.implicit-score", "2.0"));
+
+    @Test
+    void benchmark() {
+        var random = new Random(2004);
+        var training = RatingMatrix.builder();
+        var trainingWithImplicit = RatingMatrix.builder();
+        var heldOut = new HashMap<Long, String>();
+        var popularity = new int[BOOKS];
+        generate(random, training, trainingWithImplicit, heldOut, popularity);
+
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        var matrix = training.build();
+        System.out.printf("rating matrix: %d ms, ~%d MB heap%n", millisSince(start), (usedHeap() - heapBefore) >> 20);
+        var matrixWithImplicit = trainingWithImplicit.build();
+        System.out.printf("dataset: %d users, %d books, %d ratings, %d implicit interactions, %d held out%n",
+                USERS, BOOKS, matrix.size(), matrixWithImplicit.size() - matrix.size(), heldOut.size());
+
+        start = System.nanoTime();
+        var similarity = new ItemSimilarityModelBuilder(50, 3, 500, 0).build(matrix);
+        System.out.printf("item-item: %d ms, %d books, %d neighbors%n",
+                millisSince(start), similarity.itemCount(), similarity.neighborCount());
+
+        start = System.nanoTime();
+        var als = new AlsTrainer(RANK, ITERATIONS, LAMBDA, ALPHA, 0, 42L).train(matrix);
+        System.out.printf("als (rank %d, %d iterations): %d ms on %d cores, %d MB of factors%n",
+                RANK, ITERATIONS, millisSince(start), Runtime.getRuntime().availableProcessors(), als.factorBytes() >> 20);
+
+        start = System.nanoTime();
+        var alsWithImplicit = new AlsTrainer(RANK, ITERATIONS, LAMBDA, ALPHA, 0, 42L).train(matrixWithImplicit);
+        System.out.printf("als with implicit interactions: %d ms%n", millisSince(start));
+
+        var evaluated = new ArrayList<>(heldOut.keySet());
+        Collections.shuffle(evaluated, random);
+        evaluated = new ArrayList<>(evaluated.subList(0, Math.min(EVALUATED_USERS, evaluated.size())));
+        var popular = popularityRanking(popularity);
+        int maxCutoff = Arrays.stream(CUTOFFS).max().orElseThrow();
+
+        var alsHits = new int[CUTOFFS.length];
+        var alsWithImplicitHits = new int[CUTOFFS.length];
+        var popularHits = new int[CUTOFFS.length];
+        start = System.nanoTime();
+        for (long userId : evaluated) {
+            var target = heldOut.get(userId);
+            var recommended = als.recommend(userId, maxCutoff).stream().map(Recommendation::itemId).toList();
+            count(recommended.indexOf(target), alsHits);
+            count(alsWithImplicit.recommend(userId, maxCutoff).stream().map(Recommendation::itemId).toList()
+                    .indexOf(target), alsWithImplicitHits);
+            count(popularRank(popular, matrix, userId, target, maxCutoff), popularHits);
+        }
+        long scoringMillis = millisSince(start);
+        for (int c = 0; c < CUTOFFS.length; c++) {
+            System.out.printf("recall@%d: als %.3f, als with implicit %.3f, popularity %.3f%n", CUTOFFS[c],
+                    (double) alsHits[c] / evaluated.size(), (double) alsWithImplicitHits[c] / evaluated.size(),
+                    (double) popularHits[c] / evaluated.size());
+        }
+        System.out.printf("scoring: %.2f ms per user (two full catalog scans)%n", (double) scoringMillis / evaluated.size());
+    }
+
+    /**
+     * Every book belongs to one genre; every user prefers two genres, picks books mostly from them with a
+     * popularity skew and rates them higher. Users also touch 1.5 times as many books without rating them, drawn
+     * the same way. One highly rated book of each user with at least five ratings is held out for recall.
+     */
+    private static void generate(Random random, RatingMatrix.Builder explicit, RatingMatrix.Builder withImplicit,
+                                 Map<Long, String> heldOut, int[] popularity) {
+        int booksPerGenre = BOOKS / GENRES;
+        for (long userId = 1; userId <= USERS; userId++) {
+            int first = random.nextInt(GENRES);
+            int second = random.nextInt(GENRES);
+            int count = (int) Math.min(1_000, Math.ceil(1.2 * Math.pow(random.nextDouble(), -0.75)));
+            int implicitCount = (int) Math.round(count * 1.5 * random.nextDouble() * 2);
+            var books = new LinkedHashMap<Integer, Integer>();
+            while (books.size() < count + implicitCount) {
+                boolean favourite = random.nextDouble() < 0.8;
+                int genre = favourite ? (random.nextBoolean() ? first : second) : random.nextInt(GENRES);
+                int rankInGenre = (int) (booksPerGenre * Math.pow(random.nextDouble(), 3));
+                int score = books.size() >= count ? 0 : favourite ? 6 + random.nextInt(5) : 1 + random.nextInt(7);
+                books.putIfAbsent(genre + GENRES * rankInGenre, score);
+            }
+            String held = null;
+            for (var book : books.entrySet()) {
+                var isbn = "ISBN-" + book.getKey();
+                if (book.getValue() == 0) {
+                    withImplicit.add(userId, isbn, IMPLICIT_SCORE);
+                    continue;
+                }
+                if (held == null && count >= 5 && book.getValue() >= 8) {
+                    held = isbn;
+                    continue;
+                }
+                explicit.add(userId, isbn, book.getValue());
+                withImplicit.add(userId, isbn, book.getValue());
+                popularity[book.getKey()]++;
+            }
+            if (held != null) {
+                heldOut.put(userId, held);
+            }
+        }
+    }
+
+    private static int[] popularityRanking(int[] popularity) {
+        return IntStream.range(0, popularity.length).boxed()
+                .sorted((a, b) -> Integer.compare(popularity[b], popularity[a]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static int popularRank(int[] popular, RatingMatrix matrix, long userId, String target, int cutoff) {
+        int user = matrix.userIndex(userId);
+        var rated = new HashSet<Integer>();
+        for (int p = matrix.userOffsets[user]; p < matrix.userOffsets[user + 1]; p++) {
+            rated.add(matrix.userItems[p]);
+        }
+        int rank = 0;
+        for (int book : popular) {
+            if (rank == cutoff) {
+                break;
+            }
+            var isbn = "ISBN-" + book;
+            int item = matrix.itemIndex(isbn);
+            if (item >= 0 && rated.contains(item)) {
+                continue;
+            }
+            if (isbn.equals(target)) {
+                return rank;
+            }
+            rank++;
+        }
+        return -1;
+    }
+
+    private static void count(int rank, int[] hits) {
+        for (int c = 0; c < CUTOFFS.length; c++) {
+            if (rank >= 0 && rank < CUTOFFS[c]) {
+                hits[c]++;
+            }
+        }
+    }
+
+    private static long usedHeap() {
+        var runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,261 @@
+package com.bookstore.repository;
+
+import com.bookstore.controller.filters.BookFilter;
+import com.bookstore.controller.filters.TopBooksFilter;
+import com.bookstore.controller.filters.UserFilter;
+import com.bookstore.support.PostgresRepositoryTest;
+import com.bookstore.support.QueryPlan;
+import com.bookstore.support.StatementRecorder;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every read of the repositories, and every {@link BookFilter}, {@link UserFilter} and {@link TopBooksFilter}
+ * combination, against a seeded Book-Crossing-like dataset and checks the plans of the SQL they issue with
+ * {@code EXPLAIN (ANALYZE, BUFFERS)}. A case fails when a statement exceeds its latency budget or reads most of a
+ * large table sequentially to keep a small part of it, the signature of a missing or unusable index. Sequential
+ * scans of unselective filters, or ones that a {@code LIMIT} stops early, are fine.
+ * <p>
+ * Budgets are generous for a developer machine; scale them with {@code -Dplan.latency-factor=2} on slow CI hosts.
+ * A failure reports the statement with its plan; every plan is logged at debug level.
+ */
+@Slf4j
+@PostgresRepositoryTest
+@Import({BookRankingRepository.class, StatementRecorder.class})
+public class QueryPlanRegressionTests {
+    private static final int AUTHORS = 5_000;
+    private static final int PUBLISHERS = 1_000;
+    private static final int BOOKS = 50_000;
+    private static final int USERS = 50_000;
+    private static final int RATINGS = 400_000;
+
+    private static final long LARGE_TABLE_ROWS = 10_000;
+    private static final double MAX_SEQ_SCAN_SELECTIVITY = 0.1;
+    private static final double LATENCY_FACTOR = Double.parseDouble(System.getProperty("plan.latency-factor", "1"));
+    private static final double BUDGET_MILLIS = 50 * LATENCY_FACTOR;
+
+    private static final Pageable SECOND_PAGE = PageRequest.of(1, 20);
+
+    @Autowired
+    private BookRepository bookRepo;
+
+    @Autowired
+    private AuthorRepository authorRepo;
+
+    @Autowired
+    private PublisherRepository publisherRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private RatingRepository ratingRepo;
+
+    @Autowired
+    private BookRankingRepository rankingRepo;
+
+    @Autowired
+    private StatementRecorder recorder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void shouldKeepRepositoryQueriesOnIndexes() {
+        seed();
+        Map<String, Long> largeTables = new HashMap<>();
+        jdbcTemplate.query("SELECT relname, reltuples::bigint FROM pg_class WHERE relkind = 'r' AND reltuples >= ?",
+                rs -> {
+                    largeTables.put(rs.getString(1), rs.getLong(2));
+                }, LARGE_TABLE_ROWS);
+
+        var failures = new ArrayList<String>();
+        cases().forEach((name, query) -> {
+            entityManager.clear();
+            var statements = recorder.record(query);
+            assertThat(statements).as("statements of %s", name).isNotEmpty();
+            for (var statement : statements) {
+                var plan = jdbcTemplate.execute((ConnectionCallback<QueryPlan>) connection -> {
+                    try (var explain = statement.prepare(connection, QueryPlan.EXPLAIN);
+                         var rs = explain.executeQuery()) {
+                        rs.next();
+                        return QueryPlan.parse(rs.getString(1));
+                    }
+                });
+                log.debug("{}: {} ms, {} blocks\n{}", name, plan.executionMillis(), plan.sharedBlocks(),
+                        plan.summary().indent(4));
+                failures.addAll(check(name, statement.sql(), plan, largeTables));
+            }
+        });
+
+        assertThat(failures).as("query plan regressions").isEmpty();
+    }
+
+    private static List<String> check(String name, String sql, QueryPlan plan, Map<String, Long> largeTables) {
+        var failures = new ArrayList<String>();
+        for (var node : plan.nodes()) {
+            if (!node.isSeqScan() || !node.filtered() || !largeTables.containsKey(node.relation())) {
+                continue;
+            }
+            long tableRows = largeTables.get(node.relation());
+            if (node.rowsScanned() * 2 >= tableRows && node.rows() < node.rowsScanned() * MAX_SEQ_SCAN_SELECTIVITY) {
+                failures.add("%s: sequential scan of %s kept %d of %d rows%n%s%n%s".formatted(
+                        name, node.relation(), node.rows(), node.rowsScanned(), sql, plan.summary()));
+            }
+        }
+        if (plan.executionMillis() > BUDGET_MILLIS) {
+            failures.add("%s: %.2f ms over the %.0f ms budget%n%s%n%s".formatted(
+                    name, plan.executionMillis(), BUDGET_MILLIS, sql, plan.summary()));
+        }
+        return failures;
+    }
+
+    private Map<String, Runnable> cases() {
+        var cases = new LinkedHashMap<String, Runnable>();
+
+        for (int mask = 0; mask < 16; mask++) {
+            var filter = new BookFilter(
+                    (mask & 1) != 0 ? "Harry River" : null,
+                    (mask & 2) != 0 ? 42L : null,
+                    (mask & 4) != 0 ? 7L : null,
+                    (mask & 8) != 0 ? 1999 : null);
+            cases.put("books " + describe(filter), () -> bookRepo.findAllAsDto(filter.toSpec(), SECOND_PAGE));
+        }
+        cases.put("books sorted by title", () -> bookRepo.findAllAsDto(null, PageRequest.of(10, 20, Sort.by("title"))));
+        cases.put("books sorted by weighted rating", () -> bookRepo.findAllAsDto(null,
+                PageRequest.of(10, 20, Sort.by(Sort.Order.desc("weightedRating"), Sort.Order.desc("ratingsCount"),
+                        Sort.Order.asc("isbn")))));
+        cases.put("books entities by author",
+                () -> bookRepo.findAll(new BookFilter(null, 42L, null, null).toSpec(), SECOND_PAGE));
+        cases.put("book by isbn", () -> bookRepo.findByIsbn("ISBN-4242"));
+        cases.put("book exists", () -> bookRepo.existsByIsbn("ISBN-4242"));
+        cases.put("book titles by isbns", () -> bookRepo.findShortByIsbnIn(List.of("ISBN-1", "ISBN-2", "ISBN-3")));
+
+        for (int mask = 0; mask < 16; mask++) {
+            var filter = new TopBooksFilter(
+                    (mask & 1) != 0 ? 42L : null,
+                    (mask & 2) != 0 ? 7L : null,
+                    (mask & 4) != 0 ? 1999 : null,
+                    (mask & 8) != 0 ? 10 : null);
+            int minVotes = filter.getMinVotes() == null ? 1 : filter.getMinVotes();
+            cases.put("top " + describe(filter), () -> rankingRepo.findTopRated(filter, minVotes, 10));
+        }
+
+        for (int mask = 0; mask < 32; mask++) {
+            var filter = UserFilter.builder()
+                    .minAge((mask & 1) != 0 ? 18 : null)
+                    .maxAge((mask & 2) != 0 ? 25 : null)
+                    .country((mask & 4) != 0 ? "germany" : null)
+                    .region((mask & 8) != 0 ? "region 7" : null)
+                    .city((mask & 16) != 0 ? "city 77" : null)
+                    .build();
+            cases.put("users " + describe(filter), () -> userRepo.findAllAsDto(filter.toSpec(), SECOND_PAGE));
+        }
+        cases.put("user entities by country",
+                () -> userRepo.findAll(UserFilter.builder().country("germany").build().toSpec(), SECOND_PAGE));
+        cases.put("user by id", () -> userRepo.findById(4242L));
+        cases.put("user exists", () -> userRepo.existsById(4242L));
+
+        cases.put("book ratings", () -> ratingRepo.findBookRatings("ISBN-1", SECOND_PAGE));
+        cases.put("book ratings after", () -> ratingRepo.findBookRatingsAfter("ISBN-1", 20_000L, Limit.of(21)));
+        cases.put("book rating entities", () -> ratingRepo.findAllByBookIsbn("ISBN-1", SECOND_PAGE));
+        cases.put("rating entities of books", () -> ratingRepo.findAllByBookIsbnIn(List.of("ISBN-4242", "ISBN-4243")));
+        cases.put("average ratings of books",
+                () -> ratingRepo.findAverageRatingByBookIsbnsIn(List.of("ISBN-1", "ISBN-2", "ISBN-3")));
+        cases.put("user ratings", () -> ratingRepo.findUserRatings(1L, SECOND_PAGE));
+        cases.put("user ratings after", () -> ratingRepo.findUserRatingsAfter(1L, "ISBN-2", Limit.of(21)));
+        cases.put("user rating entities", () -> ratingRepo.findAllByUserId(1L, SECOND_PAGE));
+
+        cases.put("authors", () -> authorRepo.findAllAsDto(PageRequest.of(10, 20, Sort.by("name"))));
+        cases.put("author by name", () -> authorRepo.findByName("Author 42"));
+        cases.put("authors by names", () -> authorRepo.findByNameIn(Set.of("Author 42", "Author 43")));
+        cases.put("author exists", () -> authorRepo.existsByName("Author 42"));
+        cases.put("publishers", () -> publisherRepo.findAllAsDto(PageRequest.of(10, 20, Sort.by("name"))));
+        cases.put("publisher by name", () -> publisherRepo.findByName("Publisher 7"));
+        cases.put("publishers by names", () -> publisherRepo.findByNameIn(Set.of("Publisher 7", "Publisher 8")));
+        cases.put("publisher exists", () -> publisherRepo.existsByName("Publisher 7"));
+        return cases;
+    }
+
+    private static String describe(Object filter) {
+        var description = filter.toString();
+        return description.substring(description.indexOf('(') + 1, description.length() - 1)
+                .replaceAll("\\w+=null(, )?", "")
+                .replaceAll(", $", "");
+    }
+
+    /**
+     * Skewed like Book-Crossing: a few heavy raters, a long tail of books and a handful of countries covering most
+     * readers; 40% of users have no age.
+     */
+    private void seed() {
+        jdbcTemplate.execute("SELECT setseed(0.2004)");
+        jdbcTemplate.update("INSERT INTO authors(id, name) SELECT g, 'Author ' || g FROM generate_series(1, ?) g", AUTHORS);
+        jdbcTemplate.update("INSERT INTO publishers(id, name) SELECT g, 'Publisher ' || g FROM generate_series(1, ?) g",
+                PUBLISHERS);
+        jdbcTemplate.update("""
+                INSERT INTO books(id, isbn, title, author_id, publisher_id, year)
+                SELECT g, 'ISBN-' || g,
+                       (ARRAY['Harry', 'Lord', 'Silent', 'Dark', 'Little', 'Secret', 'Last', 'Red', 'Lost', 'Wild',
+                              'Golden', 'Broken', 'Hidden', 'Blue', 'Deep', 'Cold', 'Bright', 'Iron', 'Quiet', 'Long'])[1 + g % 20]
+                           || ' ' || (ARRAY['River', 'House', 'Garden', 'Night', 'Road', 'Winter', 'Storm', 'Island',
+                                            'Child', 'Empire', 'Mountain', 'Letter', 'Fire', 'Shadow', 'Sea'])[1 + g / 20 % 15]
+                           || ' ' || g,
+                       1 + g::bigint * 7919 % ?, 1 + g::bigint * 104729 % ?, 1950 + g % 70
+                FROM generate_series(1, ?) g
+                """, AUTHORS, PUBLISHERS, BOOKS);
+        jdbcTemplate.update("INSERT INTO users(id, external_id, age) " +
+                "SELECT g, g, CASE WHEN random() < 0.4 THEN NULL ELSE 14 + floor(random() * 60)::int END " +
+                "FROM generate_series(1, ?) g", USERS);
+        jdbcTemplate.update("""
+                INSERT INTO address(user_id, city, region, country)
+                SELECT g, 'city ' || floor(random() * 3000)::int, 'region ' || floor(random() * 300)::int,
+                       (ARRAY['usa', 'canada', 'united kingdom', 'germany', 'spain', 'australia', 'italy', 'france',
+                              'portugal', 'netherlands', 'new zealand', 'switzerland', 'brazil', 'malaysia', 'finland',
+                              'austria', 'sweden', 'singapore', 'belgium', 'ireland'])[1 + floor(power(random(), 3) * 20)::int]
+                FROM generate_series(1, ?) g
+                """, USERS);
+        jdbcTemplate.update("""
+                INSERT INTO ratings(user_id, book_isbn, score)
+                SELECT 1 + floor(power(random(), 3) * ?)::int, 'ISBN-' || (1 + floor(power(random(), 2) * ?)::int),
+                       1 + floor(random() * 10)::int
+                FROM generate_series(1, ?)
+                ON CONFLICT DO NOTHING
+                """, USERS, BOOKS, RATINGS);
+        // statistics left by a test that committed a small catalog would have the update below join row by row
+        jdbcTemplate.execute("ANALYZE books, ratings");
+        jdbcTemplate.update("""
+                UPDATE books b
+                SET ratings_count = agg.ratings_count, ratings_sum = agg.ratings_sum,
+                    weighted_rating = agg.ratings_sum::float8 / agg.ratings_count
+                FROM (SELECT book_isbn, COUNT(*) AS ratings_count, SUM(score) AS ratings_sum
+                      FROM ratings GROUP BY book_isbn) agg
+                WHERE b.isbn = agg.book_isbn
+                """);
+        // what autovacuum does for a live catalog: merge the rows inserted above into the GIN indexes proper
+        jdbcTemplate.queryForList("SELECT gin_clean_pending_list(c.oid::regclass) FROM pg_class c " +
+                "JOIN pg_am am ON am.oid = c.relam WHERE am.amname = 'gin' AND c.relnamespace = current_schema()::regnamespace");
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
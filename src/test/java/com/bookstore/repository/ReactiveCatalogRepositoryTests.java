@@ -0,0 +1,132 @@
+package com.bookstore.repository;
+
+import com.bookstore.controller.filters.BookFilter;
+import com.bookstore.support.CatalogFixtures;
+import com.bookstore.support.PostgresRepositoryTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The R2DBC connections do not take part in the test transaction, so fixtures are committed and truncated after
+ * each test.
+ */
+@PostgresRepositoryTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReactiveCatalogRepositoryTests {
+    @Autowired
+    private BookRepository bookRepo;
+
+    @Autowired
+    private AuthorRepository authorRepo;
+
+    @Autowired
+    private RatingRepository ratingRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    private ReactiveCatalogRepository catalogRepo;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        // 60 books of 3 authors and publishers; ISBN-1..10 rated by 20 users
+        new CatalogFixtures(jdbcTemplate)
+                .authors(3)
+                .publishers(3)
+                .books(60, 3)
+                .users(20)
+                .ratings(20, 10);
+        jdbcTemplate.update("UPDATE books b SET ratings_count = (SELECT COUNT(*) FROM ratings r WHERE r.book_isbn = b.isbn)");
+        try (var connection = dataSource.getConnection()) {
+            var jdbcUrl = URI.create(connection.getMetaData().getURL().substring("jdbc:".length()));
+            var url = String.format("r2dbc:postgresql://%s:%d%s?schema=%s",
+                    jdbcUrl.getHost(), jdbcUrl.getPort(), jdbcUrl.getPath(), connection.getSchema());
+            catalogRepo = new ReactiveCatalogRepository(url, connection.getMetaData().getUserName(), password, 2);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        catalogRepo.destroy();
+        jdbcTemplate.execute("TRUNCATE ratings, books, authors, publishers, users, address CASCADE");
+    }
+
+    @Test
+    void shouldReturnSameBookPagesAsJpa() {
+        var sorted = Sort.by(Sort.Order.desc("ratingsCount"), Sort.Order.asc("isbn"));
+        var cases = List.of(
+                new Case(new BookFilter(), PageRequest.of(0, 20, sorted)),
+                new Case(new BookFilter(), PageRequest.of(2, 25, sorted)),
+                new Case(new BookFilter("Book 1", null, null, null), PageRequest.of(0, 5, Sort.by("title"))),
+                new Case(new BookFilter(null, 2L, 2L, null), PageRequest.of(1, 4, Sort.by(Sort.Direction.DESC, "year", "isbn"))),
+                new Case(new BookFilter(null, null, null, 1995), Pageable.unpaged()),
+                new Case(new BookFilter(null, 1L, null, null), PageRequest.of(0, 5, Sort.by("author.name", "isbn"))));
+
+        for (var testCase : cases) {
+            var expected = bookRepo.findAllAsDto(testCase.filter().toSpec(), testCase.pageable());
+            var actual = catalogRepo.findBooks(testCase.filter(), testCase.pageable()).block();
+
+            assertThat(actual).as(testCase.toString()).isNotNull();
+            assertThat(actual.getContent()).as(testCase.toString()).containsExactlyElementsOf(expected.getContent());
+            assertThat(actual.getTotalElements()).as(testCase.toString()).isEqualTo(expected.getTotalElements());
+        }
+    }
+
+    @Test
+    void shouldReturnSameRatingAndAuthorPagesAsJpa() {
+        var ratingsPage = PageRequest.of(1, 7);
+        var authorsPage = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "name"));
+
+        assertThat(catalogRepo.findBookRatings("ISBN-3", ratingsPage).block())
+                .containsExactlyElementsOf(ratingRepo.findBookRatings("ISBN-3", ratingsPage));
+        assertThat(catalogRepo.findAuthors(authorsPage).block())
+                .containsExactlyElementsOf(authorRepo.findAllAsDto(authorsPage));
+        assertThat(catalogRepo.findAuthors(authorsPage).block().getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldFindSingleRows_andNothingForUnknownKeys() {
+        var book = catalogRepo.findBook("ISBN-3").block();
+
+        assertThat(book).isNotNull();
+        assertThat(book.getAuthor().getName()).isEqualTo("Author 1");
+        assertThat(book.getRatingsCount()).isEqualTo(20);
+        assertThat(catalogRepo.findPublisher(2L).block().getName()).isEqualTo("Publisher 2");
+        assertThat(catalogRepo.findBook("UNKNOWN").block()).isNull();
+        assertThat(catalogRepo.findAuthor(100L).block()).isNull();
+    }
+
+    @Test
+    void shouldRejectUnknownSortProperty() {
+        var pageable = PageRequest.of(0, 10, Sort.by("ratings_count"));
+
+        assertThatThrownBy(() -> catalogRepo.findBooks(new BookFilter(), pageable).block())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private record Case(BookFilter filter, Pageable pageable) {
+    }
+}
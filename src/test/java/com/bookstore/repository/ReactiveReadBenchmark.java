@@ -0,0 +1,153 @@
+package com.bookstore.repository;
+
+import com.bookstore.controller.filters.BookFilter;
+import com.bookstore.support.CatalogFixtures;
+import com.bookstore.support.PostgresRepositoryTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@code REQUESTS} book page reads with 16 to 1024 of them in flight: blocking JPA reads with a thread per in-flight
+ * request, as Tomcat serves {@code /v1/books}, versus R2DBC reads subscribed from a single thread, as
+ * {@code /v1/reactive/books} runs them. Both go through a pool of the same size. Reports throughput, p99 latency and
+ * the peak number of live JVM threads, which is what grows the memory of the blocking model.
+ * <p>
+ * Not part of the regular build; run with {@code mvn test -Dtest=ReactiveReadBenchmark -Dbenchmark=true}.
+ */
+@PostgresRepositoryTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReactiveReadBenchmark {
+    private static final int BOOKS = 20_000;
+    private static final int AUTHORS = 200;
+    private static final int REQUESTS = 4_000;
+    private static final int[] IN_FLIGHT = {16, 256, 1024};
+
+    @Autowired
+    private BookRepository bookRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size}")
+    private int poolSize;
+
+    @Test
+    void benchmark() throws Exception {
+        new CatalogFixtures(jdbcTemplate).authors(AUTHORS).publishers(AUTHORS).books(BOOKS, AUTHORS);
+        jdbcTemplate.execute("ANALYZE");
+        var catalogRepo = reactiveRepository();
+        try {
+            for (int request = 0; request < 500; request++) {
+                bookRepo.findAllAsDto(filter(request).toSpec(), page());
+                catalogRepo.findBooks(filter(request), page()).block();
+            }
+
+            System.out.printf("%-9s %9s %10s %10s %10s %13s%n", "mode", "in flight", "total ms", "reads/s", "p99 ms",
+                    "peak threads");
+            for (int inFlight : IN_FLIGHT) {
+                read(inFlight, request -> bookRepo.findAllAsDto(filter(request).toSpec(), page()));
+                subscribe(inFlight, request -> catalogRepo.findBooks(filter(request), page()).then());
+            }
+        } finally {
+            catalogRepo.destroy();
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE books, authors, publishers CASCADE");
+    }
+
+    private void read(int inFlight, IntConsumer read) throws Exception {
+        var threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        var latencies = new long[REQUESTS];
+        var next = new AtomicInteger();
+        long start = System.nanoTime();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < inFlight; i++) {
+            var worker = new Thread(() -> {
+                for (int request = next.getAndIncrement(); request < REQUESTS; request = next.getAndIncrement()) {
+                    long issued = System.nanoTime();
+                    read.accept(request);
+                    latencies[request] = System.nanoTime() - issued;
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        for (var worker : workers) {
+            worker.join();
+        }
+        report("blocking", inFlight, start, latencies, threads.getPeakThreadCount());
+    }
+
+    private void subscribe(int inFlight, IntFunction<Mono<Void>> read) {
+        var threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        var latencies = new long[REQUESTS];
+        long start = System.nanoTime();
+        Flux.range(0, REQUESTS)
+                .flatMap(request -> Mono.defer(() -> {
+                    long issued = System.nanoTime();
+                    return read.apply(request).doOnTerminate(() -> latencies[request] = System.nanoTime() - issued);
+                }), inFlight)
+                .blockLast();
+        report("reactive", inFlight, start, latencies, threads.getPeakThreadCount());
+    }
+
+    private static void report(String mode, int inFlight, long start, long[] latencies, int peakThreads) {
+        double millis = (System.nanoTime() - start) / 1e6;
+        assertThat(latencies).doesNotContain(0L);
+        var sorted = latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-9s %9d %10.0f %10.0f %10.1f %13d%n", mode, inFlight, millis, REQUESTS / millis * 1000,
+                sorted[(int) Math.ceil(sorted.length * 0.99) - 1] / 1e6, peakThreads);
+    }
+
+    private static BookFilter filter(int request) {
+        return new BookFilter(null, 1L + request % AUTHORS, null, null);
+    }
+
+    private static PageRequest page() {
+        return PageRequest.of(0, 20, Sort.by("title"));
+    }
+
+    private ReactiveCatalogRepository reactiveRepository() throws Exception {
+        try (var connection = dataSource.getConnection()) {
+            var jdbcUrl = URI.create(connection.getMetaData().getURL().substring("jdbc:".length()));
+            var url = String.format("r2dbc:postgresql://%s:%d%s?schema=%s",
+                    jdbcUrl.getHost(), jdbcUrl.getPort(), jdbcUrl.getPath(), connection.getSchema());
+            return new ReactiveCatalogRepository(url, connection.getMetaData().getUserName(), password, poolSize);
+        }
+    }
+}
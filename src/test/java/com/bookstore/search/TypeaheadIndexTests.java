@@ -0,0 +1,97 @@
+package com.bookstore.search;
+
+import com.bookstore.dto.suggest.SuggestionDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.bookstore.dto.suggest.SuggestionType.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TypeaheadIndexTests {
+
+    private TypeaheadIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TypeaheadIndex(5);
+        index.put(BOOK, "1", "The Lord of the Rings", 120);
+        index.put(BOOK, "2", "Lord of the Flies", 300);
+        index.put(BOOK, "3", "The Hobbit", 90);
+        index.put(AUTHOR, "1", "J. R. R. Tolkien", 40);
+        index.put(PUBLISHER, "1", "Éditions Gallimard", 10);
+    }
+
+    @Test
+    void shouldMatchTokenPrefixesInAnyPosition() {
+        assertThat(index.search("rin", 10))
+                .extracting(SuggestionDto::getId)
+                .containsExactly("1");
+        assertThat(index.search("tolk", 10))
+                .extracting(SuggestionDto::getType)
+                .containsExactly(AUTHOR);
+    }
+
+    @Test
+    void shouldIntersectMultipleTokens() {
+        assertThat(index.search("lord flies", 10))
+                .extracting(SuggestionDto::getLabel)
+                .containsExactly("Lord of the Flies");
+    }
+
+    @Test
+    void shouldRankLabelPrefixAboveWeight() {
+        assertThat(index.search("the", 10))
+                .extracting(SuggestionDto::getLabel)
+                .containsExactly("The Lord of the Rings", "The Hobbit", "Lord of the Flies");
+    }
+
+    @Test
+    void shouldIgnoreCaseAndDiacritics() {
+        assertThat(index.search("EDITIONS", 10))
+                .extracting(SuggestionDto::getLabel)
+                .containsExactly("Éditions Gallimard");
+    }
+
+    @Test
+    void shouldVerifyTokensLongerThanIndexedPrefix() {
+        assertThat(index.search("hobbits", 10)).isEmpty();
+        assertThat(index.search("hobbit", 10)).hasSize(1);
+    }
+
+    @Test
+    void shouldApplyLimit() {
+        assertThat(index.search("l", 1))
+                .extracting(SuggestionDto::getLabel)
+                .containsExactly("Lord of the Flies");
+    }
+
+    @Test
+    void shouldReplaceAndRemoveEntries() {
+        index.put(BOOK, "3", "The Silmarillion");
+        assertThat(index.search("hobbit", 10)).isEmpty();
+        assertThat(index.search("silm", 10)).extracting(SuggestionDto::getId).containsExactly("3");
+
+        index.remove(BOOK, "3");
+        assertThat(index.search("silm", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldPurgeReplacedEntries_withoutLosingLiveOnes() {
+        for (int i = 0; i < 1000; i++) {
+            index.put(BOOK, "3", "The Hobbit " + i);
+        }
+        index.remove(BOOK, "2");
+
+        assertThat(index.allocatedDocuments()).isLessThan(100);
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.search("hobbit 999", 10))
+                .extracting(SuggestionDto::getLabel)
+                .containsExactly("The Hobbit 999");
+        assertThat(index.search("hobbit 998", 10)).isEmpty();
+        assertThat(index.search("the", 10))
+                .extracting(SuggestionDto::getLabel)
+                .as("replacements keep the weight")
+                .containsExactly("The Lord of the Rings", "The Hobbit 999");
+    }
+}
@@ -0,0 +1,175 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.AuthTokenResponseDto;
+import com.bookstore.exception.RestTemplateResponseErrorHandler;
+import com.bookstore.service.impl.AuthTokenService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs {@link AuthTokenService} against a local stub of the Auth0 token endpoint that counts its requests.
+ */
+public class AuthTokenServiceTests {
+    private final ExecutorService stubExecutor = Executors.newCachedThreadPool();
+    private HttpServer tokenServer;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile Long expiresIn = 3600L;
+    private volatile long delayMillis;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tokenServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        tokenServer.setExecutor(stubExecutor);
+        tokenServer.createContext("/oauth/token", exchange -> {
+            int request = requests.incrementAndGet();
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            var expiry = expiresIn == null ? "" : ",\"expires_in\":" + expiresIn;
+            var body = String.format("{\"access_token\":\"token-%d\"%s,\"token_type\":\"Bearer\"}",
+                    request, expiry).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, status == 200 ? body.length : -1);
+            if (status == 200) {
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        tokenServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenServer.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Test
+    void shouldServeCachedToken_withRemainingLifetime() throws Exception {
+        var service = service(60_000, 0);
+
+        var first = service.getToken();
+        Thread.sleep(1100);
+        var second = service.getToken();
+
+        assertThat(requests).hasValue(1);
+        assertThat(second.access_token()).isEqualTo(first.access_token()).isEqualTo("token-1");
+        assertThat(first.expires_in()).isBetween(3599L, 3600L);
+        assertThat(second.expires_in()).isLessThan(first.expires_in());
+    }
+
+    @Test
+    void shouldShareOneRequest_betweenConcurrentCallers() throws Exception {
+        var service = service(60_000, 0);
+        delayMillis = 300;
+        int callers = 16;
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(callers);
+        List<Future<AuthTokenResponseDto>> tokens = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                tokens.add(executor.submit((Callable<AuthTokenResponseDto>) () -> {
+                    start.await();
+                    return service.getToken();
+                }));
+            }
+            start.countDown();
+            for (var token : tokens) {
+                assertThat(token.get().access_token()).isEqualTo("token-1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void shouldFetchNewToken_onceWithinExpiryMargin() throws Exception {
+        expiresIn = 2L;
+        var service = service(1000, 0);
+
+        assertThat(service.getToken().access_token()).isEqualTo("token-1");
+        assertThat(service.getToken().access_token()).isEqualTo("token-1");
+        Thread.sleep(1100);
+
+        assertThat(service.getToken().access_token()).isEqualTo("token-2");
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void shouldRenewInBackground_andKeepTokenWhenRenewalFails() {
+        var service = service(60_000, 3_600_000);
+        service.renewIfDue();
+        assertThat(requests).as("nothing to renew yet").hasValue(0);
+
+        service.getToken();
+        status = 500;
+        service.renewIfDue();
+        assertThat(service.getToken().access_token()).isEqualTo("token-1");
+
+        status = 200;
+        service.renewIfDue();
+        assertThat(service.getToken().access_token()).isEqualTo("token-3");
+        assertThat(requests).hasValue(3);
+    }
+
+    @Test
+    void shouldNotCacheFailure() {
+        var service = service(60_000, 0);
+        status = 401;
+
+        assertThatThrownBy(service::getToken)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED));
+
+        status = 200;
+        assertThat(service.getToken().access_token()).isEqualTo("token-2");
+    }
+
+    @Test
+    void shouldNotCacheToken_withoutExpiry() {
+        var service = service(60_000, 3_600_000);
+        expiresIn = null;
+
+        assertThat(service.getToken().access_token()).isEqualTo("token-1");
+        service.renewIfDue();
+        assertThat(requests).as("nothing cached to renew").hasValue(1);
+
+        expiresIn = 3600L;
+        assertThat(service.getToken().access_token()).isEqualTo("token-2");
+        assertThat(service.getToken().access_token()).isEqualTo("token-2");
+        assertThat(requests).hasValue(2);
+    }
+
+    private AuthTokenService service(long expiryMarginMillis, long renewAheadMillis) {
+        var restTemplate = new RestTemplateBuilder()
+                .errorHandler(new RestTemplateResponseErrorHandler())
+                .build();
+        var url = "http://localhost:" + tokenServer.getAddress().getPort() + "/oauth/token";
+        return new AuthTokenService(restTemplate, url, "client", "secret", "audience",
+                expiryMarginMillis, renewAheadMillis);
+    }
+}
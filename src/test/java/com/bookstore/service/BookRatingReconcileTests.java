@@ -0,0 +1,98 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.rating.RatingRequestDto;
+import com.bookstore.repository.BookRankingRepository;
+import com.bookstore.service.impl.BookRatingStatsService;
+import com.bookstore.support.CatalogFixtures;
+import com.bookstore.support.PostgresRepositoryTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reconciliation racing a rating write, with both committing for real instead of inside a test transaction.
+ */
+@PostgresRepositoryTest
+@Import({BookRatingStatsService.class, BookRankingRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BookRatingReconcileTests {
+    @Autowired
+    private BookRatingStatsService statsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        new CatalogFixtures(jdbcTemplate)
+                .authors(1)
+                .publishers(1)
+                .books(1, 1)
+                .users(2);
+        jdbcTemplate.update("INSERT INTO ratings(user_id, book_isbn, score) VALUES (1, 'ISBN-1', 5)");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE ratings, books, authors, publishers, users, address CASCADE");
+    }
+
+    @Test
+    void shouldKeepRatingWrittenWhileRepairingItsBook() throws Exception {
+        // drifted, so reconciliation rewrites the row
+        jdbcTemplate.update("UPDATE books SET ratings_count = 7, ratings_sum = 70 WHERE isbn = 'ISBN-1'");
+        var written = new CountDownLatch(1);
+        var commit = new CountDownLatch(1);
+        var writer = CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> {
+                    statsService.saveRatings(List.of(new RatingRequestDto("ISBN-1", 2L, 9)));
+                    written.countDown();
+                    await(commit);
+                }));
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+
+        var reconcile = CompletableFuture.runAsync(statsService::reconcile);
+        awaitLockWait();
+        commit.countDown();
+        writer.get(10, TimeUnit.SECONDS);
+        reconcile.get(10, TimeUnit.SECONDS);
+
+        var aggregates = jdbcTemplate.queryForMap(
+                "SELECT ratings_count, ratings_sum FROM books WHERE isbn = 'ISBN-1'");
+        assertThat(aggregates).containsEntry("ratings_count", 2).containsEntry("ratings_sum", 14L);
+    }
+
+    private void awaitLockWait() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_stat_activity WHERE wait_event_type = 'Lock'", Integer.class) == 0) {
+            assertThat(System.nanoTime()).as("reconciliation waiting for the book row").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.bookstore.service;
+
+import com.bookstore.controller.filters.BookFilter;
+import com.bookstore.controller.filters.TopBooksFilter;
+import com.bookstore.dto.book.BookDto;
+import com.bookstore.dto.rating.RatingRequestDto;
+import com.bookstore.entity.Rating;
+import com.bookstore.repository.BookRankingRepository;
+import com.bookstore.repository.ConditionalUpdateRepository;
+import com.bookstore.service.impl.BookRatingStatsService;
+import com.bookstore.service.impl.BookServiceImpl;
+import com.bookstore.service.impl.KeysetPager;
+import com.bookstore.service.impl.RatingWriteBuffer;
+import com.bookstore.support.CatalogFixtures;
+import com.bookstore.support.PostgresRepositoryTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@PostgresRepositoryTest
+@Import({BookRatingStatsService.class, BookRankingRepository.class, ConditionalUpdateRepository.class, BookServiceImpl.class, KeysetPager.class})
+public class BookRatingStatsTests {
+    @MockBean
+    private RatingWriteBuffer ratingWriteBuffer;
+
+    // ranking.weighted.prior-votes from application.yml
+    private static final int PRIOR_VOTES = 10;
+
+    @Autowired
+    private BookRatingStatsService statsService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRankingRepository rankingRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        new CatalogFixtures(jdbcTemplate)
+                .authors(2)
+                .publishers(2)
+                .books(3, 2)
+                .users(30);
+        // ISBN-1: a single 10/10 vote, ISBN-2: 20 votes of 9, ISBN-3: 20 votes of 5
+        jdbcTemplate.update("INSERT INTO ratings(user_id, book_isbn, score) VALUES (1, 'ISBN-1', 10)");
+        jdbcTemplate.update("INSERT INTO ratings(user_id, book_isbn, score) " +
+                "SELECT u, 'ISBN-2', 9 FROM generate_series(1, 20) u");
+        jdbcTemplate.update("INSERT INTO ratings(user_id, book_isbn, score) " +
+                "SELECT u, 'ISBN-3', 5 FROM generate_series(1, 20) u");
+        statsService.reconcile();
+    }
+
+    @Test
+    void shouldRankWellEstablishedBookAboveSingleVote() {
+        double mean = (10 + 20 * 9 + 20 * 5) / 41.0;
+        var top = bookService.findTopRated(new TopBooksFilter(), 10);
+
+        assertThat(top).extracting(BookDto::getIsbn).containsExactly("ISBN-2", "ISBN-1", "ISBN-3");
+        assertThat(top.get(0).getWeightedRating())
+                .isCloseTo((20 * 9 + PRIOR_VOTES * mean) / (20 + PRIOR_VOTES), within(1e-9));
+        assertThat(top.get(1).getWeightedRating())
+                .isCloseTo((10 + PRIOR_VOTES * mean) / (1 + PRIOR_VOTES), within(1e-9));
+        assertThat(top.get(1).getRating()).isEqualTo(10.0);
+        assertThat(top.get(1).getRatingsCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldApplyMinVotesAndScopes() {
+        var filter = TopBooksFilter.builder().minVotes(2).build();
+        assertThat(bookService.findTopRated(filter, 10))
+                .extracting(BookDto::getIsbn)
+                .containsExactly("ISBN-2", "ISBN-3");
+
+        // books are assigned to author 1 + i % 2: ISBN-1 and ISBN-3 belong to author 2
+        var byAuthor = TopBooksFilter.builder().authorId(2L).build();
+        assertThat(bookService.findTopRated(byAuthor, 10))
+                .extracting(BookDto::getIsbn)
+                .containsExactly("ISBN-1", "ISBN-3");
+    }
+
+    @Test
+    void shouldRefreshOnlyTouchedBooks() {
+        jdbcTemplate.update("INSERT INTO ratings(user_id, book_isbn, score) " +
+                "SELECT u, 'ISBN-1', 2 FROM generate_series(2, 30) u");
+        statsService.refreshBooks(List.of("ISBN-1"));
+
+        var book = bookService.findByIsbn("ISBN-1").content();
+        assertThat(book.getRatingsCount()).isEqualTo(30);
+        assertThat(bookService.findTopRated(new TopBooksFilter(), 10))
+                .extracting(BookDto::getIsbn)
+                .containsExactly("ISBN-2", "ISBN-3", "ISBN-1");
+    }
+
+    @Test
+    void shouldMoveAggregatesByScoreDifference_whenSavingRatings() {
+        double mean = rankingRepo.findGlobalMeanRating();
+        var updated = statsService.saveRatings(List.of(
+                new RatingRequestDto("ISBN-1", 1L, 4),
+                new RatingRequestDto("ISBN-1", 2L, 7),
+                new RatingRequestDto("ISBN-2", 21L, 9)));
+
+        assertThat(updated).containsExactly(new Rating.BookRatingPrimaryKey(1L, "ISBN-1"));
+        assertThat(bookService.findByIsbn("ISBN-1").content())
+                .extracting(BookDto::getRatingsCount, BookDto::getRating)
+                .containsExactly(2L, 5.5);
+        assertThat(bookService.findByIsbn("ISBN-2").content().getRatingsCount()).isEqualTo(21);
+        assertThat(rankingRepo.reconcileAggregates()).isZero();
+        assertThat(rankingRepo.updateWeightedRatings(PRIOR_VOTES, mean)).isZero();
+    }
+
+    @Test
+    void shouldSortBookListingByWeightedRating() {
+        var page = bookService.findAll(new BookFilter(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "weightedRating")));
+
+        assertThat(page.getContent()).extracting(BookDto::getIsbn).containsExactly("ISBN-2", "ISBN-1", "ISBN-3");
+    }
+}
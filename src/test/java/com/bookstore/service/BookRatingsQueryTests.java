@@ -0,0 +1,91 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.rating.BookRatingDto;
+import com.bookstore.repository.BookRankingRepository;
+import com.bookstore.repository.ConditionalUpdateRepository;
+import com.bookstore.service.impl.BookServiceImpl;
+import com.bookstore.service.impl.KeysetPager;
+import com.bookstore.service.impl.RatingWriteBuffer;
+import com.bookstore.support.CatalogFixtures;
+import com.bookstore.support.PostgresRepositoryTest;
+import com.bookstore.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@PostgresRepositoryTest
+@Import({BookServiceImpl.class, KeysetPager.class, BookRankingRepository.class, ConditionalUpdateRepository.class})
+public class BookRatingsQueryTests {
+    @MockBean
+    private RatingWriteBuffer ratingWriteBuffer;
+
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private SqlStatementCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        new CatalogFixtures(jdbcTemplate)
+                .authors(1)
+                .publishers(1)
+                .books(2, 1)
+                .users(250)
+                .ratings(250, 2);
+        counter = new SqlStatementCounter(entityManager.getEntityManagerFactory());
+        entityManager.clear();
+        counter.reset();
+    }
+
+    @Test
+    void shouldReadRatingsPage_withoutLoadingUsers() {
+        var page = bookService.findRatingsByBookIsbn("ISBN-1", PageRequest.of(0, 100));
+
+        assertThat(page.getContent()).hasSize(100);
+        assertThat(page.getTotalElements()).isEqualTo(250);
+        assertThat(counter.statements()).isEqualTo(2);
+        assertThat(counter.entityLoads()).isZero();
+        assertThat(page.getContent()).extracting(BookRatingDto::getUserId).isSorted();
+    }
+
+    @Test
+    void shouldReadRatingsAfterUser_withSingleStatement() {
+        var firstUserId = jdbcTemplate.queryForObject(
+                "SELECT MIN(user_id) FROM ratings WHERE book_isbn = 'ISBN-1'", Long.class);
+
+        var slice = bookService.findRatingsByBookIsbnAfter("ISBN-1", firstUserId, 100);
+
+        assertThat(slice.getContent()).hasSize(100);
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(slice.getContent().get(0).getUserId()).isGreaterThan(firstUserId);
+        assertThat(slice.getContent()).extracting(BookRatingDto::getUserId).isSorted();
+        assertThat(counter.statements()).isEqualTo(1);
+        assertThat(counter.entityLoads()).isZero();
+    }
+
+    @Test
+    void shouldReadLastRatingsSlice_withoutNext() {
+        var lastUserIds = jdbcTemplate.queryForList(
+                "SELECT user_id FROM ratings WHERE book_isbn = 'ISBN-1' ORDER BY user_id LIMIT 11 OFFSET 239", Long.class);
+
+        var slice = bookService.findRatingsByBookIsbnAfter("ISBN-1", lastUserIds.get(0), 10);
+
+        assertThat(slice.getContent()).extracting(BookRatingDto::getUserId)
+                .containsExactlyElementsOf(lastUserIds.subList(1, 11));
+        assertThat(slice.hasNext()).isFalse();
+    }
+}
@@ -0,0 +1,93 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.author.AuthorDto;
+import com.bookstore.dto.book.BookRequestDto;
+import com.bookstore.dto.publisher.PublisherDto;
+import com.bookstore.repository.BookRankingRepository;
+import com.bookstore.repository.ConditionalUpdateRepository;
+import com.bookstore.service.impl.BookRatingStatsService;
+import com.bookstore.service.impl.BookServiceImpl;
+import com.bookstore.service.impl.BulkWriteService;
+import com.bookstore.service.impl.KeysetPager;
+import com.bookstore.service.impl.RatingWriteBuffer;
+import com.bookstore.support.CatalogFixtures;
+import com.bookstore.support.PostgresRepositoryTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Book creation throughput, one committed {@code BookService.create} per book versus {@code /bulk} batches of
+ * {@code bulk.max-items}. Statements are committed like in production, so the tables are cleaned afterwards.
+ * <p>
+ * Not part of the regular build; run with {@code mvn test -Dtest=BulkWriteBenchmark -Dbenchmark=true}.
+ */
+@PostgresRepositoryTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BookServiceImpl.class, KeysetPager.class, BulkWriteService.class, RatingWriteBuffer.class, BookRatingStatsService.class, BookRankingRepository.class, ConditionalUpdateRepository.class,
+        LocalValidatorFactoryBean.class})
+public class BulkWriteBenchmark {
+    private static final int BOOKS = 5_000;
+    private static final int BATCH = 1_000;
+    private static final int AUTHORS = 500;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BulkWriteService bulkWriteService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void benchmark() {
+        new CatalogFixtures(jdbcTemplate).authors(AUTHORS).publishers(AUTHORS);
+
+        long start = System.nanoTime();
+        books("SINGLE-").forEach(bookService::create);
+        double singleMillis = (System.nanoTime() - start) / 1e6;
+
+        var bulkBooks = books("BULK-");
+        start = System.nanoTime();
+        for (int from = 0; from < BOOKS; from += BATCH) {
+            var result = bulkWriteService.createBooks(bulkBooks.subList(from, Math.min(from + BATCH, BOOKS)));
+            assertThat(result.getFailed()).isZero();
+        }
+        double bulkMillis = (System.nanoTime() - start) / 1e6;
+
+        System.out.printf("%-8s %12s %14s%n", "mode", "total ms", "books/s");
+        System.out.printf("%-8s %12.0f %14.0f%n", "single", singleMillis, BOOKS / singleMillis * 1000);
+        System.out.printf("%-8s %12.0f %14.0f%n", "bulk", bulkMillis, BOOKS / bulkMillis * 1000);
+        System.out.printf("speedup x%.1f%n", singleMillis / bulkMillis);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE ratings, books, authors, publishers CASCADE");
+    }
+
+    private List<BookRequestDto> books(String isbnPrefix) {
+        return IntStream.range(0, BOOKS)
+                .mapToObj(i -> BookRequestDto.builder()
+                        .isbn(isbnPrefix + i)
+                        .title("Title " + i)
+                        .author(new AuthorDto(1L + i % AUTHORS, null))
+                        .publisher(new PublisherDto(1L + i % AUTHORS, null))
+                        .year(1990 + i % 30)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,118 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.author.AuthorDto;
+import com.bookstore.dto.author.AuthorRequestDto;
+import com.bookstore.dto.book.BookRequestDto;
+import com.bookstore.dto.bulk.BulkItemResultDto;
+import com.bookstore.dto.bulk.BulkItemStatus;
+import com.bookstore.dto.publisher.PublisherDto;
+import com.bookstore.dto.rating.RatingRequestDto;
+import com.bookstore.repository.BookRankingRepository;
+import com.bookstore.service.impl.BookRatingStatsService;
+import com.bookstore.service.impl.BulkWriteService;
+import com.bookstore.support.CatalogFixtures;
+import com.bookstore.support.PostgresRepositoryTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@PostgresRepositoryTest
+@Import({BulkWriteService.class, BookRatingStatsService.class, BookRankingRepository.class,
+        LocalValidatorFactoryBean.class})
+public class BulkWriteServiceTests {
+
+    @Autowired
+    private BulkWriteService bulkWriteService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        new CatalogFixtures(jdbcTemplate)
+                .authors(2)
+                .publishers(2)
+                .books(2, 2)
+                .users(2);
+    }
+
+    @Test
+    void shouldCreateValidAuthors_andReportTheRest() {
+        var result = bulkWriteService.createAuthors(Arrays.asList(
+                new AuthorRequestDto("New Author"),
+                new AuthorRequestDto("Author 1"),
+                new AuthorRequestDto(" "),
+                new AuthorRequestDto("New Author"),
+                null));
+
+        assertThat(result.getSucceeded()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(4);
+        assertThat(result.getItems()).extracting(BulkItemResultDto::getIndex, BulkItemResultDto::getStatus)
+                .containsExactly(
+                        tuple(0, BulkItemStatus.CREATED),
+                        tuple(1, BulkItemStatus.CONFLICT),
+                        tuple(2, BulkItemStatus.INVALID),
+                        tuple(3, BulkItemStatus.CONFLICT),
+                        tuple(4, BulkItemStatus.INVALID));
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM authors WHERE id = ?", String.class,
+                result.getItems().get(0).getId())).isEqualTo("New Author");
+    }
+
+    @Test
+    void shouldCreateBooks_whenAuthorAndPublisherExist() {
+        var result = bulkWriteService.createBooks(List.of(
+                book("NEW-1", 1L, 1L),
+                book("ISBN-1", 1L, 1L),
+                book("NEW-2", 99L, 1L),
+                book("NEW-3", 2L, 99L),
+                book("NEW-4", 2L, 2L)));
+
+        assertThat(result.getItems()).extracting(BulkItemResultDto::getStatus, BulkItemResultDto::getId)
+                .containsExactly(
+                        tuple(BulkItemStatus.CREATED, "NEW-1"),
+                        tuple(BulkItemStatus.CONFLICT, null),
+                        tuple(BulkItemStatus.NOT_FOUND, null),
+                        tuple(BulkItemStatus.NOT_FOUND, null),
+                        tuple(BulkItemStatus.CREATED, "NEW-4"));
+        assertThat(result.getItems().get(3).getError()).isEqualTo("Publisher not found by id: 99");
+        assertThat(jdbcTemplate.queryForList("SELECT isbn FROM books WHERE isbn LIKE 'NEW-%' ORDER BY isbn",
+                String.class)).containsExactly("NEW-1", "NEW-4");
+    }
+
+    @Test
+    void shouldUpsertRatings_andUpdateAggregates() {
+        bulkWriteService.saveRatings(List.of(new RatingRequestDto("ISBN-1", 1L, 2)));
+
+        var result = bulkWriteService.saveRatings(List.of(
+                new RatingRequestDto("ISBN-1", 1L, 8),
+                new RatingRequestDto("ISBN-1", 2L, 6),
+                new RatingRequestDto("ISBN-2", 99L, 6),
+                new RatingRequestDto("ISBN-2", 1L, 11)));
+
+        assertThat(result.getItems()).extracting(BulkItemResultDto::getStatus)
+                .containsExactly(BulkItemStatus.UPDATED, BulkItemStatus.CREATED,
+                        BulkItemStatus.NOT_FOUND, BulkItemStatus.INVALID);
+        var stats = jdbcTemplate.queryForMap("SELECT ratings_count, ratings_sum FROM books WHERE isbn = 'ISBN-1'");
+        assertThat(stats.get("ratings_count")).isEqualTo(2);
+        assertThat(stats.get("ratings_sum")).isEqualTo(14L);
+    }
+
+    private BookRequestDto book(String isbn, Long authorId, Long publisherId) {
+        return BookRequestDto.builder()
+                .isbn(isbn)
+                .title("Title " + isbn)
+                .author(new AuthorDto(authorId, null))
+                .publisher(new PublisherDto(publisherId, null))
+                .year(2001)
+                .build();
+    }
+}
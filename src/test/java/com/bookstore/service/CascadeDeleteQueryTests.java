@@ -0,0 +1,107 @@
+package com.bookstore.service;
+
+import com.bookstore.exception.ResourceNotFoundException;
+import com.bookstore.repository.BookRankingRepository;
+import com.bookstore.repository.ConditionalUpdateRepository;
+import com.bookstore.service.impl.BookRatingStatsService;
+import com.bookstore.service.impl.BookServiceImpl;
+import com.bookstore.service.impl.KeysetPager;
+import com.bookstore.service.impl.RatingWriteBuffer;
+import com.bookstore.service.impl.UserServiceImpl;
+import com.bookstore.support.CatalogFixtures;
+import com.bookstore.support.PostgresRepositoryTest;
+import com.bookstore.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@PostgresRepositoryTest
+@Import({BookServiceImpl.class, UserServiceImpl.class, KeysetPager.class, BookRatingStatsService.class, BookRankingRepository.class, ConditionalUpdateRepository.class})
+public class CascadeDeleteQueryTests {
+    private static final int PRIOR_VOTES = 10;
+
+    @MockBean
+    private RatingWriteBuffer ratingWriteBuffer;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookRatingStatsService statsService;
+
+    @Autowired
+    private BookRankingRepository rankingRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private SqlStatementCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        // 300 users rate ISBN-1..3; users 1 and 2 also touched books 4 and 5 without rating them
+        new CatalogFixtures(jdbcTemplate)
+                .authors(1)
+                .publishers(1)
+                .books(5, 1)
+                .users(300)
+                .ratings(300, 3);
+        jdbcTemplate.update("INSERT INTO implicit_interactions(user_id, book_ids) VALUES (1, '{4,5}'), (2, '{4}')");
+        statsService.reconcile();
+        counter = new SqlStatementCounter(entityManager.getEntityManagerFactory());
+        entityManager.clear();
+        counter.reset();
+    }
+
+    @Test
+    void shouldDeleteBookWithItsRatings_withSingleStatement() {
+        bookService.delete("ISBN-1");
+
+        assertThat(counter.statements()).isEqualTo(1);
+        assertThat(counter.entityLoads()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ratings WHERE book_isbn = 'ISBN-1'", Long.class))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ratings", Long.class)).isEqualTo(600);
+    }
+
+    @Test
+    void shouldDeleteUser_andSubtractRatingsFromAggregates() {
+        var mean = rankingRepo.findGlobalMeanRating();
+
+        userService.delete(1L);
+
+        // lock, address and user deletes; the two aggregate updates run through JDBC and are not counted
+        assertThat(counter.statements()).isEqualTo(3);
+        assertThat(counter.entityLoads()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ratings WHERE user_id = 1", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM address WHERE user_id = 1", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM implicit_interactions WHERE user_id = 1", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT ratings_count FROM books WHERE isbn = 'ISBN-1'", Integer.class)).isEqualTo(299);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT implicit_count FROM books WHERE isbn = 'ISBN-4'", Integer.class)).isEqualTo(1);
+        assertThat(rankingRepo.reconcileAggregates()).isZero();
+        assertThat(rankingRepo.reconcileImplicitCounts()).isZero();
+        assertThat(rankingRepo.updateWeightedRatings(PRIOR_VOTES, mean)).isZero();
+    }
+
+    @Test
+    void shouldRejectDeletesOfMissingBookAndUser() {
+        assertThatThrownBy(() -> bookService.delete("UNKNOWN")).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> userService.delete(1000L)).isInstanceOf(ResourceNotFoundException.class);
+    }
+}
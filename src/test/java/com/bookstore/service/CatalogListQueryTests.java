@@ -0,0 +1,123 @@
+package com.bookstore.service;
+
+import com.bookstore.controller.filters.BookFilter;
+import com.bookstore.dto.book.BookDto;
+import com.bookstore.repository.BookRankingRepository;
+import com.bookstore.repository.ConditionalUpdateRepository;
+import com.bookstore.service.impl.AuthorServiceImpl;
+import com.bookstore.service.impl.BookServiceImpl;
+import com.bookstore.service.impl.KeysetPager;
+import com.bookstore.service.impl.RatingWriteBuffer;
+import com.bookstore.service.impl.PublisherServiceImpl;
+import com.bookstore.support.CatalogFixtures;
+import com.bookstore.support.PostgresRepositoryTest;
+import com.bookstore.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@PostgresRepositoryTest
+@Import({BookServiceImpl.class, KeysetPager.class, AuthorServiceImpl.class, PublisherServiceImpl.class, BookRankingRepository.class, ConditionalUpdateRepository.class})
+public class CatalogListQueryTests {
+    @MockBean
+    private RatingWriteBuffer ratingWriteBuffer;
+
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private PublisherService publisherService;
+
+    @Autowired
+    private BookRankingRepository rankingRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private SqlStatementCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        new CatalogFixtures(jdbcTemplate)
+                .authors(3)
+                .publishers(3)
+                .books(30, 3)
+                .users(4)
+                .ratings(4, 5);
+        // the fixtures insert ratings directly; listings read the per-book aggregates the writers maintain
+        rankingRepo.reconcileAggregates();
+        counter = new SqlStatementCounter(entityManager.getEntityManagerFactory());
+        entityManager.clear();
+        counter.reset();
+    }
+
+    @Test
+    void shouldReadLastBooksPage_withSingleStatement() {
+        var page = bookService.findAll(new BookFilter(), PageRequest.of(0, 50, Sort.by("isbn")));
+
+        assertThat(page.getTotalElements()).isEqualTo(30);
+        assertThat(counter.statements()).isEqualTo(1);
+        assertThat(counter.entityLoads()).isZero();
+
+        var book = page.getContent().stream()
+                .filter(dto -> dto.getIsbn().equals("ISBN-1"))
+                .findFirst().orElseThrow();
+        assertThat(book.getAuthor().getName()).isEqualTo("Author 2");
+        assertThat(book.getPublisher().getName()).isEqualTo("Publisher 2");
+        // users 1..4 rate ISBN-1 with 1 + (u + 1) % 10 -> 3, 4, 5, 6
+        assertThat(book.getRating()).isEqualTo(4.5);
+    }
+
+    @Test
+    void shouldReadBooksPage_withContentAndCountStatements() {
+        var page = bookService.findAll(new BookFilter(), PageRequest.of(1, 10, Sort.by("title")));
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(30);
+        assertThat(counter.statements()).isEqualTo(2);
+        assertThat(counter.entityLoads()).isZero();
+        // titles sort as text: page 1 is "Book 19", "Book 2", "Book 20" ... "Book 27"
+        assertThat(page.getContent())
+                .extracting(BookDto::getTitle, BookDto::getRating)
+                .startsWith(tuple("Book 19", 0.0), tuple("Book 2", 5.5), tuple("Book 20", 0.0));
+    }
+
+    @Test
+    void shouldFilterBooksByAuthorAndPublisher_withoutExtraStatements() {
+        var filter = new BookFilter(null, 2L, 2L, null);
+        var page = bookService.findAll(filter, PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "year")));
+
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(page.getContent())
+                .allSatisfy(dto -> assertThat(dto.getAuthor().getId()).isEqualTo(2L));
+        assertThat(counter.statements()).isEqualTo(2);
+        assertThat(counter.entityLoads()).isZero();
+    }
+
+    @Test
+    void shouldReadAuthorsAndPublishers_withoutEntityLoads() {
+        var authors = authorService.findAll(PageRequest.of(0, 10, Sort.by("name")));
+        var publishers = publisherService.findAll(PageRequest.of(0, 10, Sort.by("name")));
+
+        assertThat(authors.getContent()).hasSize(3);
+        assertThat(publishers.getContent()).hasSize(3);
+        assertThat(counter.statements()).isEqualTo(2);
+        assertThat(counter.entityLoads()).isZero();
+    }
+}
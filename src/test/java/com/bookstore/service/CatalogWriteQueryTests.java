@@ -0,0 +1,128 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.author.AuthorDto;
+import com.bookstore.dto.book.BookRequestDto;
+import com.bookstore.dto.publisher.PublisherDto;
+import com.bookstore.exception.ConflictException;
+import com.bookstore.repository.BookRankingRepository;
+import com.bookstore.repository.ConditionalUpdateRepository;
+import com.bookstore.service.impl.AuthorServiceImpl;
+import com.bookstore.service.impl.BookServiceImpl;
+import com.bookstore.service.impl.KeysetPager;
+import com.bookstore.service.impl.PublisherServiceImpl;
+import com.bookstore.service.impl.RatingWriteBuffer;
+import com.bookstore.support.CatalogFixtures;
+import com.bookstore.support.PostgresRepositoryTest;
+import com.bookstore.support.SqlStatementCounter;
+import com.bookstore.support.StatementRecorder;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@PostgresRepositoryTest
+@Import({BookServiceImpl.class, KeysetPager.class, AuthorServiceImpl.class, PublisherServiceImpl.class, BookRankingRepository.class, ConditionalUpdateRepository.class,
+        StatementRecorder.class})
+public class CatalogWriteQueryTests {
+    @MockBean
+    private RatingWriteBuffer ratingWriteBuffer;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private PublisherService publisherService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private StatementRecorder recorder;
+
+    private SqlStatementCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        // authors and publishers 1 and 2 own 200 books each, 3 owns none
+        new CatalogFixtures(jdbcTemplate)
+                .authors(3)
+                .publishers(3)
+                .books(400, 2);
+        counter = new SqlStatementCounter(entityManager.getEntityManagerFactory());
+        entityManager.clear();
+        counter.reset();
+    }
+
+    @Test
+    void shouldCreateBook_withoutLoadingBooksOfAuthorOrPublisher() {
+        var book = bookService.create(BookRequestDto.builder()
+                .isbn("ISBN-NEW")
+                .title("New book")
+                .author(new AuthorDto(1L, null))
+                .publisher(new PublisherDto(2L, null))
+                .year(2020)
+                .build());
+        entityManager.flush();
+
+        assertThat(book.getAuthor().getName()).isEqualTo("Author 1");
+        // isbn check, author, publisher, book id, insert; the rating comes from the new row's aggregates
+        assertThat(counter.statements()).isEqualTo(5);
+        assertThat(counter.entityLoads()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT author_id FROM books WHERE isbn = 'ISBN-NEW'", Long.class))
+                .isEqualTo(1L);
+    }
+
+    @Test
+    void shouldMoveBookToAnotherAuthor_withSingleConditionalUpdate() {
+        var statements = recorder.record(() -> bookService.update("ISBN-1", BookRequestDto.builder()
+                .isbn("ISBN-1")
+                .title("Book 1")
+                .author(new AuthorDto(1L, null))
+                .publisher(new PublisherDto(2L, null))
+                .year(2001)
+                .build(), 0L));
+
+        assertThat(statements).hasSize(1);
+        assertThat(counter.entityLoads()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT author_id FROM books WHERE isbn = 'ISBN-1'", Long.class))
+                .isEqualTo(1L);
+    }
+
+    @Test
+    void shouldRejectAuthorDelete_withOneExistsQuery() {
+        assertThatThrownBy(() -> authorService.delete(1L)).isInstanceOf(ConflictException.class);
+
+        assertThat(counter.statements()).isEqualTo(2);
+        assertThat(counter.entityLoads()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectPublisherDelete_withOneExistsQuery() {
+        assertThatThrownBy(() -> publisherService.delete(2L)).isInstanceOf(ConflictException.class);
+
+        assertThat(counter.statements()).isEqualTo(2);
+        assertThat(counter.entityLoads()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDeleteAuthorWithoutBooks() {
+        authorService.delete(3L);
+        entityManager.flush();
+
+        assertThat(counter.statements()).isEqualTo(3);
+        assertThat(counter.entityLoads()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM authors WHERE id = 3", Long.class)).isZero();
+    }
+}
@@ -0,0 +1,141 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.user.UserRequestDto;
+import com.bookstore.exception.PreconditionFailedException;
+import com.bookstore.repository.BookRankingRepository;
+import com.bookstore.repository.ConditionalUpdateRepository;
+import com.bookstore.repository.UserRepository;
+import com.bookstore.service.impl.BookRatingStatsService;
+import com.bookstore.service.impl.KeysetPager;
+import com.bookstore.service.impl.UserServiceImpl;
+import com.bookstore.support.CatalogFixtures;
+import com.bookstore.support.PostgresRepositoryTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@code THREADS} editors incrementing the age of a few hot users, then of many users, through read-modify-write
+ * as the PUT endpoints see it: last write wins, {@code If-Match} with a retry on 412, and a pessimistic row lock
+ * held across the read and the write. Reports throughput, retries and increments lost.
+ * <p>
+ * Not part of the regular build; run with {@code mvn test -Dtest=ConcurrentUpdateBenchmark -Dbenchmark=true}.
+ */
+@PostgresRepositoryTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserServiceImpl.class, KeysetPager.class, BookRatingStatsService.class, BookRankingRepository.class,
+        ConditionalUpdateRepository.class})
+public class ConcurrentUpdateBenchmark {
+    private static final int HOT_USERS = 4;
+    private static final int USERS = 400;
+    private static final int UPDATES = 4_000;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicLong retries = new AtomicLong();
+
+    @Test
+    void benchmark() throws Exception {
+        new CatalogFixtures(jdbcTemplate).users(USERS);
+        var transaction = new TransactionTemplate(transactionManager);
+        LongConsumer unconditional = userId -> {
+            var user = userService.findById(userId).content();
+            userService.update(userId, incrementAge(user.getAge()), null);
+        };
+        LongConsumer ifMatch = userId -> {
+            while (true) {
+                var user = userService.findById(userId);
+                try {
+                    userService.update(userId, incrementAge(user.content().getAge()), user.version());
+                    return;
+                } catch (PreconditionFailedException ex) {
+                    retries.incrementAndGet();
+                }
+            }
+        };
+        LongConsumer pessimistic = userId -> transaction.executeWithoutResult(status -> {
+            userRepo.lockById(userId);
+            var user = userService.findById(userId).content();
+            userService.update(userId, incrementAge(user.getAge()), null);
+        });
+        burst(USERS, unconditional);
+
+        System.out.printf("%-12s %6s %10s %12s %10s %10s%n", "mode", "users", "total ms", "updates/s", "retries", "lost");
+        for (int users : new int[]{HOT_USERS, USERS}) {
+            run("unconditional", users, unconditional);
+            run("if-match", users, ifMatch);
+            run("pessimistic", users, pessimistic);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE users, address CASCADE");
+    }
+
+    private void run(String mode, int users, LongConsumer update) throws Exception {
+        jdbcTemplate.update("UPDATE users SET age = 0, version = 0");
+        retries.set(0);
+        long start = System.nanoTime();
+        burst(users, update);
+        double millis = (System.nanoTime() - start) / 1e6;
+
+        var applied = jdbcTemplate.queryForObject("SELECT SUM(age) FROM users", Long.class);
+        long lost = UPDATES - applied;
+        if (!mode.equals("unconditional")) {
+            assertThat(lost).as(mode).isZero();
+        }
+        System.out.printf("%-12s %6d %10.0f %12.0f %10d %10d%n", mode, users, millis, UPDATES / millis * 1000, retries.get(), lost);
+    }
+
+    private void burst(int users, LongConsumer update) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = IntStream.range(0, THREADS)
+                    .<Future<?>>mapToObj(thread -> pool.submit(() -> {
+                        for (int i = thread; i < UPDATES; i += THREADS) {
+                            update.accept(1L + i % users);
+                        }
+                    }))
+                    .toList();
+            for (var future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static UserRequestDto incrementAge(Integer age) {
+        return UserRequestDto.builder().age(age + 1).build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.author.AuthorDto;
+import com.bookstore.dto.author.AuthorUpdateRequestDto;
+import com.bookstore.dto.book.BookRequestDto;
+import com.bookstore.dto.publisher.PublisherDto;
+import com.bookstore.dto.user.UserRequestDto;
+import com.bookstore.exception.ConflictException;
+import com.bookstore.exception.PreconditionFailedException;
+import com.bookstore.exception.ResourceNotFoundException;
+import com.bookstore.repository.BookRankingRepository;
+import com.bookstore.repository.ConditionalUpdateRepository;
+import com.bookstore.service.impl.AuthorServiceImpl;
+import com.bookstore.service.impl.BookRatingStatsService;
+import com.bookstore.service.impl.BookServiceImpl;
+import com.bookstore.service.impl.KeysetPager;
+import com.bookstore.service.impl.RatingWriteBuffer;
+import com.bookstore.service.impl.UserServiceImpl;
+import com.bookstore.support.CatalogFixtures;
+import com.bookstore.support.PostgresRepositoryTest;
+import com.bookstore.support.StatementRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@PostgresRepositoryTest
+@Import({AuthorServiceImpl.class, BookServiceImpl.class, UserServiceImpl.class, KeysetPager.class,
+        BookRatingStatsService.class, BookRankingRepository.class, ConditionalUpdateRepository.class, StatementRecorder.class})
+public class ConditionalUpdateTests {
+    @MockBean
+    private RatingWriteBuffer ratingWriteBuffer;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatementRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        new CatalogFixtures(jdbcTemplate)
+                .authors(2)
+                .publishers(1)
+                .books(2, 1)
+                .users(2);
+    }
+
+    @Test
+    void shouldUpdateAuthor_whenVersionMatches_withSingleStatement() {
+        var statements = recorder.record(() -> {
+            var updated = authorService.update(1L, new AuthorUpdateRequestDto(1L, "Renamed"), 0L);
+            assertThat(updated.content().getName()).isEqualTo("Renamed");
+            assertThat(updated.version()).isEqualTo(1L);
+        });
+
+        assertThat(statements).hasSize(1);
+        assertThat(authorService.findById(1L).version()).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldRejectAuthorUpdate_whenVersionIsStale() {
+        authorService.update(1L, new AuthorUpdateRequestDto(1L, "First writer"), 0L);
+
+        assertThatThrownBy(() -> authorService.update(1L, new AuthorUpdateRequestDto(1L, "Second writer"), 0L))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM authors WHERE id = 1", String.class))
+                .isEqualTo("First writer");
+    }
+
+    @Test
+    void shouldUpdateAuthorWithAnyVersion_whenNoVersionIsExpected() {
+        jdbcTemplate.update("UPDATE authors SET version = 7 WHERE id = 1");
+
+        var updated = authorService.update(1L, new AuthorUpdateRequestDto(1L, "Renamed"), null);
+
+        assertThat(updated.version()).isEqualTo(8L);
+    }
+
+    @Test
+    void shouldReportNameConflictAndMissingAuthor_beforeStaleVersion() {
+        assertThatThrownBy(() -> authorService.update(1L, new AuthorUpdateRequestDto(1L, "Author 2"), 0L))
+                .isInstanceOf(ConflictException.class);
+        assertThatThrownBy(() -> authorService.update(100L, new AuthorUpdateRequestDto(100L, "Renamed"), 0L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void shouldUpdateBook_andRejectMissingPublisher() {
+        var updated = bookService.update("ISBN-1", book(2L, 1L), 0L);
+
+        assertThat(updated.content().getAuthor()).isEqualTo(new AuthorDto(2L, "Author 2"));
+        assertThat(updated.version()).isEqualTo(1L);
+        assertThatThrownBy(() -> bookService.update("ISBN-2", book(2L, 100L), 0L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Publisher");
+    }
+
+    @Test
+    void shouldUpdateUser_keepingAddressFieldsLeftOut_andCreatingMissingAddress() {
+        var updated = userService.update(1L, UserRequestDto.builder().city("New city").age(40).build(), 0L);
+
+        assertThat(updated.content().getCity()).isEqualTo("New city");
+        assertThat(updated.content().getCountry()).isEqualTo("Country 1");
+        assertThat(updated.content().getAge()).isEqualTo(40);
+
+        jdbcTemplate.update("DELETE FROM address WHERE user_id = 2");
+        var withAddress = userService.update(2L, UserRequestDto.builder().country("Elsewhere").age(30).build(), null);
+
+        assertThat(withAddress.content().getCountry()).isEqualTo("Elsewhere");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM address WHERE user_id = 2", Long.class))
+                .isEqualTo(1L);
+    }
+
+    private static BookRequestDto book(Long authorId, Long publisherId) {
+        return BookRequestDto.builder()
+                .isbn("ISBN-1")
+                .title("Book")
+                .author(new AuthorDto(authorId, null))
+                .publisher(new PublisherDto(publisherId, null))
+                .year(2001)
+                .build();
+    }
+}
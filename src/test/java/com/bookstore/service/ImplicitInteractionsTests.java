@@ -0,0 +1,114 @@
+package com.bookstore.service;
+
+import com.bookstore.repository.BookRankingRepository;
+import com.bookstore.repository.RatingMatrixRepository;
+import com.bookstore.service.impl.BookRatingStatsService;
+import com.bookstore.service.impl.FileDataUploadService;
+import com.bookstore.support.CatalogFixtures;
+import com.bookstore.support.PostgresRepositoryTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@PostgresRepositoryTest
+@Import({FileDataUploadService.class, BookRatingStatsService.class, BookRankingRepository.class,
+        RatingMatrixRepository.class})
+public class ImplicitInteractionsTests {
+
+    @Autowired
+    private FileDataUploadService uploadService;
+
+    @Autowired
+    private BookRatingStatsService statsService;
+
+    @Autowired
+    private RatingMatrixRepository matrixRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        new CatalogFixtures(jdbcTemplate)
+                .authors(1)
+                .publishers(1)
+                .books(3, 1)
+                .users(3);
+        uploadService.processRatingsFile(ratingsCsv(
+                "1;ISBN-1;8", "1;ISBN-2;0", "2;ISBN-1;6", "2;ISBN-2;0", "3;ISBN-3;0"));
+    }
+
+    @Test
+    void shouldKeepScoreZeroRowsOutOfRatings() {
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ratings", Integer.class)).isEqualTo(2);
+        assertThat(bookIds(1)).containsExactly(2L);
+        assertThat(bookIds(2)).containsExactly(2L);
+        assertThat(bookIds(3)).containsExactly(3L);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT ratings_count FROM books WHERE isbn = 'ISBN-2'", Integer.class)).isZero();
+    }
+
+    @Test
+    void shouldMergeInteractionsOfLaterImports() {
+        uploadService.processRatingsFile(ratingsCsv("1;ISBN-3;0", "1;ISBN-2;0", "1;UNKNOWN;0"));
+
+        assertThat(bookIds(1)).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void shouldCountImplicitInteractionsOnImport_withoutReconciling() {
+        uploadService.processRatingsFile(ratingsCsv("1;ISBN-3;0", "1;ISBN-2;0"));
+
+        assertThat(jdbcTemplate.queryForList("SELECT implicit_count FROM books ORDER BY isbn", Integer.class))
+                .as("ISBN-2 was already listed for user 1")
+                .containsExactly(0, 2, 2);
+    }
+
+    @Test
+    void shouldCountImplicitInteractions_withoutChangingExplicitAggregates() {
+        statsService.reconcile();
+
+        var stats = jdbcTemplate.queryForList(
+                "SELECT isbn, ratings_count, ratings_sum, implicit_count FROM books ORDER BY isbn");
+        assertThat(stats).extracting(row -> row.get("isbn"), row -> row.get("ratings_count"),
+                        row -> row.get("ratings_sum"), row -> row.get("implicit_count"))
+                .containsExactly(
+                        tuple("ISBN-1", 2, 14L, 0),
+                        tuple("ISBN-2", 0, 0L, 2),
+                        tuple("ISBN-3", 0, 0L, 1));
+    }
+
+    @Test
+    void shouldLoadImplicitInteractionsOnce_preferringExplicitScores() {
+        jdbcTemplate.update("INSERT INTO ratings(user_id, book_isbn, score) VALUES (3, 'ISBN-3', 9)");
+
+        var explicit = matrixRepo.loadExplicitRatings();
+        var all = matrixRepo.loadInteractions(2f);
+
+        assertThat(explicit.size()).isEqualTo(3);
+        assertThat(all.size()).isEqualTo(5);
+        assertThat(all.userRatingCount(all.userIndex(3))).isEqualTo(1);
+        assertThat(all.itemRatingCount(all.itemIndex("ISBN-2"))).isEqualTo(2);
+    }
+
+    private Long[] bookIds(long userId) {
+        return jdbcTemplate.queryForObject("SELECT book_ids FROM implicit_interactions WHERE user_id = ?",
+                (rs, rowNum) -> (Long[]) rs.getArray(1).getArray(), userId);
+    }
+
+    private static MockMultipartFile ratingsCsv(String... lines) {
+        var content = "\"User-ID\";\"ISBN\";\"Book-Rating\"\n" + String.join("\n", Arrays.stream(lines)
+                .map(line -> "\"" + line.replace(";", "\";\"") + "\"")
+                .toList());
+        return new MockMultipartFile("file", "ratings.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,112 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.rating.RatingRequestDto;
+import com.bookstore.repository.BookRankingRepository;
+import com.bookstore.service.impl.BookRatingStatsService;
+import com.bookstore.service.impl.BulkWriteService;
+import com.bookstore.service.impl.RatingWriteBuffer;
+import com.bookstore.support.CatalogFixtures;
+import com.bookstore.support.PostgresRepositoryTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A burst of ratings from {@code THREADS} request threads on a skewed set of books, written synchronously one
+ * transaction per rating versus submitted to the {@link RatingWriteBuffer} and flushed in batches.
+ * <p>
+ * Not part of the regular build; run with {@code mvn test -Dtest=RatingWriteBufferBenchmark -Dbenchmark=true}.
+ */
+@PostgresRepositoryTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BulkWriteService.class, RatingWriteBuffer.class, BookRatingStatsService.class, BookRankingRepository.class,
+        LocalValidatorFactoryBean.class})
+public class RatingWriteBufferBenchmark {
+    private static final int USERS = 20_000;
+    private static final int BOOKS = 2_000;
+    private static final int RATINGS = 20_000;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BulkWriteService bulkWriteService;
+
+    @Autowired
+    private RatingWriteBuffer buffer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void benchmark() throws Exception {
+        new CatalogFixtures(jdbcTemplate).authors(10).publishers(10).books(BOOKS, 10).users(USERS);
+        jdbcTemplate.execute("ANALYZE");
+
+        double syncMillis = burst(i -> bulkWriteService.saveRatings(List.of(rating(i, 0))));
+        double bufferedMillis = burst(i -> {
+            var rating = rating(i, 1);
+            buffer.submit(rating.getIsbn(), rating.getUserId(), rating.getScore());
+        });
+        long start = System.nanoTime();
+        buffer.flush();
+        double drainMillis = (System.nanoTime() - start) / 1e6;
+
+        assertThat(buffer.pendingCount()).isZero();
+        var drift = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM books b WHERE b.ratings_count <> " +
+                "(SELECT COUNT(*) FROM ratings r WHERE r.book_isbn = b.isbn)", Integer.class);
+        assertThat(drift).isZero();
+
+        System.out.printf("%-10s %12s %14s%n", "mode", "total ms", "ratings/s");
+        System.out.printf("%-10s %12.0f %14.0f%n", "sync", syncMillis, RATINGS / syncMillis * 1000);
+        System.out.printf("%-10s %12.0f %14.0f%n", "buffered", bufferedMillis, RATINGS / bufferedMillis * 1000);
+        System.out.printf("final drain %.0f ms%n", drainMillis);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE ratings, books, authors, publishers, users, address CASCADE");
+    }
+
+    /**
+     * Rating {@code i} of a round: user {@code 1 + i % USERS}, book skewed towards low ISBNs.
+     */
+    private RatingRequestDto rating(int i, int round) {
+        int book = 1 + (int) (BOOKS * Math.pow((i * 0.618034) % 1, 3));
+        return new RatingRequestDto("ISBN-" + book, 1L + i % USERS, 1 + (i + round) % 10);
+    }
+
+    private double burst(IntConsumer submit) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = IntStream.range(0, THREADS)
+                    .<Future<?>>mapToObj(thread -> pool.submit(() -> {
+                        for (int i = thread; i < RATINGS; i += THREADS) {
+                            submit.accept(i);
+                        }
+                    }))
+                    .toList();
+            for (var future : futures) {
+                future.get();
+            }
+            return (System.nanoTime() - start) / 1e6;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
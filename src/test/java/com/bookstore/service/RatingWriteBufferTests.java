@@ -0,0 +1,71 @@
+package com.bookstore.service;
+
+import com.bookstore.dto.bulk.BulkResultDto;
+import com.bookstore.dto.rating.RatingRequestDto;
+import com.bookstore.exception.ServiceOverloadedException;
+import com.bookstore.service.impl.BulkWriteService;
+import com.bookstore.service.impl.RatingWriteBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+public class RatingWriteBufferTests {
+    private final BulkWriteService bulkWriteService = mock(BulkWriteService.class);
+    private final RatingWriteBuffer buffer = new RatingWriteBuffer(bulkWriteService, 3, 100, 10);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        reset(bulkWriteService);
+        doReturn(BulkResultDto.of(List.of())).when(bulkWriteService).saveRatings(anyList());
+        buffer.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCoalesceRepeatedRatings_andFlushTheLatestScore() {
+        given(bulkWriteService.saveRatings(anyList())).willReturn(BulkResultDto.of(List.of()));
+        buffer.submit("ISBN-1", 1L, 3);
+        buffer.submit("ISBN-1", 1L, 9);
+        buffer.submit("ISBN-2", 1L, 5);
+
+        buffer.flush();
+
+        ArgumentCaptor<List<RatingRequestDto>> batch = ArgumentCaptor.forClass(List.class);
+        verify(bulkWriteService, times(1)).saveRatings(batch.capture());
+        assertThat(batch.getValue()).containsExactlyInAnyOrder(
+                new RatingRequestDto("ISBN-1", 1L, 9),
+                new RatingRequestDto("ISBN-2", 1L, 5));
+        assertThat(buffer.pendingCount()).isZero();
+    }
+
+    @Test
+    void shouldKeepRatings_whenFlushFails() {
+        given(bulkWriteService.saveRatings(anyList())).willThrow(new QueryTimeoutException("timeout"));
+        buffer.submit("ISBN-1", 1L, 3);
+
+        buffer.flush();
+
+        assertThat(buffer.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectNewRatings_whenBufferStaysFull() {
+        given(bulkWriteService.saveRatings(anyList())).willThrow(new QueryTimeoutException("timeout"));
+        buffer.submit("ISBN-1", 1L, 3);
+        buffer.submit("ISBN-2", 1L, 3);
+        buffer.submit("ISBN-3", 1L, 3);
+
+        assertThatThrownBy(() -> buffer.submit("ISBN-4", 1L, 3)).isInstanceOf(ServiceOverloadedException.class);
+        buffer.submit("ISBN-1", 1L, 7);
+        assertThat(buffer.pendingCount()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,85 @@
+package com.bookstore.service;
+
+import com.bookstore.repository.BookRankingRepository;
+import com.bookstore.repository.ConditionalUpdateRepository;
+import com.bookstore.service.impl.BookRatingStatsService;
+import com.bookstore.service.impl.KeysetPager;
+import com.bookstore.service.impl.UserServiceImpl;
+import com.bookstore.support.CatalogFixtures;
+import com.bookstore.support.PostgresRepositoryTest;
+import com.bookstore.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@PostgresRepositoryTest
+@Import({UserServiceImpl.class, KeysetPager.class, BookRatingStatsService.class, BookRankingRepository.class, ConditionalUpdateRepository.class})
+public class UserRatingsQueryTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private SqlStatementCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        new CatalogFixtures(jdbcTemplate)
+                .authors(1)
+                .publishers(1)
+                .books(300, 1)
+                .users(1)
+                .ratings(1, 300);
+        counter = new SqlStatementCounter(entityManager.getEntityManagerFactory());
+        entityManager.clear();
+        counter.reset();
+    }
+
+    @Test
+    void shouldReadRatingsPage_withBooksJoinedInSameQuery() {
+        var page = userService.findRatingsByUserId(1L, PageRequest.of(0, 100));
+
+        assertThat(page.getContent()).hasSize(100);
+        assertThat(page.getTotalElements()).isEqualTo(300);
+        assertThat(page.getContent()).extracting(rating -> rating.getBook().getIsbn()).isSorted();
+        assertThat(page.getContent().get(0).getBook().getTitle()).isEqualTo("Book 1");
+        assertThat(counter.statements()).isEqualTo(2);
+        assertThat(counter.entityLoads()).isZero();
+    }
+
+    @Test
+    void shouldReadRatingsAfterIsbn_withSingleStatement() {
+        var slice = userService.findRatingsByUserIdAfter(1L, "ISBN-1", 3);
+
+        // isbns sort as text: ISBN-1, ISBN-10, ISBN-100, ISBN-101, ...
+        assertThat(slice.getContent())
+                .extracting(rating -> rating.getBook().getIsbn(), rating -> rating.getBook().getTitle())
+                .containsExactly(
+                        tuple("ISBN-10", "Book 10"),
+                        tuple("ISBN-100", "Book 100"),
+                        tuple("ISBN-101", "Book 101"));
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(counter.statements()).isEqualTo(1);
+        assertThat(counter.entityLoads()).isZero();
+    }
+
+    @Test
+    void shouldReadLastRatingsSlice_withoutNext() {
+        var slice = userService.findRatingsByUserIdAfter(1L, "ISBN-98", 10);
+
+        assertThat(slice.getContent()).extracting(rating -> rating.getBook().getIsbn()).containsExactly("ISBN-99");
+        assertThat(slice.hasNext()).isFalse();
+    }
+}
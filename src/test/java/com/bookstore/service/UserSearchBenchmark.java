@@ -0,0 +1,98 @@
+package com.bookstore.service;
+
+import com.bookstore.controller.filters.UserFilter;
+import com.bookstore.mapping.UserMapper;
+import com.bookstore.repository.UserRepository;
+import com.bookstore.support.PostgresRepositoryTest;
+import com.bookstore.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.function.Supplier;
+
+/**
+ * User search latency and statement counts on 100k users with Book-Crossing-like addresses (skewed countries,
+ * 40% without age), comparing the old entity read (users plus one address select each) with the projection.
+ * <p>
+ * Not part of the regular build; run with {@code mvn test -Dtest=UserSearchBenchmark -Dbenchmark=true}.
+ */
+@PostgresRepositoryTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class UserSearchBenchmark {
+    private static final int USERS = 100_000;
+    private static final int RUNS = 30;
+    private static final Pageable PAGE = PageRequest.of(2, 20, Sort.by("id"));
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void benchmark() {
+        seed();
+        var counter = new SqlStatementCounter(entityManager.getEntityManagerFactory());
+
+        var filters = new LinkedHashMap<String, UserFilter>();
+        filters.put("none", new UserFilter());
+        filters.put("country", UserFilter.builder().country("germany").build());
+        filters.put("country+region", UserFilter.builder().country("usa").region("region 3").build());
+        filters.put("country+region+city", UserFilter.builder().country("usa").region("region 3").city("city 7").build());
+        filters.put("age", UserFilter.builder().minAge(18).maxAge(25).build());
+        filters.put("age+country", UserFilter.builder().minAge(18).maxAge(25).country("spain").build());
+        filters.put("city", UserFilter.builder().city("city 42").build());
+
+        System.out.printf("%-22s %14s %10s %14s %10s%n", "filter", "entities ms", "stmts", "projection ms", "stmts");
+        filters.forEach((name, filter) -> {
+            var entities = measure(counter, () -> userRepo.findAll(filter.toSpec(), PAGE)
+                    .map(UserMapper.INSTANCE::mapToDto).getContent());
+            var projection = measure(counter, () -> userRepo.findAllAsDto(filter.toSpec(), PAGE).getContent());
+            System.out.printf("%-22s %14.2f %10d %14.2f %10d%n",
+                    name, entities[0], (long) entities[1], projection[0], (long) projection[1]);
+        });
+    }
+
+    /**
+     * Median latency in ms and statements of one run.
+     */
+    private double[] measure(SqlStatementCounter counter, Supplier<?> search) {
+        var millis = new double[RUNS];
+        long statements = 0;
+        for (int run = 0; run < RUNS; run++) {
+            entityManager.clear();
+            counter.reset();
+            long start = System.nanoTime();
+            search.get();
+            millis[run] = (System.nanoTime() - start) / 1e6;
+            statements = counter.statements();
+        }
+        Arrays.sort(millis);
+        return new double[]{millis[RUNS / 2], statements};
+    }
+
+    private void seed() {
+        jdbcTemplate.execute("SELECT setseed(0.2004)");
+        jdbcTemplate.update("INSERT INTO users(id, external_id, age) " +
+                "SELECT g, g, CASE WHEN random() < 0.4 THEN NULL ELSE 14 + floor(random() * 60)::int END " +
+                "FROM generate_series(1, ?) g", USERS);
+        jdbcTemplate.update("INSERT INTO address(user_id, city, region, country) " +
+                "SELECT g, 'city ' || floor(random() * 200)::int, 'region ' || floor(random() * 20)::int, " +
+                "(ARRAY['usa', 'canada', 'united kingdom', 'germany', 'spain', 'australia', 'italy', 'france', " +
+                "'portugal', 'netherlands'])[1 + floor(power(random(), 2) * 10)::int] " +
+                "FROM generate_series(1, ?) g", USERS);
+        jdbcTemplate.execute("ANALYZE users");
+        jdbcTemplate.execute("ANALYZE address");
+    }
+}
@@ -0,0 +1,87 @@
+package com.bookstore.service;
+
+import com.bookstore.controller.filters.UserFilter;
+import com.bookstore.dto.user.UserDto;
+import com.bookstore.repository.BookRankingRepository;
+import com.bookstore.repository.ConditionalUpdateRepository;
+import com.bookstore.service.impl.BookRatingStatsService;
+import com.bookstore.service.impl.KeysetPager;
+import com.bookstore.service.impl.UserServiceImpl;
+import com.bookstore.support.CatalogFixtures;
+import com.bookstore.support.PostgresRepositoryTest;
+import com.bookstore.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@PostgresRepositoryTest
+@Import({UserServiceImpl.class, KeysetPager.class, BookRatingStatsService.class, BookRankingRepository.class, ConditionalUpdateRepository.class})
+public class UserSearchQueryTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private SqlStatementCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        new CatalogFixtures(jdbcTemplate).users(60);
+        jdbcTemplate.update("INSERT INTO users(id, external_id, age) VALUES (100, 100, NULL)");
+        counter = new SqlStatementCounter(entityManager.getEntityManagerFactory());
+        entityManager.clear();
+        counter.reset();
+    }
+
+    @Test
+    void shouldFilterByWholeAddress_withSingleStatement() {
+        var filter = UserFilter.builder().country("Country 0").region("Region 1").city("City 1").build();
+
+        var page = userService.findAll(filter, PageRequest.of(0, 20, Sort.by("id")));
+
+        // city g % 10 = 1 and country g % 3 = 0 -> users 21 and 51
+        assertThat(page.getContent()).extracting(UserDto::getId).containsExactly(21L, 51L);
+        assertThat(page.getContent().get(0))
+                .isEqualTo(new UserDto(21L, "City 1", "Region 1", "Country 0", 39));
+        assertThat(counter.statements()).isEqualTo(1);
+        assertThat(counter.entityLoads()).isZero();
+    }
+
+    @Test
+    void shouldFilterByAgeAndCountry_withContentAndCountStatements() {
+        var filter = UserFilter.builder().minAge(20).maxAge(40).country("Country 1").build();
+
+        var page = userService.findAll(filter, PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "age")));
+
+        // g % 3 = 1 and 2 <= g % 50 <= 22 among 1..60
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(page.getContent()).extracting(UserDto::getAge).isSortedAccordingTo((a, b) -> b - a);
+        assertThat(page.getContent()).allSatisfy(user -> {
+            assertThat(user.getCountry()).isEqualTo("Country 1");
+            assertThat(user.getAge()).isBetween(20, 40);
+        });
+        assertThat(counter.statements()).isEqualTo(2);
+        assertThat(counter.entityLoads()).isZero();
+    }
+
+    @Test
+    void shouldListUsersWithoutAddress_whenNoAddressFilter() {
+        var page = userService.findAll(new UserFilter(), PageRequest.of(0, 100, Sort.by("id")));
+
+        assertThat(page.getTotalElements()).isEqualTo(61);
+        assertThat(page.getContent().get(60)).isEqualTo(new UserDto(100L, null, null, null, null));
+        assertThat(counter.statements()).isEqualTo(1);
+    }
+}
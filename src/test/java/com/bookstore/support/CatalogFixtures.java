@@ -0,0 +1,58 @@
+package com.bookstore.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Set-based inserts of generated catalog data. Ids and ISBNs are deterministic:
+ * author/publisher {@code i}, book {@code ISBN-i} (author and publisher {@code 1 + i % authors}),
+ * user {@code i} with age {@code 18 + i % 50}.
+ */
+public class CatalogFixtures {
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogFixtures(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public CatalogFixtures authors(int count) {
+        jdbcTemplate.update("INSERT INTO authors(id, name) " +
+                "SELECT g, 'Author ' || g FROM generate_series(1, ?) g", count);
+        jdbcTemplate.execute("SELECT setval('authors_id_seq', (SELECT MAX(id) FROM authors))");
+        return this;
+    }
+
+    public CatalogFixtures publishers(int count) {
+        jdbcTemplate.update("INSERT INTO publishers(id, name) " +
+                "SELECT g, 'Publisher ' || g FROM generate_series(1, ?) g", count);
+        jdbcTemplate.execute("SELECT setval('publishers_id_seq', (SELECT MAX(id) FROM publishers))");
+        return this;
+    }
+
+    public CatalogFixtures books(int count, int authors) {
+        jdbcTemplate.update("INSERT INTO books(id, isbn, title, author_id, publisher_id, year) " +
+                "SELECT g, 'ISBN-' || g, 'Book ' || g, 1 + g % ?, 1 + g % ?, 1990 + g % 30 " +
+                "FROM generate_series(1, ?) g", authors, authors, count);
+        jdbcTemplate.execute("SELECT setval('books_id_seq', (SELECT MAX(id) FROM books))");
+        return this;
+    }
+
+    public CatalogFixtures users(int count) {
+        jdbcTemplate.update("INSERT INTO users(id, external_id, age) " +
+                "SELECT g, g, 18 + g % 50 FROM generate_series(1, ?) g", count);
+        jdbcTemplate.update("INSERT INTO address(user_id, city, region, country) " +
+                "SELECT g, 'City ' || g % 10, 'Region ' || g % 5, 'Country ' || g % 3 FROM generate_series(1, ?) g", count);
+        jdbcTemplate.execute("SELECT setval('users_id_seq', (SELECT MAX(id) FROM users))");
+        return this;
+    }
+
+    /**
+     * Every one of the first {@code users} users rates every one of the first {@code books} books
+     * with score {@code 1 + (user + book) % 10}.
+     */
+    public CatalogFixtures ratings(int users, int books) {
+        jdbcTemplate.update("INSERT INTO ratings(user_id, book_isbn, score) " +
+                "SELECT u, 'ISBN-' || b, 1 + (u + b) % 10 " +
+                "FROM generate_series(1, ?) u CROSS JOIN generate_series(1, ?) b", users, books);
+        return this;
+    }
+}
@@ -0,0 +1,97 @@
+package com.bookstore.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parsed output of {@code EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON)} for one statement.
+ */
+public class QueryPlan {
+    public static final String EXPLAIN = "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) ";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final JsonNode explain;
+
+    private QueryPlan(JsonNode explain) {
+        this.explain = explain;
+    }
+
+    public static QueryPlan parse(String json) {
+        try {
+            return new QueryPlan(MAPPER.readTree(json).get(0));
+        } catch (Exception ex) {
+            throw new IllegalArgumentException("Not an EXPLAIN JSON document: " + json, ex);
+        }
+    }
+
+    public double executionMillis() {
+        return explain.path("Execution Time").asDouble();
+    }
+
+    /**
+     * Shared buffers hit or read by the whole statement.
+     */
+    public long sharedBlocks() {
+        var root = explain.path("Plan");
+        return root.path("Shared Hit Blocks").asLong() + root.path("Shared Read Blocks").asLong();
+    }
+
+    /**
+     * Every plan node, depth first.
+     */
+    public List<Node> nodes() {
+        var nodes = new ArrayList<Node>();
+        collect(explain.path("Plan"), nodes);
+        return nodes;
+    }
+
+    /**
+     * One line per node, indented by depth, e.g. {@code Index Scan using books_isbn_key on books}.
+     */
+    public String summary() {
+        var summary = new StringBuilder();
+        summarize(explain.path("Plan"), 0, summary);
+        return summary.toString();
+    }
+
+    private static void collect(JsonNode plan, List<Node> nodes) {
+        long loops = Math.max(plan.path("Actual Loops").asLong(), 1);
+        nodes.add(new Node(plan.path("Node Type").asText(), plan.path("Relation Name").asText(null),
+                plan.path("Index Name").asText(null), plan.has("Filter"),
+                plan.path("Actual Rows").asLong() * loops, plan.path("Rows Removed by Filter").asLong() * loops));
+        for (var child : plan.path("Plans")) {
+            collect(child, nodes);
+        }
+    }
+
+    private static void summarize(JsonNode plan, int depth, StringBuilder summary) {
+        summary.append("  ".repeat(depth)).append(plan.path("Node Type").asText());
+        if (plan.has("Index Name")) {
+            summary.append(" using ").append(plan.path("Index Name").asText());
+        }
+        if (plan.has("Relation Name")) {
+            summary.append(" on ").append(plan.path("Relation Name").asText());
+        }
+        summary.append('\n');
+        for (var child : plan.path("Plans")) {
+            summarize(child, depth + 1, summary);
+        }
+    }
+
+    /**
+     * One plan node; row counts are totals over all loops.
+     */
+    public record Node(String type, String relation, String index, boolean filtered, long rows, long rowsRemovedByFilter) {
+        public boolean isSeqScan() {
+            return type.endsWith("Seq Scan");
+        }
+
+        public long rowsScanned() {
+            return rows + rowsRemovedByFilter;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.bookstore.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Wraps the application {@link DataSource} so that the SQL and bind parameters of every query executed through a
+ * prepared statement can be recorded and replayed later, e.g. under {@code EXPLAIN}. Import it into a test
+ * context to activate it.
+ */
+public class StatementRecorder implements BeanPostProcessor {
+    private final List<RecordedStatement> statements = new CopyOnWriteArrayList<>();
+    private volatile boolean recording;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                var result = method.invoke(target, args);
+                return result instanceof Connection connection ? wrap(connection) : result;
+            });
+        }
+        return bean;
+    }
+
+    /**
+     * Runs the action and returns the queries it executed, in order.
+     */
+    public List<RecordedStatement> record(Runnable action) {
+        statements.clear();
+        recording = true;
+        try {
+            action.run();
+        } finally {
+            recording = false;
+        }
+        return List.copyOf(statements);
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            var result = method.invoke(target, args);
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                return wrap(statement, (String) args[0]);
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement wrap(PreparedStatement statement, String sql) {
+        var bindings = new ArrayList<Binding>();
+        return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+            var name = method.getName();
+            if (name.startsWith("set") && args != null && args.length > 1 && method.getParameterTypes()[0] == int.class) {
+                bindings.add(new Binding(method, args.clone()));
+            } else if (name.equals("clearParameters")) {
+                bindings.clear();
+            } else if (recording && (name.equals("executeQuery") || name.equals("execute")) && args == null) {
+                statements.add(new RecordedStatement(sql, List.copyOf(bindings)));
+            }
+            return method.invoke(target, args);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            try {
+                return handler.invoke(target, method, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(StatementRecorder.class.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+
+    @FunctionalInterface
+    private interface Handler<T> {
+        Object invoke(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    private record Binding(Method setter, Object[] args) {
+    }
+
+    public record RecordedStatement(String sql, List<Binding> bindings) {
+        /**
+         * Prepares {@code prefix + sql} on the connection with the recorded parameters bound again.
+         */
+        public PreparedStatement prepare(Connection connection, String prefix) throws SQLException {
+            var statement = connection.prepareStatement(prefix + sql);
+            for (var binding : bindings) {
+                try {
+                    binding.setter().invoke(statement, binding.args());
+                } catch (ReflectiveOperationException ex) {
+                    throw new SQLException("Cannot replay " + binding.setter().getName(), ex);
+                }
+            }
+            return statement;
+        }
+    }
+}